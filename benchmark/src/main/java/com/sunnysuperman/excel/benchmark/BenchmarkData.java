@@ -0,0 +1,105 @@
+package com.sunnysuperman.excel.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import com.sunnysuperman.excel.ExcelCellType;
+import com.sunnysuperman.excel.ExcelUtils;
+import com.sunnysuperman.excel.csv.CsvFormat;
+import com.sunnysuperman.excel.reader.ExcelColumn;
+import com.sunnysuperman.excel.writer.ExcelWriter;
+import com.sunnysuperman.excel.writer.ExcelWriterOptions;
+
+/**
+ * 基准测试数据：生成指定行数的表格文件
+ */
+public class BenchmarkData {
+	public static final String[] TITLES = { "手机号", "姓名", "数量", "金额", "日期", "备注数字" };
+
+	private BenchmarkData() {
+	}
+
+	public static ExcelColumn[] columns() {
+		return new ExcelColumn[] { new ExcelColumn("phone", "手机号"), new ExcelColumn("name", "姓名"),
+				new ExcelColumn("count", "数量", ExcelCellType.INT),
+				new ExcelColumn("amount", "金额", ExcelCellType.DOUBLE),
+				new ExcelColumn("date", "日期", ExcelCellType.DATE),
+				new ExcelColumn("dirty", "备注数字", ExcelCellType.LONG) };
+	}
+
+	/** 带校验规则的列：数量超过499的行（一半）校验失败 **/
+	public static ExcelColumn[] validatedColumns() {
+		ExcelColumn[] columns = columns();
+		columns[0].setRequired(true).setPattern("1[0-9]{10}");
+		columns[1].setRequired(true).setMaxLength(32);
+		columns[2].setRange(0, 499);
+		columns[3].setRange(0, Double.MAX_VALUE);
+		return columns;
+	}
+
+	public static File makeExcelFile(int rowsNum) throws IOException {
+		SXSSFWorkbook wb = new SXSSFWorkbook(500);
+		SXSSFSheet sheet = wb.createSheet();
+		CellStyle dateStyle = wb.createCellStyle();
+		dateStyle.setDataFormat(wb.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd hh:mm:ss"));
+
+		Row titleRow = sheet.createRow(0);
+		for (int i = 0; i < TITLES.length; i++) {
+			titleRow.createCell(i).setCellValue(TITLES[i]);
+		}
+		long start = 13800000000L;
+		long now = System.currentTimeMillis();
+		for (int i = 0; i < rowsNum; i++) {
+			Row row = sheet.createRow(i + 1);
+			row.createCell(0).setCellValue(String.valueOf(start + i));
+			row.createCell(1).setCellValue("name-" + i);
+			row.createCell(2).setCellValue(i % 1000);
+			row.createCell(3).setCellValue(i * 1.25d);
+			row.createCell(4).setCellValue(new Date(now - i * 60000L));
+			row.getCell(4).setCellStyle(dateStyle);
+			row.createCell(5).setCellValue(" " + (i * 7) + " ");
+		}
+
+		File file = File.createTempFile("ss-excel-benchmark-" + rowsNum + "-", ".xlsx");
+		file.deleteOnExit();
+		ExcelUtils.writeToFile(wb, file);
+		wb.dispose();
+		return file;
+	}
+
+	/** 同makeExcelFile的数据，写成CSV文件 **/
+	public static File makeCsvFile(int rowsNum) throws Exception {
+		File file = File.createTempFile("ss-excel-benchmark-" + rowsNum + "-", ".csv");
+		file.deleteOnExit();
+		long start = 13800000000L;
+		long now = System.currentTimeMillis();
+		ExcelColumn[] columns = new ExcelColumn[TITLES.length];
+		String[] keys = { "phone", "name", "count", "amount", "date", "dirty" };
+		for (int k = 0; k < columns.length; k++) {
+			columns[k] = new ExcelColumn(keys[k], TITLES[k]);
+		}
+		try (ExcelWriter writer = new ExcelWriter(
+				new ExcelWriterOptions().setCsvFormat(CsvFormat.CSV).setColumns(columns), file)) {
+			Map<String, Object> data = new HashMap<>();
+			for (int i = 0; i < rowsNum; i++) {
+				data.put("phone", String.valueOf(start + i));
+				data.put("name", "name-" + i);
+				data.put("count", i % 1000);
+				data.put("amount", i * 1.25d);
+				data.put("date", new Date(now - i * 60000L));
+				data.put("dirty", " " + (i * 7) + " ");
+				writer.writeRow(data);
+			}
+			writer.finish();
+		}
+		return file;
+	}
+}
@@ -0,0 +1,230 @@
+package com.sunnysuperman.excel.benchmark;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.sunnysuperman.excel.csv.CsvFormat;
+import com.sunnysuperman.excel.reader.ExcelColumn;
+import com.sunnysuperman.excel.reader.ExcelCopyMode;
+import com.sunnysuperman.excel.reader.ExcelReader;
+import com.sunnysuperman.excel.reader.ExcelReaderEngine;
+import com.sunnysuperman.excel.reader.ExcelReaderOptions;
+import com.sunnysuperman.excel.reader.ExcelReaderStats;
+import com.sunnysuperman.excel.reader.ExcelRowView;
+import com.sunnysuperman.excel.reader.Handler;
+import com.sunnysuperman.excel.reader.HandlerException;
+import com.sunnysuperman.excel.reader.RowViewHandler;
+
+/**
+ * ExcelReader整体读取基准，结果按行计（配合 -prof gc 查看每行分配字节数）
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(ExcelReaderBenchmark.ROWS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExcelReaderBenchmark {
+	static final int ROWS = 100000;
+
+	@Param({ "100" })
+	private int rowCacheSize;
+
+	private File file;
+	private File csvFile;
+	private ExcelColumn[] columns;
+	private final ExcelReaderStats stats = new ExcelReaderStats();
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		file = BenchmarkData.makeExcelFile(ROWS);
+		csvFile = BenchmarkData.makeCsvFile(ROWS);
+		columns = BenchmarkData.columns();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		file.delete();
+		csvFile.delete();
+	}
+
+	@Benchmark
+	public void readStreaming(Blackhole bh) throws Exception {
+		read(new ExcelReaderOptions().setStreaming(true).setStreamingRowCacheSize(rowCacheSize), bh);
+	}
+
+	@Benchmark
+	public void readNonStreaming(Blackhole bh) throws Exception {
+		read(new ExcelReaderOptions().setStreaming(false), bh);
+	}
+
+	@Benchmark
+	public void readNative(Blackhole bh) throws Exception {
+		read(new ExcelReaderOptions().setEngine(ExcelReaderEngine.NATIVE), bh);
+	}
+
+	/** 多线程解析（线程数同CPU核数，至少2个），按行顺序交给Handler **/
+	@Benchmark
+	public void readNativeParallel(Blackhole bh) throws Exception {
+		read(new ExcelReaderOptions().setEngine(ExcelReaderEngine.NATIVE)
+				.setParallelism(Math.max(2, Runtime.getRuntime().availableProcessors())), bh);
+	}
+
+	/** 跳过前90%的行只读最后10%（吞吐按文件总行数计，对比readNative即跳过行的开销） **/
+	@Benchmark
+	public void readNativeLastTenth(Blackhole bh) throws Exception {
+		read(new ExcelReaderOptions().setEngine(ExcelReaderEngine.NATIVE).setStartRowIndex(ROWS - ROWS / 10), bh);
+	}
+
+	/** 开启指标统计（每行两次计时） **/
+	@Benchmark
+	public void readNativeWithMetrics(Blackhole bh) throws Exception {
+		read(new ExcelReaderOptions().setEngine(ExcelReaderEngine.NATIVE).setMetrics(stats), bh);
+	}
+
+	/** 按列校验规则检查（一半的行有错误列） **/
+	@Benchmark
+	public void readNativeValidated(Blackhole bh) throws Exception {
+		ExcelReaderOptions options = new ExcelReaderOptions().setEngine(ExcelReaderEngine.NATIVE)
+				.setColumns(BenchmarkData.validatedColumns()).setHandler(new BlackholeHandler(bh));
+		new ExcelReader(file, options).read();
+	}
+
+	/** 手机号列唯一（按指纹索引检查整个表格） **/
+	@Benchmark
+	public void readNativeUnique(Blackhole bh) throws Exception {
+		ExcelColumn[] uniqueColumns = BenchmarkData.columns();
+		uniqueColumns[0].setUnique(true);
+		ExcelReaderOptions options = new ExcelReaderOptions().setEngine(ExcelReaderEngine.NATIVE)
+				.setColumns(uniqueColumns).setHandler(new BlackholeHandler(bh));
+		new ExcelReader(file, options).read();
+	}
+
+	/** 同样数据的CSV文件 **/
+	@Benchmark
+	public void readCsv(Blackhole bh) throws Exception {
+		ExcelReaderOptions options = new ExcelReaderOptions().setCsvFormat(CsvFormat.CSV).setColumns(columns)
+				.setHandler(new BlackholeHandler(bh));
+		new ExcelReader(csvFile, options).read();
+	}
+
+	@Benchmark
+	public void readNativeSingleColumn(Blackhole bh) throws Exception {
+		ExcelReaderOptions options = new ExcelReaderOptions().setEngine(ExcelReaderEngine.NATIVE)
+				.setColumns(new ExcelColumn[] { columns[3] }).setHandler(new BlackholeHandler(bh));
+		new ExcelReader(file, options).read();
+	}
+
+	@Benchmark
+	public void readNativeRowView(Blackhole bh) throws Exception {
+		ExcelReaderOptions options = new ExcelReaderOptions().setEngine(ExcelReaderEngine.NATIVE).setColumns(columns)
+				.setHandler(new RowViewHandler() {
+
+					@Override
+					public boolean onRow(ExcelReader reader, ExcelRowView row) throws HandlerException {
+						bh.consume(row.getString(0));
+						bh.consume(row.getInt(2));
+						bh.consume(row.getDouble(3));
+						bh.consume(row.getDate(4));
+						bh.consume(row.getLong(5));
+						return true;
+					}
+
+				});
+		new ExcelReader(file, options).read();
+	}
+
+	@Benchmark
+	public void readStreamingWithCopy(Blackhole bh) throws Exception {
+		ExcelReaderOptions options = new ExcelReaderOptions().setStreaming(true).setStreamingRowCacheSize(rowCacheSize)
+				.setCopyRowCacheSize(rowCacheSize);
+		ExcelReader reader = read(options, bh);
+		reader.getCopySheet().getWorkbook().close();
+	}
+
+	/** 逐行重建拷贝并写出，每行追加一个结果单元格 **/
+	@Benchmark
+	public void readStreamingWithCopyAndWrite(Blackhole bh) throws Exception {
+		ExcelReaderOptions options = new ExcelReaderOptions().setStreaming(true).setStreamingRowCacheSize(rowCacheSize)
+				.setCopyRowCacheSize(rowCacheSize);
+		options.setColumns(columns).setHandler(new BlackholeHandler(bh) {
+
+			@Override
+			public boolean onData(ExcelReader reader, Map<String, Object> data, int rowIndex,
+					List<ExcelColumn> errorColumns) throws HandlerException {
+				reader.getCopySheet().getRow(rowIndex).createCell(6).setCellValue("成功");
+				return super.onData(reader, data, rowIndex, errorColumns);
+			}
+
+		});
+		ExcelReader reader = new ExcelReader(file, options);
+		reader.read();
+		SXSSFWorkbook copyWorkbook = (SXSSFWorkbook) reader.getCopySheet().getWorkbook();
+		copyWorkbook.write(new NullOutputStream());
+		copyWorkbook.dispose();
+		copyWorkbook.close();
+	}
+
+	/** 原样拷贝并写出，每行追加一个结果单元格 **/
+	@Benchmark
+	public void readNativeWithRawCopyAndWrite(Blackhole bh) throws Exception {
+		ExcelReaderOptions options = new ExcelReaderOptions().setEngine(ExcelReaderEngine.NATIVE)
+				.setCopyMode(ExcelCopyMode.RAW);
+		options.setColumns(columns).setHandler(new BlackholeHandler(bh) {
+
+			@Override
+			public boolean onData(ExcelReader reader, Map<String, Object> data, int rowIndex,
+					List<ExcelColumn> errorColumns) throws HandlerException {
+				reader.annotate(rowIndex, 6, "成功");
+				return super.onData(reader, data, rowIndex, errorColumns);
+			}
+
+		});
+		ExcelReader reader = new ExcelReader(file, options);
+		reader.read();
+		reader.writeCopyTo(new NullOutputStream());
+	}
+
+	private ExcelReader read(ExcelReaderOptions options, Blackhole bh) throws Exception {
+		options.setColumns(columns).setHandler(new BlackholeHandler(bh));
+		ExcelReader reader = new ExcelReader(file, options);
+		reader.read();
+		return reader;
+	}
+
+	private static class BlackholeHandler implements Handler {
+		private final Blackhole bh;
+
+		BlackholeHandler(Blackhole bh) {
+			this.bh = bh;
+		}
+
+		@Override
+		public boolean onData(ExcelReader reader, Map<String, Object> data, int rowIndex,
+				List<ExcelColumn> errorColumns) throws HandlerException {
+			bh.consume(data);
+			bh.consume(errorColumns);
+			return true;
+		}
+	}
+}
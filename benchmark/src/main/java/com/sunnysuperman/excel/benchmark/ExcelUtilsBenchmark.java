@@ -0,0 +1,129 @@
+package com.sunnysuperman.excel.benchmark;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sunnysuperman.excel.CellDateFormatter;
+import com.sunnysuperman.excel.DateStyleCache;
+import com.sunnysuperman.excel.ExcelCellType;
+import com.sunnysuperman.excel.ExcelException;
+import com.sunnysuperman.excel.ExcelUtils;
+
+/**
+ * ExcelUtils.getCellValue(Cell, ExcelCellType) 各类型转换分支基准
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ExcelUtilsBenchmark {
+	private Workbook workbook;
+	private Cell stringCell;
+	private Cell intCell;
+	private Cell doubleCell;
+	private Cell dateCell;
+	private Cell dirtyNumberCell;
+	private DateStyleCache dateStyleCache;
+	private CellDateFormatter dateFormatter;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		workbook = ExcelUtils.newWorkbook();
+		Row row = ExcelUtils.ensureRow(ExcelUtils.ensureSheet(workbook, 0), 0);
+		CellStyle dateStyle = workbook.createCellStyle();
+		dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd hh:mm:ss"));
+
+		stringCell = row.createCell(0);
+		stringCell.setCellValue(" 13800000000 ");
+		intCell = row.createCell(1);
+		intCell.setCellValue(12345);
+		doubleCell = row.createCell(2);
+		doubleCell.setCellValue(12345.678d);
+		dateCell = row.createCell(3);
+		dateCell.setCellValue(new Date());
+		dateCell.setCellStyle(dateStyle);
+		dirtyNumberCell = row.createCell(4);
+		dirtyNumberCell.setCellValue(" 12345 ");
+		dateStyleCache = new DateStyleCache();
+		dateFormatter = CellDateFormatter.getDefault();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		workbook.close();
+	}
+
+	@Benchmark
+	public Object string() throws ExcelException {
+		return ExcelUtils.getCellValue(stringCell, ExcelCellType.STRING);
+	}
+
+	@Benchmark
+	public Object numberAsString() throws ExcelException {
+		return ExcelUtils.getCellValue(doubleCell, ExcelCellType.STRING);
+	}
+
+	@Benchmark
+	public Object dateAsString() throws ExcelException {
+		return ExcelUtils.getCellValue(dateCell, ExcelCellType.STRING);
+	}
+
+	@Benchmark
+	public Object numberAsStringCached() throws ExcelException {
+		return ExcelUtils.getCellValue(doubleCell, ExcelCellType.STRING, dateStyleCache);
+	}
+
+	@Benchmark
+	public Object dateValueCached() throws ExcelException {
+		return ExcelUtils.getCellValue(dateCell, ExcelCellType.DATE, dateStyleCache);
+	}
+
+	@Benchmark
+	public Object dateAsStringFormatter() throws ExcelException {
+		return ExcelUtils.getCellValue(dateCell, ExcelCellType.STRING, dateStyleCache, dateFormatter);
+	}
+
+	@Benchmark
+	public Object intValue() throws ExcelException {
+		return ExcelUtils.getCellValue(intCell, ExcelCellType.INT);
+	}
+
+	@Benchmark
+	public Object doubleValue() throws ExcelException {
+		return ExcelUtils.getCellValue(doubleCell, ExcelCellType.DOUBLE);
+	}
+
+	@Benchmark
+	public Object dateValue() throws ExcelException {
+		return ExcelUtils.getCellValue(dateCell, ExcelCellType.DATE);
+	}
+
+	@Benchmark
+	public Object dirtyStringToInt() throws ExcelException {
+		return ExcelUtils.getCellValue(dirtyNumberCell, ExcelCellType.INT);
+	}
+
+	@Benchmark
+	public Object dirtyStringToDouble() throws ExcelException {
+		return ExcelUtils.getCellValue(dirtyNumberCell, ExcelCellType.DOUBLE);
+	}
+}
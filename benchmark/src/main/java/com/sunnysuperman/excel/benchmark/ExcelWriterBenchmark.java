@@ -0,0 +1,122 @@
+package com.sunnysuperman.excel.benchmark;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sunnysuperman.excel.ExcelUtils;
+import com.sunnysuperman.excel.csv.CsvFormat;
+import com.sunnysuperman.excel.reader.ExcelColumn;
+import com.sunnysuperman.excel.writer.ExcelWriter;
+import com.sunnysuperman.excel.writer.ExcelWriterEngine;
+import com.sunnysuperman.excel.writer.ExcelWriterOptions;
+
+/**
+ * ExcelWriter整体写出基准，结果按行计，输出丢弃（只计生成及压缩开销）
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(ExcelWriterBenchmark.ROWS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExcelWriterBenchmark {
+	static final int ROWS = 100000;
+
+	@Param({ "100" })
+	private int rowCacheSize;
+
+	private ExcelColumn[] columns;
+	private List<Map<String, Object>> rows;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		columns = BenchmarkData.columns();
+		rows = new ArrayList<>(ROWS);
+		long start = 13800000000L;
+		long now = System.currentTimeMillis();
+		for (int i = 0; i < ROWS; i++) {
+			Map<String, Object> data = new HashMap<>();
+			data.put("phone", String.valueOf(start + i));
+			data.put("name", "name-" + i);
+			data.put("count", i % 1000);
+			data.put("amount", i * 1.25d);
+			data.put("date", new Date(now - i * 60000L));
+			data.put("dirty", (long) i * 7);
+			rows.add(data);
+		}
+	}
+
+	@Benchmark
+	public void writeRows() throws Exception {
+		try (ExcelWriter writer = new ExcelWriter(
+				new ExcelWriterOptions().setColumns(columns).setRowCacheSize(rowCacheSize))) {
+			writer.writeRows(rows);
+			writer.writeTo(new NullOutputStream());
+		}
+	}
+
+	@Benchmark
+	public void writeRowsNative() throws Exception {
+		try (ExcelWriter writer = new ExcelWriter(new ExcelWriterOptions().setEngine(ExcelWriterEngine.NATIVE)
+				.setColumns(columns).setRowCacheSize(rowCacheSize), new NullOutputStream())) {
+			writer.writeRows(rows);
+			writer.finish();
+		}
+	}
+
+	@Benchmark
+	public void writeRowsCsv() throws Exception {
+		try (ExcelWriter writer = new ExcelWriter(
+				new ExcelWriterOptions().setCsvFormat(CsvFormat.CSV).setColumns(columns), new NullOutputStream())) {
+			writer.writeRows(rows);
+			writer.finish();
+		}
+	}
+
+	/** 对照：手写 newWorkbook/ensureRow/setCellValue 循环 **/
+	@Benchmark
+	public void writeByHand() throws Exception {
+		SXSSFWorkbook wb = (SXSSFWorkbook) ExcelUtils.newWorkbook(rowCacheSize);
+		try {
+			Sheet sheet = ExcelUtils.ensureSheet(wb, 0);
+			Row titleRow = ExcelUtils.ensureRow(sheet, 0);
+			for (int k = 0; k < columns.length; k++) {
+				ExcelUtils.ensureCell(titleRow, k).setCellValue(columns[k].getTitle());
+			}
+			int rowNum = 1;
+			for (Map<String, Object> data : rows) {
+				Row row = ExcelUtils.ensureRow(sheet, rowNum++);
+				for (int k = 0; k < columns.length; k++) {
+					ExcelUtils.setCellValue(ExcelUtils.ensureCell(row, k), data.get(columns[k].getKey()));
+				}
+			}
+			wb.write(new NullOutputStream());
+		} finally {
+			wb.dispose();
+			wb.close();
+		}
+	}
+
+}
@@ -0,0 +1,21 @@
+package com.sunnysuperman.excel.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 丢弃输出（只计生成及压缩开销）
+ */
+class NullOutputStream extends OutputStream {
+
+	@Override
+	public void write(int b) throws IOException {
+		// nope
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		// nope
+	}
+
+}
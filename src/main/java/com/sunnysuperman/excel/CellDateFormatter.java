@@ -0,0 +1,130 @@
+package com.sunnysuperman.excel;
+
+import java.text.SimpleDateFormat;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.sunnysuperman.commons.util.FormatUtil;
+
+/**
+ * 日期单元格转字符串的格式化器：按格式及时区缓存，线程安全，可在多次读取间共享。
+ *
+ * 格式按SimpleDateFormat的语义：只含两者含义相同的字母（y、M、d、H、m、s、SSS、Z）时用DateTimeFormatter，否则用各线程的SimpleDateFormat
+ */
+public class CellDateFormatter {
+	private static final ConcurrentMap<String, CellDateFormatter> CACHE = new ConcurrentHashMap<>();
+	private static volatile CellDateFormatter defaultFormatter; // 默认格式，系统时区变化时重新取
+
+	private final String pattern;
+	private final TimeZone timeZone;
+	private final DateTimeFormatter formatter;
+	private final ThreadLocal<SimpleDateFormat> fallback;
+
+	private CellDateFormatter(String pattern, TimeZone timeZone) {
+		this.pattern = pattern;
+		this.timeZone = timeZone;
+		DateTimeFormatter dtf = null;
+		if (isCompatible(pattern)) {
+			try {
+				dtf = DateTimeFormatter.ofPattern(pattern).withZone(timeZone.toZoneId());
+			} catch (IllegalArgumentException e) {
+				dtf = null;
+			}
+		}
+		this.formatter = dtf;
+		this.fallback = dtf != null ? null : ThreadLocal.withInitial(() -> {
+			SimpleDateFormat format = new SimpleDateFormat(pattern);
+			format.setTimeZone(timeZone);
+			return format;
+		});
+	}
+
+	/** 格式在DateTimeFormatter中的含义是否与SimpleDateFormat相同 **/
+	static boolean isCompatible(String pattern) {
+		int i = 0;
+		while (i < pattern.length()) {
+			char c = pattern.charAt(i);
+			if (c == '\'') {
+				// 引号内为原样输出的文字（''为单引号），两者相同
+				int end = pattern.indexOf('\'', i + 1);
+				if (end < 0) {
+					return false;
+				}
+				i = end + 1;
+				continue;
+			}
+			int count = 1;
+			while (i + count < pattern.length() && pattern.charAt(i + count) == c) {
+				count++;
+			}
+			i += count;
+			if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')) {
+				if (!isCompatibleField(c, count)) {
+					return false;
+				}
+			} else if (c == '[' || c == ']' || c == '{' || c == '}' || c == '#') {
+				// DateTimeFormatter的保留字符
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isCompatibleField(char c, int count) {
+		switch (c) {
+		case 'y':
+			return count == 2 || count == 4;
+		case 'M':
+		case 'd':
+		case 'H':
+		case 'm':
+		case 's':
+			return count <= 2;
+		case 'S':
+			return count == 3;
+		case 'Z':
+			return count <= 3;
+		default:
+			return false;
+		}
+	}
+
+	/**
+	 * @param pattern  日期格式（同SimpleDateFormat）
+	 * @param timeZone 时区，为null时使用当前系统时区
+	 */
+	public static CellDateFormatter of(String pattern, TimeZone timeZone) {
+		TimeZone tz = timeZone == null ? TimeZone.getDefault() : timeZone;
+		return CACHE.computeIfAbsent(pattern + '|' + tz.getID(), key -> new CellDateFormatter(pattern, tz));
+	}
+
+	/** ISO8601（含毫秒）格式，当前系统时区 **/
+	public static CellDateFormatter getDefault() {
+		TimeZone tz = TimeZone.getDefault();
+		CellDateFormatter formatter = defaultFormatter;
+		if (formatter == null || !formatter.timeZone.getID().equals(tz.getID())) {
+			formatter = of(FormatUtil.ISO8601DATE_WITH_MILLS_FORMAT, tz);
+			defaultFormatter = formatter;
+		}
+		return formatter;
+	}
+
+	public String format(Date date) {
+		if (formatter != null) {
+			return formatter.format(date.toInstant());
+		}
+		return fallback.get().format(date);
+	}
+
+	public String getPattern() {
+		return pattern;
+	}
+
+	public TimeZone getTimeZone() {
+		return timeZone;
+	}
+
+}
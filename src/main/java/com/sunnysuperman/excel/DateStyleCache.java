@@ -0,0 +1,44 @@
+package com.sunnysuperman.excel;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.DateUtil;
+
+/**
+ * 按单元格样式序号缓存“是否日期格式”的判断结果，同一工作簿内每个样式只解析一次格式字符串。
+ * 样式序号只在同一工作簿内有效，不同工作簿需使用不同的缓存；非线程安全
+ */
+public class DateStyleCache {
+	private static final byte UNKNOWN = 0;
+	private static final byte DATE = 1;
+	private static final byte NOT_DATE = 2;
+
+	private byte[] verdicts = new byte[64];
+
+	/** 同DateUtil.isCellDateFormatted(cell) **/
+	public boolean isCellDateFormatted(Cell cell) {
+		if (cell == null) {
+			return false;
+		}
+		return DateUtil.isValidExcelDate(cell.getNumericCellValue()) && isDateStyle(cell.getCellStyle());
+	}
+
+	public boolean isDateStyle(CellStyle style) {
+		if (style == null) {
+			return false;
+		}
+		int index = style.getIndex() & 0xFFFF;
+		if (index >= verdicts.length) {
+			byte[] newVerdicts = new byte[Math.max(index + 1, verdicts.length * 2)];
+			System.arraycopy(verdicts, 0, newVerdicts, 0, verdicts.length);
+			verdicts = newVerdicts;
+		}
+		byte verdict = verdicts[index];
+		if (verdict == UNKNOWN) {
+			verdict = DateUtil.isADateFormat(style.getDataFormat(), style.getDataFormatString()) ? DATE : NOT_DATE;
+			verdicts[index] = verdict;
+		}
+		return verdict == DATE;
+	}
+
+}
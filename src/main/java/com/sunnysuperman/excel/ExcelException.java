@@ -8,6 +8,9 @@ public class ExcelException extends Exception {
 	public static final int ERROR_UNKNOWN_CELL_TYPE = 4;
 	public static final int ERROR_COLUMN_NOT_MATCH = 5;
 	public static final int ERROR_CELL_TYPE_NOT_MATCH = 6;
+	public static final int ERROR_SHEET_NOT_FOUND = 7;
+	public static final int ERROR_TOO_MANY_ROWS = 8;
+	public static final int ERROR_CHECKPOINT_NOT_MATCH = 9;
 
 	private final transient int errorCode;
 	private final transient Object[] errorParams;
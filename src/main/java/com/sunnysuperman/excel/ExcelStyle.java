@@ -0,0 +1,124 @@
+package com.sunnysuperman.excel;
+
+import java.util.Objects;
+
+import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.ss.usermodel.VerticalAlignment;
+
+/**
+ * 单元格样式描述（数字格式、字体、对齐），按内容比较，由ExcelStylePool去重后创建
+ */
+public class ExcelStyle {
+	private String dataFormat; // 数字格式，为空则为常规
+	private String fontName; // 字体，为空则为默认字体
+	private short fontSize; // 字号（磅），0则为默认字号
+	private boolean bold; // 是否粗体
+	private HorizontalAlignment horizontalAlignment; // 水平对齐，为空则为常规
+	private VerticalAlignment verticalAlignment; // 垂直对齐，为空则为默认
+	private boolean wrapText; // 是否自动换行
+
+	public String getDataFormat() {
+		return dataFormat;
+	}
+
+	public ExcelStyle setDataFormat(String dataFormat) {
+		this.dataFormat = dataFormat;
+		return this;
+	}
+
+	public String getFontName() {
+		return fontName;
+	}
+
+	public ExcelStyle setFontName(String fontName) {
+		this.fontName = fontName;
+		return this;
+	}
+
+	public short getFontSize() {
+		return fontSize;
+	}
+
+	public ExcelStyle setFontSize(short fontSize) {
+		this.fontSize = fontSize;
+		return this;
+	}
+
+	public boolean isBold() {
+		return bold;
+	}
+
+	public ExcelStyle setBold(boolean bold) {
+		this.bold = bold;
+		return this;
+	}
+
+	public HorizontalAlignment getHorizontalAlignment() {
+		return horizontalAlignment;
+	}
+
+	public ExcelStyle setHorizontalAlignment(HorizontalAlignment horizontalAlignment) {
+		this.horizontalAlignment = horizontalAlignment;
+		return this;
+	}
+
+	public VerticalAlignment getVerticalAlignment() {
+		return verticalAlignment;
+	}
+
+	public ExcelStyle setVerticalAlignment(VerticalAlignment verticalAlignment) {
+		this.verticalAlignment = verticalAlignment;
+		return this;
+	}
+
+	public boolean isWrapText() {
+		return wrapText;
+	}
+
+	public ExcelStyle setWrapText(boolean wrapText) {
+		this.wrapText = wrapText;
+		return this;
+	}
+
+	/** 是否有非默认字体 **/
+	public boolean hasFont() {
+		return fontName != null || fontSize > 0 || bold;
+	}
+
+	/** 字体部分相同 **/
+	public boolean isSameFont(ExcelStyle other) {
+		return Objects.equals(fontName, other.fontName) && fontSize == other.fontSize && bold == other.bold;
+	}
+
+	public ExcelStyle copy() {
+		ExcelStyle copy = new ExcelStyle();
+		copy.dataFormat = dataFormat;
+		copy.fontName = fontName;
+		copy.fontSize = fontSize;
+		copy.bold = bold;
+		copy.horizontalAlignment = horizontalAlignment;
+		copy.verticalAlignment = verticalAlignment;
+		copy.wrapText = wrapText;
+		return copy;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof ExcelStyle)) {
+			return false;
+		}
+		ExcelStyle other = (ExcelStyle) obj;
+		return Objects.equals(dataFormat, other.dataFormat) && isSameFont(other)
+				&& horizontalAlignment == other.horizontalAlignment && verticalAlignment == other.verticalAlignment
+				&& wrapText == other.wrapText;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(dataFormat, fontName, fontSize, bold, horizontalAlignment, verticalAlignment, wrapText);
+	}
+
+}
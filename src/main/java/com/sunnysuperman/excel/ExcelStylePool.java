@@ -0,0 +1,119 @@
+package com.sunnysuperman.excel;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Workbook;
+
+/**
+ * 工作簿的单元格样式池：相同样式（类型、数字格式、字体、对齐）只创建一次，避免每个单元格创建样式导致超出工作簿样式数上限（64000）。
+ * 
+ * 池中只保存样式序号，不持有工作簿
+ */
+public class ExcelStylePool {
+	public static final String DEFAULT_DATE_FORMAT = "yyyy-mm-dd hh:mm:ss";
+
+	private static final Map<Workbook, ExcelStylePool> POOLS = Collections.synchronizedMap(new WeakHashMap<>());
+
+	private final WeakReference<Workbook> workbookRef;
+	private final Map<ExcelStyle, Integer> styleIndexes = new HashMap<>();
+	private final List<ExcelStyle> fonts = new ArrayList<>();
+	private final List<Integer> fontIndexes = new ArrayList<>();
+	private int dateStyleIndex = -1;
+
+	public ExcelStylePool(Workbook workbook) {
+		this.workbookRef = new WeakReference<>(workbook);
+	}
+
+	/** 取工作簿共用的样式池 **/
+	public static ExcelStylePool of(Workbook workbook) {
+		return POOLS.computeIfAbsent(workbook, ExcelStylePool::new);
+	}
+
+	private Workbook getWorkbook() {
+		Workbook workbook = workbookRef.get();
+		if (workbook == null) {
+			throw new IllegalStateException("workbook");
+		}
+		return workbook;
+	}
+
+	/** 按类型取样式：日期类型未指定数字格式时用默认日期格式；style为空且非日期类型返回null（即默认样式） **/
+	public CellStyle getStyle(ExcelCellType type, ExcelStyle style) {
+		if (type == ExcelCellType.DATE && (style == null || style.getDataFormat() == null)) {
+			if (style == null) {
+				return getDateStyle();
+			}
+			return getStyle(style.copy().setDataFormat(DEFAULT_DATE_FORMAT));
+		}
+		return style == null ? null : getStyle(style);
+	}
+
+	/** 默认日期格式的样式 **/
+	public synchronized CellStyle getDateStyle() {
+		if (dateStyleIndex < 0) {
+			CellStyle style = getStyle(new ExcelStyle().setDataFormat(DEFAULT_DATE_FORMAT));
+			dateStyleIndex = style.getIndex();
+			return style;
+		}
+		return getWorkbook().getCellStyleAt(dateStyleIndex);
+	}
+
+	public synchronized CellStyle getStyle(ExcelStyle style) {
+		Workbook workbook = getWorkbook();
+		Integer index = styleIndexes.get(style);
+		if (index != null) {
+			return workbook.getCellStyleAt(index);
+		}
+		CellStyle cellStyle = workbook.createCellStyle();
+		if (style.getDataFormat() != null) {
+			cellStyle.setDataFormat(workbook.createDataFormat().getFormat(style.getDataFormat()));
+		}
+		if (style.hasFont()) {
+			cellStyle.setFont(workbook.getFontAt(getFontIndex(workbook, style)));
+		}
+		if (style.getHorizontalAlignment() != null) {
+			cellStyle.setAlignment(style.getHorizontalAlignment());
+		}
+		if (style.getVerticalAlignment() != null) {
+			cellStyle.setVerticalAlignment(style.getVerticalAlignment());
+		}
+		if (style.isWrapText()) {
+			cellStyle.setWrapText(true);
+		}
+		styleIndexes.put(style.copy(), (int) cellStyle.getIndex());
+		return cellStyle;
+	}
+
+	private int getFontIndex(Workbook workbook, ExcelStyle style) {
+		for (int i = 0; i < fonts.size(); i++) {
+			if (fonts.get(i).isSameFont(style)) {
+				return fontIndexes.get(i);
+			}
+		}
+		Font font = workbook.createFont();
+		if (style.getFontName() != null) {
+			font.setFontName(style.getFontName());
+		}
+		if (style.getFontSize() > 0) {
+			font.setFontHeightInPoints(style.getFontSize());
+		}
+		font.setBold(style.isBold());
+		fonts.add(style.copy());
+		fontIndexes.add(font.getIndexAsInt());
+		return font.getIndexAsInt();
+	}
+
+	/** 已创建的样式数 **/
+	public synchronized int size() {
+		return styleIndexes.size();
+	}
+
+}
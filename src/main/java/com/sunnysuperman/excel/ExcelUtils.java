@@ -5,7 +5,6 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.TimeZone;
 
@@ -24,6 +23,9 @@ import com.sunnysuperman.commons.util.FormatUtil;
 import com.sunnysuperman.commons.util.StringUtil;
 
 public class ExcelUtils {
+	// 取数值单元格时各线程复用的解析结果，不为每个单元格分配对象
+	private static final ThreadLocal<NumericValue> NUMERIC_SCRATCH = ThreadLocal.withInitial(NumericValue::new);
+
 	private ExcelUtils() {
 	}
 
@@ -41,16 +43,29 @@ public class ExcelUtils {
 	}
 
 	public static Workbook loadWorkbook(File file, int rowCacheSize) throws ExcelException {
+		return loadWorkbook(file, rowCacheSize, 0);
+	}
+
+	/** sstCacheSize：流式读取时大于0则共享字符串表存放在临时文件中，内存中只缓存这么多个字符串 **/
+	public static Workbook loadWorkbook(File file, int rowCacheSize, int sstCacheSize) throws ExcelException {
 		try (InputStream in = new FileInputStream(file)) {
-			return loadWorkbook(in, rowCacheSize);
+			return loadWorkbook(in, rowCacheSize, sstCacheSize);
 		} catch (Exception e) {
 			throw new ExcelException(ExcelException.ERROR_NOT_AN_EXCEL_FILE);
 		}
 	}
 
 	public static Workbook loadWorkbook(InputStream in, int rowCacheSize) throws ExcelException {
+		return loadWorkbook(in, rowCacheSize, 0);
+	}
+
+	public static Workbook loadWorkbook(InputStream in, int rowCacheSize, int sstCacheSize) throws ExcelException {
 		if (rowCacheSize > 0) {
-			return StreamingReader.builder().rowCacheSize(rowCacheSize).bufferSize(4096).open(in);
+			StreamingReader.Builder builder = StreamingReader.builder().rowCacheSize(rowCacheSize).bufferSize(4096);
+			if (sstCacheSize > 0) {
+				builder.sstCacheSize(sstCacheSize);
+			}
+			return builder.open(in);
 		}
 		Workbook wb = null;
 		try {
@@ -142,9 +157,21 @@ public class ExcelUtils {
 	}
 
 	public static Object getCellValue(Cell cell, ExcelCellType hintType) throws ExcelException {
+		return getCellValue(cell, hintType, null);
+	}
+
+	/** dateStyleCache为同一工作簿的日期样式缓存，为null时每次解析格式 **/
+	public static Object getCellValue(Cell cell, ExcelCellType hintType, DateStyleCache dateStyleCache)
+			throws ExcelException {
+		return getCellValue(cell, hintType, dateStyleCache, null);
+	}
+
+	/** dateFormatter为日期转字符串的格式化器，为null时使用默认的ISO8601格式 **/
+	public static Object getCellValue(Cell cell, ExcelCellType hintType, DateStyleCache dateStyleCache,
+			CellDateFormatter dateFormatter) throws ExcelException {
 		switch (hintType) {
 		case STRING:
-			return getStringCellValue(cell);
+			return getStringCellValue(cell, dateStyleCache, dateFormatter);
 		case INT:
 			return getIntCellValue(cell);
 		case FLOAT:
@@ -154,13 +181,22 @@ public class ExcelUtils {
 		case LONG:
 			return getLongCellValue(cell);
 		case DATE:
-			return getDateCellValue(cell);
+			return getDateCellValue(cell, dateStyleCache);
 		default:
 			throw new ExcelException(ExcelException.ERROR_UNKNOWN_CELL_TYPE, hintType);
 		}
 	}
 
 	public static String getStringCellValue(Cell cell) throws ExcelException {
+		return getStringCellValue(cell, null);
+	}
+
+	public static String getStringCellValue(Cell cell, DateStyleCache dateStyleCache) throws ExcelException {
+		return getStringCellValue(cell, dateStyleCache, null);
+	}
+
+	public static String getStringCellValue(Cell cell, DateStyleCache dateStyleCache, CellDateFormatter dateFormatter)
+			throws ExcelException {
 		if (cell == null) {
 			return null;
 		}
@@ -169,9 +205,9 @@ public class ExcelUtils {
 			return StringUtil.trimToNull(cell.getStringCellValue());
 		}
 		case NUMERIC: {
-			if (DateUtil.isCellDateFormatted(cell)) {
+			if (isCellDateFormatted(cell, dateStyleCache)) {
 				Date date = cell.getDateCellValue();
-				return new SimpleDateFormat(FormatUtil.ISO8601DATE_WITH_MILLS_FORMAT).format(date);
+				return (dateFormatter == null ? CellDateFormatter.getDefault() : dateFormatter).format(date);
 			}
 			double d = cell.getNumericCellValue();
 			long l = (long) d;
@@ -204,31 +240,82 @@ public class ExcelUtils {
 		}
 	}
 
+	/** 读取数值到可复用的value中（字符串直接解析为基本类型，不装箱），返回是否有值 **/
+	public static boolean getNumericCellValue(Cell cell, NumericValue value) throws ExcelException {
+		if (cell == null) {
+			value.setNull();
+			return false;
+		}
+		switch (cell.getCellType()) {
+		case NUMERIC:
+			value.set(cell.getNumericCellValue());
+			break;
+		case STRING:
+			NumericParser.parse(cell.getStringCellValue(), value);
+			break;
+		case BLANK:
+			value.setNull();
+			break;
+		default:
+			throw new ExcelException(ExcelException.ERROR_CELL_TYPE_NOT_MATCH, cell.getCellType());
+		}
+		return !value.isNull();
+	}
+
+	/** 是否有数值（单元格不存在、为空或字符串不能解析为数值时返回false） **/
+	public static boolean hasNumericCellValue(Cell cell) throws ExcelException {
+		return getNumericCellValue(cell, NUMERIC_SCRATCH.get());
+	}
+
 	public static int getIntCellValue(Cell cell) throws ExcelException {
-		Number number = getNumericCellValue(cell);
-		return number == null ? 0 : number.intValue();
+		return getIntCellValue(cell, 0);
+	}
+
+	/** 为空时返回nullValue **/
+	public static int getIntCellValue(Cell cell, int nullValue) throws ExcelException {
+		NumericValue value = NUMERIC_SCRATCH.get();
+		return getNumericCellValue(cell, value) ? value.intValue() : nullValue;
 	}
 
 	public static float getFloatCellValue(Cell cell) throws ExcelException {
-		Number number = getNumericCellValue(cell);
-		return number == null ? 0f : number.floatValue();
+		return getFloatCellValue(cell, 0f);
+	}
+
+	/** 为空时返回nullValue **/
+	public static float getFloatCellValue(Cell cell, float nullValue) throws ExcelException {
+		NumericValue value = NUMERIC_SCRATCH.get();
+		return getNumericCellValue(cell, value) ? value.floatValue() : nullValue;
 	}
 
 	public static double getDoubleCellValue(Cell cell) throws ExcelException {
-		Number number = getNumericCellValue(cell);
-		return number == null ? 0d : number.doubleValue();
+		return getDoubleCellValue(cell, 0d);
+	}
+
+	/** 为空时返回nullValue **/
+	public static double getDoubleCellValue(Cell cell, double nullValue) throws ExcelException {
+		NumericValue value = NUMERIC_SCRATCH.get();
+		return getNumericCellValue(cell, value) ? value.doubleValue() : nullValue;
 	}
 
 	public static long getLongCellValue(Cell cell) throws ExcelException {
-		Number number = getNumericCellValue(cell);
-		return number == null ? 0L : number.longValue();
+		return getLongCellValue(cell, 0L);
+	}
+
+	/** 为空时返回nullValue **/
+	public static long getLongCellValue(Cell cell, long nullValue) throws ExcelException {
+		NumericValue value = NUMERIC_SCRATCH.get();
+		return getNumericCellValue(cell, value) ? value.longValue() : nullValue;
 	}
 
 	public static Date getDateCellValue(Cell cell) throws ExcelException {
+		return getDateCellValue(cell, null);
+	}
+
+	public static Date getDateCellValue(Cell cell, DateStyleCache dateStyleCache) throws ExcelException {
 		if (cell == null) {
 			return null;
 		}
-		if (DateUtil.isCellDateFormatted(cell)) {
+		if (isCellDateFormatted(cell, dateStyleCache)) {
 			return cell.getDateCellValue();
 		}
 		switch (cell.getCellType()) {
@@ -246,6 +333,180 @@ public class ExcelUtils {
 		throw new ExcelException(ExcelException.ERROR_CELL_TYPE_NOT_MATCH, cell.getCellType());
 	}
 
+	private static boolean isCellDateFormatted(Cell cell, DateStyleCache dateStyleCache) {
+		return dateStyleCache == null ? DateUtil.isCellDateFormatted(cell) : dateStyleCache.isCellDateFormatted(cell);
+	}
+
+	public static Object getCellValue(RawCell cell) {
+		switch (cell.getCellType()) {
+		case STRING:
+			return cell.getStringCellValue();
+		case NUMERIC:
+			return cell.getNumericCellValue();
+		case BOOLEAN:
+			return cell.getBooleanCellValue();
+		default:
+			return null;
+		}
+	}
+
+	public static Object getCellValue(RawCell cell, ExcelCellType hintType) throws ExcelException {
+		return getCellValue(cell, hintType, null);
+	}
+
+	public static Object getCellValue(RawCell cell, ExcelCellType hintType, CellDateFormatter dateFormatter)
+			throws ExcelException {
+		switch (hintType) {
+		case STRING:
+			return getStringCellValue(cell, dateFormatter);
+		case INT:
+			return getIntCellValue(cell);
+		case FLOAT:
+			return getFloatCellValue(cell);
+		case DOUBLE:
+			return getDoubleCellValue(cell);
+		case LONG:
+			return getLongCellValue(cell);
+		case DATE:
+			return getDateCellValue(cell);
+		default:
+			throw new ExcelException(ExcelException.ERROR_UNKNOWN_CELL_TYPE, hintType);
+		}
+	}
+
+	public static String getStringCellValue(RawCell cell) throws ExcelException {
+		return getStringCellValue(cell, null);
+	}
+
+	public static String getStringCellValue(RawCell cell, CellDateFormatter dateFormatter) throws ExcelException {
+		if (cell == null) {
+			return null;
+		}
+		switch (cell.getCellType()) {
+		case STRING: {
+			return StringUtil.trimToNull(cell.getStringCellValue());
+		}
+		case NUMERIC: {
+			if (cell.isDateFormatted()) {
+				Date date = cell.getDateCellValue();
+				return (dateFormatter == null ? CellDateFormatter.getDefault() : dateFormatter).format(date);
+			}
+			double d = cell.getNumericCellValue();
+			long l = (long) d;
+			if (l == d) {
+				return String.valueOf(l);
+			} else {
+				return String.valueOf(d);
+			}
+		}
+		case BLANK:
+			return null;
+		default:
+			throw new ExcelException(ExcelException.ERROR_CELL_TYPE_NOT_MATCH, cell.getCellType());
+		}
+	}
+
+	public static Number getNumericCellValue(RawCell cell) throws ExcelException {
+		if (cell == null) {
+			return null;
+		}
+		switch (cell.getCellType()) {
+		case NUMERIC:
+			return cell.getNumericCellValue();
+		case STRING:
+			return FormatUtil.parseNumber(StringUtil.trimToNull(cell.getStringCellValue()));
+		case BLANK:
+			return null;
+		default:
+			throw new ExcelException(ExcelException.ERROR_CELL_TYPE_NOT_MATCH, cell.getCellType());
+		}
+	}
+
+	public static boolean getNumericCellValue(RawCell cell, NumericValue value) throws ExcelException {
+		if (cell == null) {
+			value.setNull();
+			return false;
+		}
+		switch (cell.getCellType()) {
+		case NUMERIC:
+			value.set(cell.getNumericCellValue());
+			break;
+		case STRING:
+			NumericParser.parse(cell.getStringCellValue(), value);
+			break;
+		case BLANK:
+			value.setNull();
+			break;
+		default:
+			throw new ExcelException(ExcelException.ERROR_CELL_TYPE_NOT_MATCH, cell.getCellType());
+		}
+		return !value.isNull();
+	}
+
+	public static boolean hasNumericCellValue(RawCell cell) throws ExcelException {
+		return getNumericCellValue(cell, NUMERIC_SCRATCH.get());
+	}
+
+	public static int getIntCellValue(RawCell cell) throws ExcelException {
+		return getIntCellValue(cell, 0);
+	}
+
+	public static int getIntCellValue(RawCell cell, int nullValue) throws ExcelException {
+		NumericValue value = NUMERIC_SCRATCH.get();
+		return getNumericCellValue(cell, value) ? value.intValue() : nullValue;
+	}
+
+	public static float getFloatCellValue(RawCell cell) throws ExcelException {
+		return getFloatCellValue(cell, 0f);
+	}
+
+	public static float getFloatCellValue(RawCell cell, float nullValue) throws ExcelException {
+		NumericValue value = NUMERIC_SCRATCH.get();
+		return getNumericCellValue(cell, value) ? value.floatValue() : nullValue;
+	}
+
+	public static double getDoubleCellValue(RawCell cell) throws ExcelException {
+		return getDoubleCellValue(cell, 0d);
+	}
+
+	public static double getDoubleCellValue(RawCell cell, double nullValue) throws ExcelException {
+		NumericValue value = NUMERIC_SCRATCH.get();
+		return getNumericCellValue(cell, value) ? value.doubleValue() : nullValue;
+	}
+
+	public static long getLongCellValue(RawCell cell) throws ExcelException {
+		return getLongCellValue(cell, 0L);
+	}
+
+	public static long getLongCellValue(RawCell cell, long nullValue) throws ExcelException {
+		NumericValue value = NUMERIC_SCRATCH.get();
+		return getNumericCellValue(cell, value) ? value.longValue() : nullValue;
+	}
+
+	public static Date getDateCellValue(RawCell cell) throws ExcelException {
+		if (cell == null) {
+			return null;
+		}
+		switch (cell.getCellType()) {
+		case NUMERIC:
+			if (cell.isDateFormatted()) {
+				return cell.getDateCellValue();
+			}
+			break;
+		case STRING:
+			try {
+				return parseDateFromString(cell.getStringCellValue());
+			} catch (Exception e) {
+				throw new ExcelException(ExcelException.ERROR_CELL_TYPE_NOT_MATCH, CellType.STRING);
+			}
+		case BLANK:
+			return null;
+		default:
+			break;
+		}
+		throw new ExcelException(ExcelException.ERROR_CELL_TYPE_NOT_MATCH, cell.getCellType());
+	}
+
 	private static Date parseDateFromString(String s) {
 		if (StringUtil.isBlank(s)) {
 			return null;
@@ -285,12 +546,27 @@ public class ExcelUtils {
 		case LONG:
 			cell.setCellValue(FormatUtil.parseLong(value));
 			break;
+		case DATE:
+			if (value instanceof Date) {
+				cell.setCellValue((Date) value);
+			} else if (value instanceof Number) {
+				cell.setCellValue(new Date(((Number) value).longValue()));
+			} else {
+				throw new ExcelException(ExcelException.ERROR_CELL_TYPE_NOT_MATCH, hintType);
+			}
+			applyDateStyle(cell, null);
+			break;
 		default:
 			throw new ExcelException(ExcelException.ERROR_UNKNOWN_CELL_TYPE, hintType);
 		}
 	}
 
 	public static void setCellValue(Cell cell, Object value) {
+		setCellValue(cell, value, (ExcelStylePool) null);
+	}
+
+	/** 日期值且单元格为默认样式时设置日期样式（样式池为空则用工作簿共用的样式池） **/
+	public static void setCellValue(Cell cell, Object value, ExcelStylePool stylePool) {
 		if (value == null) {
 			return;
 		}
@@ -300,6 +576,7 @@ public class ExcelUtils {
 			cell.setCellValue(((Number) value).doubleValue());
 		} else if (value instanceof Date) {
 			cell.setCellValue(((Date) value));
+			applyDateStyle(cell, stylePool);
 		} else if (value instanceof Boolean) {
 			cell.setCellValue(((Boolean) value));
 		} else {
@@ -307,4 +584,12 @@ public class ExcelUtils {
 		}
 	}
 
+	private static void applyDateStyle(Cell cell, ExcelStylePool stylePool) {
+		if (cell.getCellStyle().getIndex() != 0) {
+			return;
+		}
+		ExcelStylePool pool = stylePool == null ? ExcelStylePool.of(cell.getSheet().getWorkbook()) : stylePool;
+		cell.setCellStyle(pool.getDateStyle());
+	}
+
 }
@@ -0,0 +1,104 @@
+package com.sunnysuperman.excel;
+
+import java.math.BigDecimal;
+
+import com.sunnysuperman.commons.util.FormatUtil;
+
+/**
+ * 数字字符串解析：常见的整数及小数直接解析为基本类型，其余格式交给FormatUtil.parseNumber
+ */
+final class NumericParser {
+	private static final int MAX_LONG_DIGITS = 18;
+	private static final int INTEGER = 1;
+	private static final int DECIMAL = 2;
+	private static final int OTHER = 3;
+
+	private NumericParser() {
+	}
+
+	/** 解析字符串（忽略首尾空白）到value中，空白或无法解析时为空值 **/
+	static void parse(String s, NumericValue value) {
+		if (s == null) {
+			value.setNull();
+			return;
+		}
+		int start = 0;
+		int end = s.length();
+		while (start < end && s.charAt(start) <= ' ') {
+			start++;
+		}
+		while (end > start && s.charAt(end - 1) <= ' ') {
+			end--;
+		}
+		if (start == end) {
+			value.setNull();
+			return;
+		}
+		switch (classify(s, start, end)) {
+		case INTEGER:
+			value.set(parseLong(s, start, end));
+			return;
+		case DECIMAL:
+			try {
+				value.set(Double.parseDouble(s));
+				return;
+			} catch (NumberFormatException e) {
+				break;
+			}
+		default:
+			break;
+		}
+		Number number = FormatUtil.parseNumber(s.substring(start, end));
+		if (number == null) {
+			value.setNull();
+		} else if (number instanceof Double || number instanceof Float || number instanceof BigDecimal) {
+			value.set(number.doubleValue());
+		} else {
+			value.set(number.longValue());
+		}
+	}
+
+	private static int classify(String s, int start, int end) {
+		int i = start;
+		char c = s.charAt(i);
+		if (c == '-' || c == '+') {
+			i++;
+		}
+		int digits = 0;
+		boolean decimal = false;
+		for (; i < end; i++) {
+			c = s.charAt(i);
+			if (c >= '0' && c <= '9') {
+				digits++;
+			} else if (c == '.' || c == 'e' || c == 'E' || c == '-' || c == '+') {
+				// 由Double.parseDouble校验
+				decimal = true;
+			} else {
+				return OTHER;
+			}
+		}
+		if (digits == 0) {
+			return OTHER;
+		}
+		if (decimal) {
+			return DECIMAL;
+		}
+		return digits <= MAX_LONG_DIGITS ? INTEGER : OTHER;
+	}
+
+	private static long parseLong(String s, int start, int end) {
+		int i = start;
+		boolean negative = false;
+		char c = s.charAt(i);
+		if (c == '-' || c == '+') {
+			negative = c == '-';
+			i++;
+		}
+		long result = 0L;
+		for (; i < end; i++) {
+			result = result * 10 + (s.charAt(i) - '0');
+		}
+		return negative ? -result : result;
+	}
+
+}
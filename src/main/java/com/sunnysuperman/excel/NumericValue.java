@@ -0,0 +1,62 @@
+package com.sunnysuperman.excel;
+
+/**
+ * 可复用的数值结果：区分空值，整数与小数分别按基本类型存放，取值规则同Long/Double的xxxValue()
+ */
+public class NumericValue {
+	private boolean empty = true;
+	private boolean integral;
+	private long longValue;
+	private double doubleValue;
+
+	public void setNull() {
+		empty = true;
+		integral = false;
+		longValue = 0L;
+		doubleValue = 0d;
+	}
+
+	public void set(long value) {
+		empty = false;
+		integral = true;
+		longValue = value;
+		doubleValue = 0d;
+	}
+
+	public void set(double value) {
+		empty = false;
+		integral = false;
+		longValue = 0L;
+		doubleValue = value;
+	}
+
+	public boolean isNull() {
+		return empty;
+	}
+
+	/** 是否为整数（按整数解析的字符串） **/
+	public boolean isIntegral() {
+		return integral;
+	}
+
+	/** 为空时返回0 **/
+	public int intValue() {
+		return integral ? (int) longValue : (int) doubleValue;
+	}
+
+	/** 为空时返回0 **/
+	public long longValue() {
+		return integral ? longValue : (long) doubleValue;
+	}
+
+	/** 为空时返回0 **/
+	public float floatValue() {
+		return integral ? (float) longValue : (float) doubleValue;
+	}
+
+	/** 为空时返回0 **/
+	public double doubleValue() {
+		return integral ? (double) longValue : doubleValue;
+	}
+
+}
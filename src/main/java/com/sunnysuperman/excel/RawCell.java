@@ -0,0 +1,77 @@
+package com.sunnysuperman.excel;
+
+import java.util.Date;
+
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DateUtil;
+
+/**
+ * 原始单元格：由内置解析引擎直接解码得到的值，不依赖POI的对象模型，可复用
+ */
+public class RawCell {
+	private CellType cellType = CellType.BLANK;
+	private String stringValue;
+	private double numericValue;
+	private boolean booleanValue;
+	private boolean dateFormatted;
+	private boolean date1904;
+	int generation; // 所属行的版本号，用于判断单元格在当前行中是否存在
+
+	public CellType getCellType() {
+		return cellType;
+	}
+
+	public String getStringCellValue() {
+		return stringValue;
+	}
+
+	public double getNumericCellValue() {
+		return numericValue;
+	}
+
+	public boolean getBooleanCellValue() {
+		return booleanValue;
+	}
+
+	/** 数值单元格的格式是否为日期格式 **/
+	public boolean isDateFormatted() {
+		return dateFormatted;
+	}
+
+	public Date getDateCellValue() {
+		return DateUtil.getJavaDate(numericValue, date1904);
+	}
+
+	public void setBlank() {
+		set(CellType.BLANK, null);
+	}
+
+	public void setString(String value) {
+		set(CellType.STRING, value);
+	}
+
+	public void setError(String value) {
+		set(CellType.ERROR, value);
+	}
+
+	public void setBoolean(boolean value) {
+		set(CellType.BOOLEAN, null);
+		booleanValue = value;
+	}
+
+	public void setNumeric(double value, boolean dateFormatted, boolean date1904) {
+		set(CellType.NUMERIC, null);
+		this.numericValue = value;
+		this.dateFormatted = dateFormatted;
+		this.date1904 = date1904;
+	}
+
+	private void set(CellType cellType, String stringValue) {
+		this.cellType = cellType;
+		this.stringValue = stringValue;
+		this.numericValue = 0;
+		this.booleanValue = false;
+		this.dateFormatted = false;
+	}
+
+}
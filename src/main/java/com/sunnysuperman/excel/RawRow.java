@@ -0,0 +1,65 @@
+package com.sunnysuperman.excel;
+
+/**
+ * 原始行：按列号存放原始单元格，读取下一行时复用
+ */
+public class RawRow {
+	private int rowNum = -1;
+	private RawCell[] cells = new RawCell[16];
+	private int firstCellNum = -1;
+	private int lastCellNum = -1;
+	private int generation;
+
+	/** 开始新的一行，清空上一行的单元格 **/
+	public void reset(int rowNum) {
+		this.rowNum = rowNum;
+		this.firstCellNum = -1;
+		this.lastCellNum = -1;
+		generation++;
+	}
+
+	/** 在当前行中占用指定列的单元格，由调用方写入值 **/
+	public RawCell newCell(int cellIndex) {
+		if (cellIndex >= cells.length) {
+			RawCell[] newCells = new RawCell[Math.max(cellIndex + 1, cells.length * 2)];
+			System.arraycopy(cells, 0, newCells, 0, cells.length);
+			cells = newCells;
+		}
+		RawCell cell = cells[cellIndex];
+		if (cell == null) {
+			cell = new RawCell();
+			cells[cellIndex] = cell;
+		}
+		cell.generation = generation;
+		if (firstCellNum < 0 || cellIndex < firstCellNum) {
+			firstCellNum = cellIndex;
+		}
+		if (cellIndex >= lastCellNum) {
+			lastCellNum = cellIndex + 1;
+		}
+		return cell;
+	}
+
+	public RawCell getCell(int cellIndex) {
+		if (cellIndex < 0 || cellIndex >= cells.length) {
+			return null;
+		}
+		RawCell cell = cells[cellIndex];
+		return cell != null && cell.generation == generation ? cell : null;
+	}
+
+	public int getRowNum() {
+		return rowNum;
+	}
+
+	/** 首个单元格列号，没有单元格时为-1 **/
+	public int getFirstCellNum() {
+		return firstCellNum;
+	}
+
+	/** 最后一个单元格列号加1（同POI），没有单元格时为-1 **/
+	public int getLastCellNum() {
+		return lastCellNum;
+	}
+
+}
@@ -0,0 +1,28 @@
+package com.sunnysuperman.excel;
+
+import java.io.Closeable;
+
+/**
+ * 原始行数据源（按文件顺序逐行读取）
+ */
+public interface RawRowSource extends Closeable {
+
+	/** 读取下一行到row中，没有更多行时返回false **/
+	boolean nextRow(RawRow row) throws ExcelException;
+
+	/** 设置需要解码的列（null为全部列），其余单元格在解析层直接跳过，不写入行中 **/
+	default void setProjection(int[] cellIndexes) {
+		// nope
+	}
+
+	/** 跳过行号小于rowNum的行：在解析层直接略过，不解码单元格（不支持时照常读出，调用方仍需按行号过滤） **/
+	default void skipTo(int rowNum) {
+		// nope
+	}
+
+	/** 已读取的字节数（解压后），未知为-1 **/
+	default long getBytesRead() {
+		return -1;
+	}
+
+}
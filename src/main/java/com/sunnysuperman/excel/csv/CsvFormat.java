@@ -0,0 +1,80 @@
+package com.sunnysuperman.excel.csv;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * CSV/TSV文本格式：分隔符、引号及字符集（不可变，可共享）。
+ *
+ * 解析按字节切分字段，字符集须兼容ASCII（如UTF-8、GBK），分隔符、引号及换行在字节流中不会与多字节字符混淆
+ */
+public class CsvFormat {
+	public static final CsvFormat CSV = new CsvFormat(',', StandardCharsets.UTF_8, false);
+	public static final CsvFormat TSV = new CsvFormat('\t', StandardCharsets.UTF_8, false);
+
+	private static final char QUOTE = '"';
+
+	private final char delimiter;
+	private final Charset charset;
+	private final boolean bom;
+
+	/**
+	 * @param delimiter 字段分隔符（ASCII字符）
+	 * @param charset   字符集
+	 * @param bom       写出时是否在文件开头写BOM（Excel打开UTF-8的CSV需要）
+	 */
+	public CsvFormat(char delimiter, Charset charset, boolean bom) {
+		if (delimiter >= 0x80 || delimiter == QUOTE || delimiter == '\r' || delimiter == '\n') {
+			throw new IllegalArgumentException("delimiter");
+		}
+		if (!isAsciiCompatible(charset)) {
+			throw new IllegalArgumentException("charset");
+		}
+		this.delimiter = delimiter;
+		this.charset = charset;
+		this.bom = bom;
+	}
+
+	private static boolean isAsciiCompatible(Charset charset) {
+		String ascii = "\t\n\r\",;|";
+		byte[] bytes = ascii.getBytes(charset);
+		if (bytes.length != ascii.length()) {
+			return false;
+		}
+		for (int i = 0; i < bytes.length; i++) {
+			if (bytes[i] != ascii.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public CsvFormat withDelimiter(char delimiter) {
+		return new CsvFormat(delimiter, charset, bom);
+	}
+
+	public CsvFormat withCharset(Charset charset) {
+		return new CsvFormat(delimiter, charset, bom);
+	}
+
+	public CsvFormat withBom(boolean bom) {
+		return new CsvFormat(delimiter, charset, bom);
+	}
+
+	public char getDelimiter() {
+		return delimiter;
+	}
+
+	public char getQuote() {
+		return QUOTE;
+	}
+
+	public Charset getCharset() {
+		return charset;
+	}
+
+	public boolean isBom() {
+		return bom;
+	}
+
+}
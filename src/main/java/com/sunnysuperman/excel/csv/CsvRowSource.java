@@ -0,0 +1,325 @@
+package com.sunnysuperman.excel.csv;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+import com.sunnysuperman.excel.ExcelException;
+import com.sunnysuperman.excel.RawRow;
+import com.sunnysuperman.excel.RawRowSource;
+
+/**
+ * CSV/TSV逐行读取：通过NIO通道把字节读入复用的缓冲区，直接在字节上切分字段（RFC 4180引号规则），
+ * 只有需要解码的列才生成字符串，其余字段不拷贝、不解码。
+ *
+ * 每条记录为一行（引号内可含换行），行号从0开始按记录计；全空的记录跳过（同xlsx中不存在的行）
+ */
+public class CsvRowSource implements RawRowSource {
+	public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+	private static final byte CR = '\r';
+	private static final byte LF = '\n';
+	private static final byte[] UTF8_BOM = { (byte) 0xEF, (byte) 0xBB, (byte) 0xBF };
+
+	private final ReadableByteChannel channel;
+	private final byte delimiter;
+	private final byte quote;
+	private final Charset charset;
+	private byte[] buf;
+	private ByteBuffer buffer;
+	private int pos;
+	private int limit;
+	private boolean eof;
+	private boolean started;
+	private int rowNum = -1;
+	private int skipToRowNum; // 行号小于此值的记录只切分，不解码
+	private long bytesRead;
+	private boolean[] projection; // 需要解码的列，null为全部列
+	// 当前记录的字段：[start, end)在buf中的位置，escaped表示引号内有需要还原的双引号
+	private int fieldsNum;
+	private int[] starts = new int[16];
+	private int[] ends = new int[16];
+	private boolean[] escaped = new boolean[16];
+	private byte[] scratch;
+
+	public CsvRowSource(ReadableByteChannel channel, CsvFormat format, int bufferSize) {
+		if (bufferSize <= 0) {
+			throw new IllegalArgumentException("bufferSize");
+		}
+		this.channel = channel;
+		this.delimiter = (byte) format.getDelimiter();
+		this.quote = (byte) format.getQuote();
+		this.charset = format.getCharset();
+		this.buf = new byte[bufferSize];
+		this.buffer = ByteBuffer.wrap(buf);
+	}
+
+	public CsvRowSource(InputStream in, CsvFormat format) {
+		this(Channels.newChannel(in), format, DEFAULT_BUFFER_SIZE);
+	}
+
+	public static CsvRowSource open(File file, CsvFormat format) throws ExcelException {
+		try {
+			return new CsvRowSource(FileChannel.open(file.toPath(), StandardOpenOption.READ), format,
+					DEFAULT_BUFFER_SIZE);
+		} catch (IOException e) {
+			throw new ExcelException(ExcelException.ERROR_NOT_AN_EXCEL_FILE);
+		}
+	}
+
+	/** 估算文件的行数：统计换行符个数（不处理引号，引号内的换行也计入），最后一行没有换行符时加1 **/
+	public static int countLines(File file) throws ExcelException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			byte[] buf = new byte[DEFAULT_BUFFER_SIZE];
+			ByteBuffer buffer = ByteBuffer.wrap(buf);
+			int count = 0;
+			byte last = LF;
+			int n;
+			while ((n = channel.read(buffer)) >= 0) {
+				for (int i = 0; i < n; i++) {
+					if (buf[i] == LF) {
+						count++;
+					}
+				}
+				if (n > 0) {
+					last = buf[n - 1];
+				}
+				buffer.clear();
+			}
+			return last == LF ? count : count + 1;
+		} catch (IOException e) {
+			throw new ExcelException(ExcelException.ERROR_NOT_AN_EXCEL_FILE);
+		}
+	}
+
+	@Override
+	public void setProjection(int[] cellIndexes) {
+		if (cellIndexes == null) {
+			projection = null;
+			return;
+		}
+		int max = -1;
+		for (int index : cellIndexes) {
+			max = Math.max(max, index);
+		}
+		projection = new boolean[max + 1];
+		for (int index : cellIndexes) {
+			if (index >= 0) {
+				projection[index] = true;
+			}
+		}
+	}
+
+	@Override
+	public void skipTo(int rowNum) {
+		skipToRowNum = rowNum;
+	}
+
+	@Override
+	public long getBytesRead() {
+		return bytesRead;
+	}
+
+	@Override
+	public boolean nextRow(RawRow row) throws ExcelException {
+		try {
+			if (!started) {
+				start();
+			}
+			while (true) {
+				if (pos >= limit && !fill()) {
+					return false;
+				}
+				int end;
+				while ((end = scanRecord()) < 0) {
+					// 记录跨越缓冲区末尾，读入更多数据后重新切分
+					fill();
+				}
+				pos = end;
+				rowNum++;
+				if (rowNum >= skipToRowNum && !isBlankRecord()) {
+					readRow(row);
+					return true;
+				}
+			}
+		} catch (IOException e) {
+			throw new ExcelException(ExcelException.ERROR_NOT_AN_EXCEL_FILE);
+		}
+	}
+
+	private void start() throws IOException {
+		started = true;
+		while (limit < UTF8_BOM.length && fill()) {
+			// 读够判断BOM的字节
+		}
+		if (charset.equals(StandardCharsets.UTF_8) && limit >= UTF8_BOM.length && buf[0] == UTF8_BOM[0]
+				&& buf[1] == UTF8_BOM[1] && buf[2] == UTF8_BOM[2]) {
+			pos = UTF8_BOM.length;
+		}
+	}
+
+	/** 把未处理的字节移到缓冲区开头（满了则扩容），再从通道读入数据，没有更多数据时返回false **/
+	private boolean fill() throws IOException {
+		if (eof) {
+			return false;
+		}
+		if (pos > 0) {
+			System.arraycopy(buf, pos, buf, 0, limit - pos);
+			limit -= pos;
+			pos = 0;
+		}
+		if (limit == buf.length) {
+			byte[] newBuf = new byte[buf.length * 2];
+			System.arraycopy(buf, 0, newBuf, 0, limit);
+			buf = newBuf;
+			buffer = ByteBuffer.wrap(buf);
+		}
+		buffer.limit(buf.length).position(limit);
+		int n;
+		do {
+			n = channel.read(buffer);
+		} while (n == 0);
+		if (n < 0) {
+			eof = true;
+			return false;
+		}
+		limit += n;
+		bytesRead += n;
+		return true;
+	}
+
+	/** 从pos开始切分一条记录，返回记录（含换行）结束的位置；数据不完整（需读入更多数据）时返回-1 **/
+	private int scanRecord() {
+		fieldsNum = 0;
+		int i = pos;
+		while (true) {
+			if (i < limit && buf[i] == quote) {
+				int start = i + 1;
+				int j = start;
+				boolean hasEscape = false;
+				int end = -1;
+				while (end < 0) {
+					if (j >= limit) {
+						if (!eof) {
+							return -1;
+						}
+						// 引号未闭合，取到文件末尾
+						end = j;
+					} else if (buf[j] == quote) {
+						if (j + 1 >= limit && !eof) {
+							return -1;
+						}
+						if (j + 1 < limit && buf[j + 1] == quote) {
+							hasEscape = true;
+							j += 2;
+						} else {
+							end = j;
+							j++;
+						}
+					} else {
+						j++;
+					}
+				}
+				addField(start, end, hasEscape);
+				// 闭合引号后到分隔符前的多余字符忽略
+				i = j;
+				while (i < limit && buf[i] != delimiter && buf[i] != LF && buf[i] != CR) {
+					i++;
+				}
+			} else {
+				int start = i;
+				while (i < limit && buf[i] != delimiter && buf[i] != LF && buf[i] != CR) {
+					i++;
+				}
+				addField(start, i, false);
+			}
+			if (i >= limit) {
+				return eof ? i : -1;
+			}
+			byte b = buf[i];
+			if (b == delimiter) {
+				i++;
+			} else if (b == LF) {
+				return i + 1;
+			} else {
+				// CR或CRLF
+				if (i + 1 >= limit && !eof) {
+					return -1;
+				}
+				return i + 1 < limit && buf[i + 1] == LF ? i + 2 : i + 1;
+			}
+		}
+	}
+
+	private void addField(int start, int end, boolean hasEscape) {
+		if (fieldsNum == starts.length) {
+			int newLength = fieldsNum * 2;
+			int[] newStarts = new int[newLength];
+			int[] newEnds = new int[newLength];
+			boolean[] newEscaped = new boolean[newLength];
+			System.arraycopy(starts, 0, newStarts, 0, fieldsNum);
+			System.arraycopy(ends, 0, newEnds, 0, fieldsNum);
+			System.arraycopy(escaped, 0, newEscaped, 0, fieldsNum);
+			starts = newStarts;
+			ends = newEnds;
+			escaped = newEscaped;
+		}
+		starts[fieldsNum] = start;
+		ends[fieldsNum] = end;
+		escaped[fieldsNum] = hasEscape;
+		fieldsNum++;
+	}
+
+	private boolean isBlankRecord() {
+		for (int f = 0; f < fieldsNum; f++) {
+			if (starts[f] < ends[f]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void readRow(RawRow row) {
+		row.reset(rowNum);
+		for (int f = 0; f < fieldsNum; f++) {
+			if (projection != null && (f >= projection.length || !projection[f])) {
+				// 未映射的列：不拷贝、不解码
+				continue;
+			}
+			int start = starts[f];
+			int end = ends[f];
+			if (start == end) {
+				continue;
+			}
+			row.newCell(f).setString(escaped[f] ? unescape(start, end) : new String(buf, start, end - start, charset));
+		}
+	}
+
+	/** 还原引号内转义的双引号（""为"） **/
+	private String unescape(int start, int end) {
+		if (scratch == null || scratch.length < end - start) {
+			scratch = new byte[Math.max(end - start, 256)];
+		}
+		int n = 0;
+		for (int i = start; i < end; i++) {
+			byte b = buf[i];
+			scratch[n++] = b;
+			if (b == quote) {
+				i++;
+			}
+		}
+		return new String(scratch, 0, n, charset);
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+}
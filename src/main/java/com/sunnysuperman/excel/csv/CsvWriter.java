@@ -0,0 +1,102 @@
+package com.sunnysuperman.excel.csv;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+/**
+ * CSV/TSV逐行写出：字段含分隔符、引号或换行时加引号（引号写两次），记录以CRLF结束（RFC 4180）
+ */
+public class CsvWriter implements Closeable {
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final char BOM = '\uFEFF';
+
+	private final Writer writer;
+	private final char delimiter;
+	private final char quote;
+	private int column; // 当前行已写的列数
+
+	public CsvWriter(OutputStream out, CsvFormat format) throws IOException {
+		this.writer = new BufferedWriter(new OutputStreamWriter(out, format.getCharset()), BUFFER_SIZE);
+		this.delimiter = format.getDelimiter();
+		this.quote = format.getQuote();
+		if (format.isBom()) {
+			writer.write(BOM);
+		}
+	}
+
+	public void startRow() {
+		column = 0;
+	}
+
+	/** 写指定列（从0开始，不能小于已写的列），中间跳过的列写为空字段 **/
+	public void writeField(int columnIndex, String value) throws IOException {
+		if (columnIndex < column) {
+			throw new IllegalArgumentException("columnIndex");
+		}
+		skipTo(columnIndex);
+		if (column > 0) {
+			writer.write(delimiter);
+		}
+		column++;
+		if (value == null || value.isEmpty()) {
+			return;
+		}
+		if (!needsQuote(value)) {
+			writer.write(value);
+			return;
+		}
+		writer.write(quote);
+		int start = 0;
+		int len = value.length();
+		for (int i = 0; i < len; i++) {
+			if (value.charAt(i) == quote) {
+				writer.write(value, start, i + 1 - start);
+				writer.write(quote);
+				start = i + 1;
+			}
+		}
+		writer.write(value, start, len - start);
+		writer.write(quote);
+	}
+
+	private boolean needsQuote(String value) {
+		int len = value.length();
+		for (int i = 0; i < len; i++) {
+			char c = value.charAt(i);
+			if (c == delimiter || c == quote || c == '\n' || c == '\r') {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void skipTo(int columnIndex) throws IOException {
+		while (column < columnIndex) {
+			if (column > 0) {
+				writer.write(delimiter);
+			}
+			column++;
+		}
+	}
+
+	/** 补齐到columnsNum列后结束一行 **/
+	public void endRow(int columnsNum) throws IOException {
+		skipTo(columnsNum);
+		writer.write("\r\n");
+	}
+
+	public void flush() throws IOException {
+		writer.flush();
+	}
+
+	/** 写出缓冲的数据并关闭输出流 **/
+	@Override
+	public void close() throws IOException {
+		writer.close();
+	}
+
+}
@@ -0,0 +1,135 @@
+package com.sunnysuperman.excel.reader;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 异步批处理器：满批后交给线程池处理，读取线程继续解析；最多同时有maxPendingBatches批在排队或处理中，超出时读取线程等待。
+ * 处理失败的异常在之后的第一次onData（或结束时）抛出到ExcelReader.read()，不再继续解析。
+ * 注意handleBatchAsync在线程池中执行，不应再通过reader操作拷贝表格。按顺序处理时每批处理完后在线程池中保存检查点，并发处理时不保存
+ */
+public abstract class AsyncBatchHandler<T> extends BatchHandler<T> {
+	private final Executor executor;
+	private final int maxPendingBatches;
+	private final boolean ordered;
+	private final Semaphore pending;
+	private final AtomicReference<Throwable> failure = new AtomicReference<>();
+	private CompletableFuture<Void> last = CompletableFuture.completedFuture(null);
+
+	/**
+	 * @param batchNum          每批条数
+	 * @param executor          处理批次的线程池（由调用方管理生命周期）
+	 * @param maxPendingBatches 最多排队及处理中的批次数
+	 * @param ordered           是否按读取顺序逐批处理（否则批次可并发处理）
+	 */
+	protected AsyncBatchHandler(int batchNum, Executor executor, int maxPendingBatches, boolean ordered) {
+		super(batchNum);
+		if (executor == null) {
+			throw new IllegalArgumentException("executor");
+		}
+		if (maxPendingBatches <= 0) {
+			throw new IllegalArgumentException("maxPendingBatches");
+		}
+		this.executor = executor;
+		this.maxPendingBatches = maxPendingBatches;
+		this.ordered = ordered;
+		this.pending = new Semaphore(maxPendingBatches);
+	}
+
+	protected AsyncBatchHandler(int batchNum, Executor executor) {
+		this(batchNum, executor, 2, true);
+	}
+
+	public int getMaxPendingBatches() {
+		return maxPendingBatches;
+	}
+
+	public boolean isOrdered() {
+		return ordered;
+	}
+
+	@Override
+	protected final void handleBatch(ExcelReader reader, List<T> dataList) throws HandlerException {
+		checkFailure();
+		// 交出当前批次，读取线程改用新列表
+		list = new ArrayList<>(batchNum);
+		try {
+			pending.acquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new HandlerException(e);
+		}
+		int batchRowIndex = rowIndex;
+		int batchRowsNum = rowsNum;
+		Runnable task = () -> runBatch(reader, dataList, batchRowIndex, batchRowsNum);
+		try {
+			if (ordered) {
+				last = last.thenRunAsync(task, executor).exceptionally(ex -> {
+					// 线程池拒绝执行，任务未运行
+					failure.compareAndSet(null, ex);
+					pending.release();
+					return null;
+				});
+			} else {
+				executor.execute(task);
+			}
+		} catch (RejectedExecutionException e) {
+			pending.release();
+			throw new HandlerException(e);
+		}
+	}
+
+	private void runBatch(ExcelReader reader, List<T> dataList, int batchRowIndex, int batchRowsNum) {
+		try {
+			if (failure.get() == null) {
+				handleBatchAsync(reader, dataList);
+				if (ordered) {
+					// 之前的批次都已处理完
+					reader.saveCheckpoint(batchRowIndex, batchRowsNum);
+				}
+			}
+		} catch (Throwable e) {
+			failure.compareAndSet(null, e);
+		} finally {
+			pending.release();
+		}
+	}
+
+	@Override
+	void checkpoint(ExcelReader reader) {
+		// 批次处理完后在线程池中保存
+	}
+
+	@Override
+	void awaitBatches() throws HandlerException {
+		try {
+			pending.acquire(maxPendingBatches);
+			pending.release(maxPendingBatches);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new HandlerException(e);
+		}
+		checkFailure();
+	}
+
+	@Override
+	void checkFailure() throws HandlerException {
+		Throwable e = failure.get();
+		if (e == null) {
+			return;
+		}
+		if (e instanceof HandlerException) {
+			throw (HandlerException) e;
+		}
+		throw new HandlerException(e);
+	}
+
+	/** 在线程池中处理一批数据 **/
+	protected abstract void handleBatchAsync(ExcelReader reader, List<T> dataList) throws HandlerException;
+
+}
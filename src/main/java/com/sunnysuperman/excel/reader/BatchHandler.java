@@ -7,6 +7,8 @@ import java.util.Map;
 public abstract class BatchHandler<T> implements Handler {
 	int batchNum;
 	List<T> list;
+	int rowIndex; // 当前数据行行号
+	int rowsNum; // 到当前行为止的数据行数
 
 	protected BatchHandler(int batchNum) {
 		if (batchNum <= 0) {
@@ -27,6 +29,9 @@ public abstract class BatchHandler<T> implements Handler {
 	@Override
 	public final boolean onData(ExcelReader reader, Map<String, Object> data, int rowIndex,
 			List<ExcelColumn> errorColumns) throws HandlerException {
+		checkFailure();
+		this.rowIndex = rowIndex;
+		this.rowsNum = reader.getReadRowsNum() + 1;
 		if (errorColumns != null) {
 			data = null;
 		}
@@ -38,6 +43,7 @@ public abstract class BatchHandler<T> implements Handler {
 		if (list.size() >= batchNum) {
 			handleBatch(reader, list);
 			list.clear();
+			checkpoint(reader);
 		}
 		return true;
 	}
@@ -48,9 +54,25 @@ public abstract class BatchHandler<T> implements Handler {
 			handleBatch(reader, list);
 			list.clear();
 		}
+		awaitBatches();
 		end(reader);
 	}
 
+	/** 一批处理完后保存检查点（到当前行为止的数据行都已处理完） **/
+	void checkpoint(ExcelReader reader) throws HandlerException {
+		reader.saveCheckpoint(rowIndex, rowsNum);
+	}
+
+	/** 已提交的批次处理失败时抛出异常（异步批处理使用） **/
+	void checkFailure() throws HandlerException {
+		// nope
+	}
+
+	/** 等待已提交的批次处理完成（异步批处理使用） **/
+	void awaitBatches() throws HandlerException {
+		// nope
+	}
+
 	protected abstract T parseData(ExcelReader reader, Map<String, Object> data, int rowIndex) throws HandlerException;
 
 	protected abstract void handleBatch(ExcelReader reader, List<T> dataList) throws HandlerException;
@@ -0,0 +1,71 @@
+package com.sunnysuperman.excel.reader;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 按@ExcelField注解绑定对象的批处理器，列定义取getColumns()
+ */
+public abstract class BeanBatchHandler<T> implements RowViewHandler {
+	final ExcelBeanBinder<T> binder;
+	int batchNum;
+	List<T> list;
+
+	protected BeanBatchHandler(Class<T> type, int batchNum) {
+		if (batchNum <= 0) {
+			throw new IllegalArgumentException("batchNum");
+		}
+		this.binder = ExcelBeanBinder.of(type);
+		this.batchNum = batchNum;
+		list = new ArrayList<>(batchNum);
+	}
+
+	protected BeanBatchHandler(Class<T> type) {
+		this(type, 500);
+	}
+
+	public int getBatchNum() {
+		return batchNum;
+	}
+
+	public ExcelColumn[] getColumns() {
+		return binder.getColumns();
+	}
+
+	@Override
+	public final boolean onRow(ExcelReader reader, ExcelRowView row) throws HandlerException {
+		T bean = row.hasError() ? null : binder.bind(row);
+		T item = parseData(reader, bean, row);
+		if (item == null) {
+			return true;
+		}
+		list.add(item);
+		if (list.size() >= batchNum) {
+			handleBatch(reader, list);
+			list.clear();
+			reader.saveCheckpoint(row.getRowIndex(), reader.getReadRowsNum() + 1);
+		}
+		return true;
+	}
+
+	@Override
+	public final void onEnd(ExcelReader reader) throws HandlerException {
+		if (!list.isEmpty()) {
+			handleBatch(reader, list);
+			list.clear();
+		}
+		end(reader);
+	}
+
+	/** 处理绑定后的对象（有列转换失败时bean为null），返回null则忽略该行 **/
+	protected T parseData(ExcelReader reader, T bean, ExcelRowView row) throws HandlerException {
+		return bean;
+	}
+
+	protected abstract void handleBatch(ExcelReader reader, List<T> dataList) throws HandlerException;
+
+	protected void end(ExcelReader reader) throws HandlerException {
+		// nope
+	}
+
+}
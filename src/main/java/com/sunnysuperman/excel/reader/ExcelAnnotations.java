@@ -0,0 +1,373 @@
+package com.sunnysuperman.excel.reader;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import com.sunnysuperman.commons.util.FileUtil;
+import com.sunnysuperman.excel.xlsx.XlsxAppendedCells;
+
+/**
+ * 拷贝文件中追加的单元格（标注），可在任意线程、任意时刻按(行号, 列号, 值)标注，同一单元格多次标注以最后一次为准。
+ * 
+ * 标注先追加到内存缓冲区，超过bufferSize条后排序写到临时文件（有序段），迭代时把各有序段与内存缓冲区归并，内存占用与标注总数无关。用完需关闭（删除临时文件）
+ */
+public class ExcelAnnotations implements Closeable {
+	public static final int DEFAULT_BUFFER_SIZE = 100000;
+
+	private static final byte TYPE_NULL = 0;
+	private static final byte TYPE_STRING = 1;
+	private static final byte TYPE_LONG = 2;
+	private static final byte TYPE_DOUBLE = 3;
+	private static final byte TYPE_BOOLEAN = 4;
+
+	private final int bufferSize;
+	private long[] keys;
+	private Object[] values;
+	private int size;
+	private long spilledSize;
+	private final List<File> runs = new ArrayList<>();
+	private final List<Closeable> openedRuns = new ArrayList<>();
+
+	public ExcelAnnotations() {
+		this(DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * @param bufferSize 内存中缓冲的标注条数，超过后写到临时文件
+	 */
+	public ExcelAnnotations(int bufferSize) {
+		if (bufferSize <= 0) {
+			throw new IllegalArgumentException("bufferSize");
+		}
+		this.bufferSize = bufferSize;
+		int capacity = Math.min(bufferSize, 1024);
+		this.keys = new long[capacity];
+		this.values = new Object[capacity];
+	}
+
+	/** 标注单元格（行号、列号从0开始） **/
+	public synchronized void set(int rowNum, int column, Object value) {
+		if (rowNum < 0) {
+			throw new IllegalArgumentException("rowNum");
+		}
+		if (column < 0) {
+			throw new IllegalArgumentException("column");
+		}
+		if (size == keys.length) {
+			if (size >= bufferSize) {
+				spill();
+			} else {
+				int capacity = Math.min(bufferSize, size * 2);
+				long[] newKeys = new long[capacity];
+				System.arraycopy(keys, 0, newKeys, 0, size);
+				keys = newKeys;
+				Object[] newValues = new Object[capacity];
+				System.arraycopy(values, 0, newValues, 0, size);
+				values = newValues;
+			}
+		}
+		keys[size] = toKey(rowNum, column);
+		values[size] = normalize(value);
+		size++;
+	}
+
+	/** 统一值类型（整数为Long，其余数字为Double，布尔值不变，其它转为字符串），内存中与写到临时文件后读回的值一致 **/
+	private static Object normalize(Object value) {
+		if (value == null || value instanceof Long || value instanceof Double || value instanceof Boolean
+				|| value instanceof String) {
+			return value;
+		}
+		if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+			return ((Number) value).longValue();
+		}
+		if (value instanceof Number) {
+			return ((Number) value).doubleValue();
+		}
+		return value.toString();
+	}
+
+	/** 标注条数（含重复标注） **/
+	public synchronized long size() {
+		return spilledSize + size;
+	}
+
+	/** 已写到临时文件的有序段数 **/
+	public synchronized int getRunsNum() {
+		return runs.size();
+	}
+
+	private static long toKey(int rowNum, int column) {
+		return ((long) rowNum << 32) | column;
+	}
+
+	/** 排序内存缓冲区（稳定排序）并去重，同一单元格保留最后一次标注，返回去重后条数 **/
+	private int sortBuffer() {
+		mergeSort(keys, values, new long[size], new Object[size], 0, size);
+		int n = 0;
+		for (int i = 0; i < size; i++) {
+			if (n > 0 && keys[n - 1] == keys[i]) {
+				values[n - 1] = values[i];
+			} else {
+				keys[n] = keys[i];
+				values[n] = values[i];
+				n++;
+			}
+		}
+		for (int i = n; i < size; i++) {
+			values[i] = null;
+		}
+		size = n;
+		return n;
+	}
+
+	private static void mergeSort(long[] keys, Object[] values, long[] tmpKeys, Object[] tmpValues, int from, int to) {
+		if (to - from < 2) {
+			return;
+		}
+		int mid = (from + to) >>> 1;
+		mergeSort(keys, values, tmpKeys, tmpValues, from, mid);
+		mergeSort(keys, values, tmpKeys, tmpValues, mid, to);
+		if (keys[mid - 1] <= keys[mid]) {
+			return;
+		}
+		System.arraycopy(keys, from, tmpKeys, from, to - from);
+		System.arraycopy(values, from, tmpValues, from, to - from);
+		int i = from;
+		int j = mid;
+		for (int k = from; k < to; k++) {
+			if (j >= to || i < mid && tmpKeys[i] <= tmpKeys[j]) {
+				keys[k] = tmpKeys[i];
+				values[k] = tmpValues[i++];
+			} else {
+				keys[k] = tmpKeys[j];
+				values[k] = tmpValues[j++];
+			}
+		}
+	}
+
+	private void spill() {
+		int n = sortBuffer();
+		File file = null;
+		try {
+			file = File.createTempFile("ss-excel-annotations-", ".tmp");
+			try (DataOutputStream out = new DataOutputStream(
+					new BufferedOutputStream(new FileOutputStream(file), 64 * 1024))) {
+				for (int i = 0; i < n; i++) {
+					out.writeLong(keys[i]);
+					writeValue(out, values[i]);
+				}
+			}
+		} catch (IOException e) {
+			if (file != null) {
+				FileUtil.delete(file);
+			}
+			throw new IllegalStateException("Failed to spill annotations", e);
+		}
+		runs.add(file);
+		spilledSize += n;
+		for (int i = 0; i < n; i++) {
+			values[i] = null;
+		}
+		size = 0;
+	}
+
+	private static void writeValue(DataOutputStream out, Object value) throws IOException {
+		if (value == null) {
+			out.writeByte(TYPE_NULL);
+		} else if (value instanceof Long) {
+			out.writeByte(TYPE_LONG);
+			out.writeLong((Long) value);
+		} else if (value instanceof Double) {
+			out.writeByte(TYPE_DOUBLE);
+			out.writeDouble((Double) value);
+		} else if (value instanceof Boolean) {
+			out.writeByte(TYPE_BOOLEAN);
+			out.writeBoolean((Boolean) value);
+		} else {
+			byte[] bytes = ((String) value).getBytes(StandardCharsets.UTF_8);
+			out.writeByte(TYPE_STRING);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+	}
+
+	private static Object readValue(DataInputStream in) throws IOException {
+		byte type = in.readByte();
+		switch (type) {
+		case TYPE_STRING:
+			byte[] bytes = new byte[in.readInt()];
+			in.readFully(bytes);
+			return new String(bytes, StandardCharsets.UTF_8);
+		case TYPE_LONG:
+			return in.readLong();
+		case TYPE_DOUBLE:
+			return in.readDouble();
+		case TYPE_BOOLEAN:
+			return in.readBoolean();
+		default:
+			return null;
+		}
+	}
+
+	/** 按行号、列号递增迭代（归并各有序段与内存缓冲区），迭代期间不可再标注 **/
+	public synchronized XlsxAppendedCells cells() throws IOException {
+		int n = sortBuffer();
+		List<Cursor> cursors = new ArrayList<>(runs.size() + 1);
+		for (File run : runs) {
+			RunCursor cursor = new RunCursor(cursors.size(), run);
+			openedRuns.add(cursor);
+			cursors.add(cursor);
+		}
+		cursors.add(new BufferCursor(cursors.size(), keys, values, n));
+		return new MergedCells(cursors);
+	}
+
+	/** 删除临时文件 **/
+	@Override
+	public synchronized void close() {
+		for (Closeable run : openedRuns) {
+			FileUtil.close(run);
+		}
+		openedRuns.clear();
+		for (File run : runs) {
+			FileUtil.delete(run);
+		}
+		runs.clear();
+		size = 0;
+		spilledSize = 0;
+	}
+
+	/** 有序段游标，序号越大的段越新 **/
+	private abstract static class Cursor {
+		final int order;
+		long key;
+		Object value;
+
+		Cursor(int order) {
+			this.order = order;
+		}
+
+		abstract boolean next() throws IOException;
+	}
+
+	private static class BufferCursor extends Cursor {
+		private final long[] keys;
+		private final Object[] values;
+		private final int size;
+		private int pos;
+
+		BufferCursor(int order, long[] keys, Object[] values, int size) {
+			super(order);
+			this.keys = keys;
+			this.values = values;
+			this.size = size;
+		}
+
+		@Override
+		boolean next() {
+			if (pos >= size) {
+				return false;
+			}
+			key = keys[pos];
+			value = values[pos];
+			pos++;
+			return true;
+		}
+	}
+
+	private static class RunCursor extends Cursor implements Closeable {
+		private final DataInputStream in;
+
+		RunCursor(int order, File file) throws IOException {
+			super(order);
+			this.in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 64 * 1024));
+		}
+
+		@Override
+		boolean next() throws IOException {
+			try {
+				key = in.readLong();
+			} catch (EOFException e) {
+				in.close();
+				return false;
+			}
+			value = readValue(in);
+			return true;
+		}
+
+		@Override
+		public void close() throws IOException {
+			in.close();
+		}
+	}
+
+	private static class MergedCells implements XlsxAppendedCells {
+		private final PriorityQueue<Cursor> queue;
+		private long key;
+		private Object value;
+
+		MergedCells(List<Cursor> cursors) throws IOException {
+			queue = new PriorityQueue<>(Math.max(cursors.size(), 1), (a, b) -> {
+				int c = Long.compare(a.key, b.key);
+				return c != 0 ? c : Integer.compare(a.order, b.order);
+			});
+			for (Cursor cursor : cursors) {
+				if (cursor.next()) {
+					queue.add(cursor);
+				}
+			}
+		}
+
+		@Override
+		public boolean next() throws IOException {
+			Cursor cursor = queue.poll();
+			if (cursor == null) {
+				return false;
+			}
+			key = cursor.key;
+			value = cursor.value;
+			advance(cursor);
+			// 同一单元格取最新的段
+			while (!queue.isEmpty() && queue.peek().key == key) {
+				cursor = queue.poll();
+				value = cursor.value;
+				advance(cursor);
+			}
+			return true;
+		}
+
+		private void advance(Cursor cursor) throws IOException {
+			if (cursor.next()) {
+				queue.add(cursor);
+			}
+		}
+
+		@Override
+		public int getRowNum() {
+			return (int) (key >>> 32);
+		}
+
+		@Override
+		public int getColumn() {
+			return (int) (key & 0xFFFFFFFFL);
+		}
+
+		@Override
+		public Object getValue() {
+			return value;
+		}
+	}
+
+}
@@ -0,0 +1,185 @@
+package com.sunnysuperman.excel.reader;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.sunnysuperman.excel.ExcelCellType;
+
+/**
+ * 按@ExcelField注解生成列定义，并把行视图绑定到对象。字段访问在创建时预编译为MethodHandle，读取时不再反射，基本类型字段不装箱
+ */
+public class ExcelBeanBinder<T> {
+	private static final ConcurrentMap<Class<?>, ExcelBeanBinder<?>> BINDERS = new ConcurrentHashMap<>();
+
+	private static final byte SET_OBJECT = 0;
+	private static final byte SET_INT = 1;
+	private static final byte SET_LONG = 2;
+	private static final byte SET_FLOAT = 3;
+	private static final byte SET_DOUBLE = 4;
+
+	private final Class<T> type;
+	private final ExcelColumn[] columns;
+	private final MethodHandle constructor; // ()Object
+	private final MethodHandle[] setters; // (Object, 字段类型)void
+	private final MethodHandle[] getters; // (Object)Object
+	private final byte[] setterTypes;
+
+	@SuppressWarnings("unchecked")
+	public static <T> ExcelBeanBinder<T> of(Class<T> type) {
+		return (ExcelBeanBinder<T>) BINDERS.computeIfAbsent(type, ExcelBeanBinder::new);
+	}
+
+	private ExcelBeanBinder(Class<?> rawType) {
+		@SuppressWarnings("unchecked")
+		Class<T> beanType = (Class<T>) rawType;
+		this.type = beanType;
+		MethodHandles.Lookup lookup = MethodHandles.lookup();
+		try {
+			java.lang.reflect.Constructor<T> ctor = beanType.getDeclaredConstructor();
+			ctor.setAccessible(true);
+			constructor = lookup.unreflectConstructor(ctor).asType(MethodType.methodType(Object.class));
+		} catch (NoSuchMethodException | IllegalAccessException e) {
+			throw new IllegalArgumentException("No accessible default constructor: " + beanType.getName(), e);
+		}
+
+		List<Field> fields = new ArrayList<>();
+		for (Class<?> clazz = beanType; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+			List<Field> declared = new ArrayList<>();
+			for (Field field : clazz.getDeclaredFields()) {
+				if (field.isAnnotationPresent(ExcelField.class) && !Modifier.isStatic(field.getModifiers())) {
+					declared.add(field);
+				}
+			}
+			// 父类字段在前
+			fields.addAll(0, declared);
+		}
+		if (fields.isEmpty()) {
+			throw new IllegalArgumentException("No @ExcelField found: " + beanType.getName());
+		}
+
+		columns = new ExcelColumn[fields.size()];
+		setters = new MethodHandle[fields.size()];
+		getters = new MethodHandle[fields.size()];
+		setterTypes = new byte[fields.size()];
+		for (int k = 0; k < fields.size(); k++) {
+			Field field = fields.get(k);
+			ExcelField annotation = field.getAnnotation(ExcelField.class);
+			Class<?> fieldType = field.getType();
+			String key = annotation.key().isEmpty() ? field.getName() : annotation.key();
+			columns[k] = new ExcelColumn(key, annotation.title(), toCellType(field), annotation.matchMode())
+					.setAliases(annotation.aliases()).setRequired(annotation.required())
+					.setPattern(annotation.pattern()).setRange(annotation.min(), annotation.max())
+					.setMaxLength(annotation.maxLength()).setAllowedValues(annotation.allowedValues())
+					.setUnique(annotation.unique());
+			MethodHandle setter;
+			try {
+				field.setAccessible(true);
+				setter = lookup.unreflectSetter(field);
+				getters[k] = lookup.unreflectGetter(field).asType(MethodType.methodType(Object.class, Object.class));
+			} catch (IllegalAccessException e) {
+				throw new IllegalArgumentException("Field not writable: " + field, e);
+			}
+			byte setterType = SET_OBJECT;
+			if (fieldType == int.class) {
+				setterType = SET_INT;
+			} else if (fieldType == long.class) {
+				setterType = SET_LONG;
+			} else if (fieldType == float.class) {
+				setterType = SET_FLOAT;
+			} else if (fieldType == double.class) {
+				setterType = SET_DOUBLE;
+			}
+			Class<?> valueType = setterType == SET_OBJECT ? Object.class : fieldType;
+			setters[k] = setter.asType(MethodType.methodType(void.class, Object.class, valueType));
+			setterTypes[k] = setterType;
+		}
+	}
+
+	private static ExcelCellType toCellType(Field field) {
+		Class<?> fieldType = field.getType();
+		if (fieldType == String.class) {
+			return ExcelCellType.STRING;
+		}
+		if (fieldType == int.class || fieldType == Integer.class) {
+			return ExcelCellType.INT;
+		}
+		if (fieldType == long.class || fieldType == Long.class) {
+			return ExcelCellType.LONG;
+		}
+		if (fieldType == float.class || fieldType == Float.class) {
+			return ExcelCellType.FLOAT;
+		}
+		if (fieldType == double.class || fieldType == Double.class) {
+			return ExcelCellType.DOUBLE;
+		}
+		if (fieldType == Date.class) {
+			return ExcelCellType.DATE;
+		}
+		throw new IllegalArgumentException("Unsupported field type: " + field);
+	}
+
+	public Class<T> getType() {
+		return type;
+	}
+
+	/** 列定义（按字段声明顺序，父类字段在前） **/
+	public ExcelColumn[] getColumns() {
+		return columns.clone();
+	}
+
+	/** 取对象第k列（getColumns()中的序号）字段的值 **/
+	public Object get(Object bean, int k) {
+		try {
+			return (Object) getters[k].invokeExact(bean);
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/** 创建对象并写入行视图中非空且转换成功的列，行视图的列需为getColumns()返回的列 **/
+	@SuppressWarnings("unchecked")
+	public T bind(ExcelRowView row) {
+		try {
+			Object bean = constructor.invokeExact();
+			for (int k = 0; k < setters.length; k++) {
+				if (row.isNull(k)) {
+					continue;
+				}
+				MethodHandle setter = setters[k];
+				switch (setterTypes[k]) {
+				case SET_INT:
+					setter.invokeExact(bean, row.getInt(k));
+					break;
+				case SET_LONG:
+					setter.invokeExact(bean, row.getLong(k));
+					break;
+				case SET_FLOAT:
+					setter.invokeExact(bean, row.getFloat(k));
+					break;
+				case SET_DOUBLE:
+					setter.invokeExact(bean, row.getDouble(k));
+					break;
+				default:
+					setter.invokeExact(bean, row.get(k));
+					break;
+				}
+			}
+			return (T) bean;
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+}
@@ -0,0 +1,21 @@
+package com.sunnysuperman.excel.reader;
+
+/**
+ * 单元格错误码
+ */
+public enum ExcelCellError {
+	/** 单元格值与列类型不匹配（转换失败） **/
+	TYPE,
+	/** 必填列为空 **/
+	REQUIRED,
+	/** 不匹配正则表达式 **/
+	PATTERN,
+	/** 数值超出范围 **/
+	RANGE,
+	/** 超出最大长度 **/
+	MAX_LENGTH,
+	/** 不在允许的取值中 **/
+	NOT_ALLOWED,
+	/** 唯一列的值与之前的行重复 **/
+	DUPLICATE;
+}
@@ -0,0 +1,61 @@
+package com.sunnysuperman.excel.reader;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * 读取检查点：文件指纹，已处理完的最后一个数据行行号（同Handler.onData的rowIndex）及已处理的数据行数
+ */
+public class ExcelCheckpoint {
+	private final String fingerprint;
+	private final int rowIndex;
+	private final int rowsNum;
+
+	public ExcelCheckpoint(String fingerprint, int rowIndex, int rowsNum) {
+		if (fingerprint == null) {
+			throw new IllegalArgumentException("fingerprint");
+		}
+		this.fingerprint = fingerprint;
+		this.rowIndex = rowIndex;
+		this.rowsNum = rowsNum;
+	}
+
+	/** 文件指纹：文件长度及全文件的CRC32（按块读取，百MB的文件约百毫秒） **/
+	public static String fingerprint(File file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			byte[] buf = new byte[64 * 1024];
+			ByteBuffer buffer = ByteBuffer.wrap(buf);
+			CRC32 crc = new CRC32();
+			long length = 0;
+			int n;
+			while ((n = channel.read(buffer)) >= 0) {
+				crc.update(buf, 0, n);
+				buffer.clear();
+				length += n;
+			}
+			return length + "-" + Long.toHexString(crc.getValue());
+		}
+	}
+
+	public String getFingerprint() {
+		return fingerprint;
+	}
+
+	public int getRowIndex() {
+		return rowIndex;
+	}
+
+	public int getRowsNum() {
+		return rowsNum;
+	}
+
+	@Override
+	public String toString() {
+		return "ExcelCheckpoint [fingerprint=" + fingerprint + ", rowIndex=" + rowIndex + ", rowsNum=" + rowsNum + "]";
+	}
+
+}
@@ -0,0 +1,21 @@
+package com.sunnysuperman.excel.reader;
+
+import java.io.IOException;
+
+/**
+ * 检查点存储：每个导入任务一个（如按任务ID存到数据库或文件），保存最近一次检查点。
+ *
+ * 异步批处理时save在线程池中调用（按顺序，不并发）
+ */
+public interface ExcelCheckpointStore {
+
+	/** 读取保存的检查点，没有返回null **/
+	ExcelCheckpoint load() throws IOException;
+
+	/** 保存检查点（覆盖上一次的） **/
+	void save(ExcelCheckpoint checkpoint) throws IOException;
+
+	/** 读完整个表格后清除检查点 **/
+	void clear() throws IOException;
+
+}
@@ -1,12 +1,29 @@
 package com.sunnysuperman.excel.reader;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Pattern;
+
 import com.sunnysuperman.excel.ExcelCellType;
 
 public class ExcelColumn {
+	private static final String[] NO_ALIASES = new String[0];
+
 	private String key;
 	private String title;
 	private ExcelCellType type;
 	private ExcelColumnMatchMode matchMode;
+	private String[] aliases = NO_ALIASES; // 表头标题的别名（按同样的匹配方式，标题匹配不到时依次匹配）
+	// 校验规则（读取时检查，失败的列同转换失败一样作为错误列）
+	private boolean required; // 必填
+	private Pattern pattern; // 按字符串形式匹配的正则表达式
+	private double minValue = Double.NEGATIVE_INFINITY; // 数值下限（含）
+	private double maxValue = Double.POSITIVE_INFINITY; // 数值上限（含）
+	private int maxLength; // 按字符串形式的最大长度，0为不限
+	private Set<String> allowedValues; // 按字符串形式允许的取值，null为不限
+	private boolean unique; // 整个表格中不能重复
 
 	public ExcelColumn(String key, String title, ExcelCellType type, ExcelColumnMatchMode matchMode) {
 		super();
@@ -40,4 +57,91 @@ public class ExcelColumn {
 		return matchMode;
 	}
 
-}
\ No newline at end of file
+	public String[] getAliases() {
+		return aliases;
+	}
+
+	public ExcelColumn setAliases(String... aliases) {
+		this.aliases = aliases == null ? NO_ALIASES : aliases.clone();
+		return this;
+	}
+
+	public boolean isRequired() {
+		return required;
+	}
+
+	/** 必填：单元格不存在、为空或空白字符串（数值列还有不能解析为数值的字符串）时校验失败 **/
+	public ExcelColumn setRequired(boolean required) {
+		this.required = required;
+		return this;
+	}
+
+	public Pattern getPattern() {
+		return pattern;
+	}
+
+	/** 值（按字符串形式）需完整匹配的正则表达式，null为不限 **/
+	public ExcelColumn setPattern(String regex) {
+		this.pattern = regex == null || regex.isEmpty() ? null : Pattern.compile(regex);
+		return this;
+	}
+
+	public double getMinValue() {
+		return minValue;
+	}
+
+	public double getMaxValue() {
+		return maxValue;
+	}
+
+	/** 数值范围（含两端），不限时用Double.NEGATIVE_INFINITY/Double.POSITIVE_INFINITY **/
+	public ExcelColumn setRange(double minValue, double maxValue) {
+		if (Double.isNaN(minValue) || Double.isNaN(maxValue) || minValue > maxValue) {
+			throw new IllegalArgumentException("range");
+		}
+		this.minValue = minValue;
+		this.maxValue = maxValue;
+		return this;
+	}
+
+	public int getMaxLength() {
+		return maxLength;
+	}
+
+	/** 值（按字符串形式）的最大长度，0为不限 **/
+	public ExcelColumn setMaxLength(int maxLength) {
+		if (maxLength < 0) {
+			throw new IllegalArgumentException("maxLength");
+		}
+		this.maxLength = maxLength;
+		return this;
+	}
+
+	public Set<String> getAllowedValues() {
+		return allowedValues;
+	}
+
+	/** 允许的取值（按字符串形式），为空时不限 **/
+	public ExcelColumn setAllowedValues(String... allowedValues) {
+		this.allowedValues = allowedValues == null || allowedValues.length == 0 ? null
+				: Collections.unmodifiableSet(new HashSet<>(Arrays.asList(allowedValues)));
+		return this;
+	}
+
+	public boolean isUnique() {
+		return unique;
+	}
+
+	/** 唯一：非空值与之前读取的行重复时校验失败（按值的64位指纹检查，不保存值本身） **/
+	public ExcelColumn setUnique(boolean unique) {
+		this.unique = unique;
+		return this;
+	}
+
+	/** 是否有按单元格的校验规则（不含唯一） **/
+	public boolean hasRules() {
+		return required || pattern != null || minValue > Double.NEGATIVE_INFINITY || maxValue < Double.POSITIVE_INFINITY
+				|| maxLength > 0 || allowedValues != null;
+	}
+
+}
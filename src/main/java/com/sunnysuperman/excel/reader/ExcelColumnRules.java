@@ -0,0 +1,139 @@
+package com.sunnysuperman.excel.reader;
+
+import java.util.Date;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.sunnysuperman.excel.CellDateFormatter;
+
+/**
+ * 编译好的列校验规则：读取开始时按列定义生成一次，读取时对转换后的值逐个检查，不分配对象（正则匹配器按列复用）。
+ *
+ * 空值（单元格不存在、为空或空白字符串）只检查必填，其它规则只检查非空值；数值列先检查范围，再按字符串形式检查其它规则，日期按读取选项的日期格式转为字符串。
+ * 多线程解析时各线程使用各自的副本
+ */
+class ExcelColumnRules {
+	private final boolean required;
+	private final double minValue;
+	private final double maxValue;
+	private final boolean ranged;
+	private final int maxLength;
+	private final Set<String> allowedValues;
+	private final Pattern pattern;
+	private final Matcher matcher;
+	private final CellDateFormatter dateFormatter;
+
+	private ExcelColumnRules(ExcelColumn column, CellDateFormatter dateFormatter) {
+		this.required = column.isRequired();
+		this.minValue = column.getMinValue();
+		this.maxValue = column.getMaxValue();
+		this.ranged = minValue > Double.NEGATIVE_INFINITY || maxValue < Double.POSITIVE_INFINITY;
+		this.maxLength = column.getMaxLength();
+		this.allowedValues = column.getAllowedValues();
+		this.pattern = column.getPattern();
+		this.matcher = pattern == null ? null : pattern.matcher("");
+		this.dateFormatter = dateFormatter;
+	}
+
+	/** 按列定义编译校验规则，没有规则的列为null，所有列都没有规则时返回null **/
+	static ExcelColumnRules[] compile(ExcelColumn[] columns, CellDateFormatter dateFormatter) {
+		ExcelColumnRules[] rules = null;
+		for (int k = 0; k < columns.length; k++) {
+			if (!columns[k].hasRules()) {
+				continue;
+			}
+			if (rules == null) {
+				rules = new ExcelColumnRules[columns.length];
+			}
+			rules[k] = new ExcelColumnRules(columns[k], dateFormatter);
+		}
+		return rules;
+	}
+
+	/** 复制一份（正则匹配器不能多线程共用） **/
+	static ExcelColumnRules[] copyOf(ExcelColumnRules[] rules) {
+		if (rules == null) {
+			return null;
+		}
+		ExcelColumnRules[] copy = new ExcelColumnRules[rules.length];
+		for (int k = 0; k < rules.length; k++) {
+			copy[k] = rules[k] == null ? null : new ExcelColumnRules(rules[k]);
+		}
+		return copy;
+	}
+
+	private ExcelColumnRules(ExcelColumnRules rules) {
+		this.required = rules.required;
+		this.minValue = rules.minValue;
+		this.maxValue = rules.maxValue;
+		this.ranged = rules.ranged;
+		this.maxLength = rules.maxLength;
+		this.allowedValues = rules.allowedValues;
+		this.pattern = rules.pattern;
+		this.matcher = pattern == null ? null : pattern.matcher("");
+		this.dateFormatter = rules.dateFormatter;
+	}
+
+	/** 检查转换后的值（null表示单元格不存在或为空），通过返回null **/
+	ExcelCellError check(Object value) {
+		if (value == null) {
+			return checkMissing();
+		}
+		if (value instanceof Number) {
+			ExcelCellError error = checkNumber(((Number) value).doubleValue());
+			if (error != null || !hasStringRules()) {
+				return error;
+			}
+		}
+		if (value instanceof Date) {
+			return hasStringRules() ? checkString(dateFormatter.format((Date) value)) : null;
+		}
+		return checkString(value.toString());
+	}
+
+	/** 检查空值 **/
+	ExcelCellError checkMissing() {
+		return required ? ExcelCellError.REQUIRED : null;
+	}
+
+	/** 检查数值范围 **/
+	ExcelCellError checkNumber(double value) {
+		if (ranged && (value < minValue || value > maxValue || Double.isNaN(value))) {
+			return ExcelCellError.RANGE;
+		}
+		return null;
+	}
+
+	/** 是否有按字符串检查的规则（最大长度、允许的取值、正则表达式） **/
+	boolean hasStringRules() {
+		return maxLength > 0 || allowedValues != null || pattern != null;
+	}
+
+	/** 按字符串检查（空白字符串视为空值） **/
+	ExcelCellError checkString(String value) {
+		if (isBlank(value)) {
+			return checkMissing();
+		}
+		if (maxLength > 0 && value.length() > maxLength) {
+			return ExcelCellError.MAX_LENGTH;
+		}
+		if (allowedValues != null && !allowedValues.contains(value)) {
+			return ExcelCellError.NOT_ALLOWED;
+		}
+		if (matcher != null && !matcher.reset(value).matches()) {
+			return ExcelCellError.PATTERN;
+		}
+		return null;
+	}
+
+	static boolean isBlank(String value) {
+		for (int i = 0; i < value.length(); i++) {
+			if (!Character.isWhitespace(value.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
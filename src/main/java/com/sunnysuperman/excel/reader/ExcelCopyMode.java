@@ -0,0 +1,13 @@
+package com.sunnysuperman.excel.reader;
+
+public enum ExcelCopyMode {
+
+	/** 逐行解码后重建到新的工作簿（getCopySheet），可在onRowCopied中修改拷贝行 **/
+	ROWS,
+
+	/**
+	 * 原样拷贝源文件的行XML（不解码），只在行尾追加通过ExcelReader.annotate标注的单元格，读取结束后用writeCopyTo写出（仅支持xlsx文件）
+	 **/
+	RAW;
+
+}
@@ -0,0 +1,50 @@
+package com.sunnysuperman.excel.reader;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标注在字段上，由ExcelBeanBinder生成列定义并绑定数据。列类型由字段类型决定：String、int/Integer、long/Long、float/Float、double/Double、Date
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface ExcelField {
+
+	/** 表头标题 **/
+	String title();
+
+	/** 列key，默认为字段名 **/
+	String key() default "";
+
+	/** 表头标题的别名 **/
+	String[] aliases() default {};
+
+	/** 表头匹配方式 **/
+	ExcelColumnMatchMode matchMode() default ExcelColumnMatchMode.EXACTLY;
+
+	/** 必填 **/
+	boolean required() default false;
+
+	/** 值需完整匹配的正则表达式 **/
+	String pattern() default "";
+
+	/** 数值下限（含） **/
+	double min() default Double.NEGATIVE_INFINITY;
+
+	/** 数值上限（含） **/
+	double max() default Double.POSITIVE_INFINITY;
+
+	/** 最大长度，0为不限 **/
+	int maxLength() default 0;
+
+	/** 允许的取值 **/
+	String[] allowedValues() default {};
+
+	/** 唯一 **/
+	boolean unique() default false;
+
+}
@@ -0,0 +1,64 @@
+package com.sunnysuperman.excel.reader;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+/**
+ * 保存到本地文件的检查点：先写临时文件再原子替换，中途崩溃不会留下不完整的检查点
+ */
+public class ExcelFileCheckpointStore implements ExcelCheckpointStore {
+	private final File file;
+
+	public ExcelFileCheckpointStore(File file) {
+		if (file == null) {
+			throw new IllegalArgumentException("file");
+		}
+		this.file = file;
+	}
+
+	@Override
+	public ExcelCheckpoint load() throws IOException {
+		if (!file.exists()) {
+			return null;
+		}
+		Properties props = new Properties();
+		try (InputStream in = Files.newInputStream(file.toPath())) {
+			props.load(in);
+		}
+		try {
+			return new ExcelCheckpoint(props.getProperty("fingerprint"),
+					Integer.parseInt(props.getProperty("rowIndex")), Integer.parseInt(props.getProperty("rowsNum")));
+		} catch (IllegalArgumentException e) {
+			throw new IOException("Bad checkpoint file: " + file, e);
+		}
+	}
+
+	@Override
+	public void save(ExcelCheckpoint checkpoint) throws IOException {
+		Properties props = new Properties();
+		props.setProperty("fingerprint", checkpoint.getFingerprint());
+		props.setProperty("rowIndex", String.valueOf(checkpoint.getRowIndex()));
+		props.setProperty("rowsNum", String.valueOf(checkpoint.getRowsNum()));
+		File tmpFile = new File(file.getPath() + ".tmp");
+		try (OutputStream out = Files.newOutputStream(tmpFile.toPath())) {
+			props.store(out, null);
+		}
+		Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+				StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	@Override
+	public void clear() throws IOException {
+		Files.deleteIfExists(file.toPath());
+	}
+
+	public File getFile() {
+		return file;
+	}
+
+}
@@ -0,0 +1,209 @@
+package com.sunnysuperman.excel.reader;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import com.sunnysuperman.excel.ExcelException;
+
+/**
+ * 表头索引：各表头单元格的标题只转换、去空白一次，按标题建哈希索引（同一标题取第一列）。
+ *
+ * 前缀（STARTS_WITH）及模糊（FUZZY）匹配不再逐个单元格比较，而是取声明标题中长度在表头标题长度集合里的前缀/子串查哈希索引，
+ * 列数多时开销与表头宽度无关。
+ *
+ * 多行表头：每列按最下面一行的非空标题及各行标题用“-”连接的完整标题（如“联系方式-手机号”）建索引， 上面行的空单元格视为与左边合并，沿用左边的标题
+ */
+class ExcelHeaderIndex {
+	static final String SEPARATOR = "-";
+
+	private final int rowsNum;
+	private final List<String[]> rowTitles;
+	private String[] rawValues; // 最后一行单元格原始字符串，按顺序精确匹配时使用
+	private String[] fullTitles;
+	private Map<String, Integer> index;
+	private int[] titleLengths; // 已建索引的标题长度（升序去重）
+
+	/**
+	 * @param rowsNum 表头行数
+	 */
+	ExcelHeaderIndex(int rowsNum) {
+		if (rowsNum <= 0) {
+			throw new IllegalArgumentException("headerRowsNum");
+		}
+		this.rowsNum = rowsNum;
+		this.rowTitles = new ArrayList<>(rowsNum);
+	}
+
+	/**
+	 * 加入一行表头，返回表头是否已读完
+	 *
+	 * @param titles    各单元格标题（转字符串并去除首尾空白，单元格不存在为null）
+	 * @param rawValues 各单元格原始字符串（非字符串单元格为null）
+	 */
+	boolean addRow(String[] titles, String[] rawValues) {
+		rowTitles.add(titles);
+		this.rawValues = rawValues;
+		if (rowTitles.size() < rowsNum) {
+			return false;
+		}
+		build();
+		return true;
+	}
+
+	private void build() {
+		int width = 0;
+		for (String[] titles : rowTitles) {
+			width = Math.max(width, titles.length);
+		}
+		fullTitles = new String[width];
+		index = new HashMap<>(width * 4);
+		TreeSet<Integer> lengths = new TreeSet<>();
+		String[] groups = new String[rowsNum]; // 上面各行当前（合并的）标题
+		StringBuilder buf = new StringBuilder();
+		for (int i = 0; i < width; i++) {
+			String leaf = null;
+			int partsNum = 0;
+			buf.setLength(0);
+			for (int r = 0; r < rowsNum; r++) {
+				String title = getTitle(r, i);
+				boolean lastRow = r == rowsNum - 1;
+				if (title != null) {
+					groups[r] = title;
+				} else if (!lastRow) {
+					title = groups[r];
+				}
+				if (title == null) {
+					continue;
+				}
+				if (partsNum++ > 0) {
+					buf.append(SEPARATOR);
+				}
+				buf.append(title);
+				if (getTitle(r, i) != null) {
+					leaf = title;
+				}
+			}
+			if (leaf == null) {
+				continue;
+			}
+			put(leaf, i, lengths);
+			if (partsNum > 1) {
+				fullTitles[i] = buf.toString();
+				put(fullTitles[i], i, lengths);
+			}
+		}
+		titleLengths = new int[lengths.size()];
+		int k = 0;
+		for (Integer length : lengths) {
+			titleLengths[k++] = length;
+		}
+	}
+
+	/** 非空标题，空白或不存在为null **/
+	private String getTitle(int r, int i) {
+		String[] titles = rowTitles.get(r);
+		if (i >= titles.length || titles[i] == null || titles[i].isEmpty()) {
+			return null;
+		}
+		return titles[i];
+	}
+
+	private void put(String title, int i, TreeSet<Integer> lengths) {
+		if (index.putIfAbsent(title, i) == null) {
+			lengths.add(title.length());
+		}
+	}
+
+	/** 按列定义匹配表头，返回各列对应的单元格序号 **/
+	int[] match(ExcelColumn[] columns, boolean inOrder) throws ExcelException {
+		int[] indexes = new int[columns.length];
+		for (int k = 0; k < columns.length; k++) {
+			ExcelColumn column = columns[k];
+			if (inOrder) {
+				if (!matchesInOrder(k, column)) {
+					throw new ExcelException(ExcelException.ERROR_COLUMN_NOT_MATCH, k);
+				}
+				indexes[k] = k;
+				continue;
+			}
+			int i = find(column.getTitle(), column.getMatchMode());
+			for (int a = 0; i < 0 && a < column.getAliases().length; a++) {
+				i = find(column.getAliases()[a], column.getMatchMode());
+			}
+			if (i < 0) {
+				throw new ExcelException(ExcelException.ERROR_COULD_NOT_FIND_COLUMN, k);
+			}
+			indexes[k] = i;
+		}
+		return indexes;
+	}
+
+	private boolean matchesInOrder(int i, ExcelColumn column) {
+		if (matchesInOrder(i, column.getTitle())) {
+			return true;
+		}
+		for (String alias : column.getAliases()) {
+			if (matchesInOrder(i, alias)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean matchesInOrder(int i, String name) {
+		if (i < rawValues.length && name.equals(rawValues[i])) {
+			return true;
+		}
+		return i < fullTitles.length && name.equals(fullTitles[i]);
+	}
+
+	/** 查找标题对应的单元格序号（多个匹配取最左边的），找不到返回-1 **/
+	int find(String name, ExcelColumnMatchMode matchMode) {
+		switch (matchMode) {
+		case EXACTLY:
+			return get(name);
+		case STARTS_WITH: {
+			/* XX(*) startsWith XX */
+			int found = -1;
+			for (int length : titleLengths) {
+				if (length > name.length()) {
+					break;
+				}
+				found = min(found, get(name.substring(0, length)));
+			}
+			return found;
+		}
+		case FUZZY: {
+			/* XY indexOf XXY */
+			int found = -1;
+			for (int length : titleLengths) {
+				if (length > name.length()) {
+					break;
+				}
+				for (int start = 0; start + length <= name.length(); start++) {
+					found = min(found, get(name.substring(start, start + length)));
+				}
+			}
+			return found;
+		}
+		default:
+			return -1;
+		}
+	}
+
+	private int get(String title) {
+		Integer i = index.get(title);
+		return i == null ? -1 : i;
+	}
+
+	private static int min(int found, int i) {
+		if (i < 0) {
+			return found;
+		}
+		return found < 0 ? i : Math.min(found, i);
+	}
+
+}
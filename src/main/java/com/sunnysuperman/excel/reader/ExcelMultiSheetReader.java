@@ -0,0 +1,154 @@
+package com.sunnysuperman.excel.reader;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import com.sunnysuperman.excel.ExcelException;
+import com.sunnysuperman.excel.xlsx.XlsxPackage;
+
+/**
+ * 多表格读取：xlsx文件只打开一次，共享字符串及样式只解析一次，各表格按各自的列定义及处理器并行读取（使用内置引擎）
+ */
+public class ExcelMultiSheetReader {
+	private final File file;
+	private final int threads;
+	private final Map<Object, ExcelReaderOptions> sheets = new LinkedHashMap<>(); // 表格序号或名称 -> 读取选项
+	private Function<String, ExcelReaderOptions> allSheetsOptions;
+	private int sharedStringsCacheSize;
+
+	/**
+	 * @param file    xlsx文件
+	 * @param threads 并行读取的线程数，为1时在当前线程中逐个读取
+	 */
+	public ExcelMultiSheetReader(File file, int threads) {
+		if (threads <= 0) {
+			throw new IllegalArgumentException("threads");
+		}
+		this.file = file;
+		this.threads = threads;
+	}
+
+	public ExcelMultiSheetReader addSheet(int sheetIndex, ExcelReaderOptions options) {
+		sheets.put(sheetIndex, options);
+		return this;
+	}
+
+	public ExcelMultiSheetReader addSheet(String sheetName, ExcelReaderOptions options) {
+		sheets.put(sheetName, options);
+		return this;
+	}
+
+	/** 读取所有表格，按表格名称返回读取选项，返回null的表格跳过（优先使用addSheet指定的选项） **/
+	public ExcelMultiSheetReader addAllSheets(Function<String, ExcelReaderOptions> optionsFactory) {
+		this.allSheetsOptions = optionsFactory;
+		return this;
+	}
+
+	/** 大于0时共享字符串表存放在内存映射的临时文件中，内存中只缓存最近使用的这么多个字符串 **/
+	public ExcelMultiSheetReader setSharedStringsCacheSize(int sharedStringsCacheSize) {
+		this.sharedStringsCacheSize = sharedStringsCacheSize;
+		return this;
+	}
+
+	public void read() throws ExcelException, HandlerException {
+		try (XlsxPackage xlsxPackage = XlsxPackage.open(file, sharedStringsCacheSize)) {
+			List<ExcelReader> readers = prepareReaders(xlsxPackage);
+			if (readers.isEmpty()) {
+				return;
+			}
+			// 共享部件在并行读取前解析好
+			xlsxPackage.getSharedStrings();
+			xlsxPackage.getStyles();
+			if (threads == 1 || readers.size() == 1) {
+				for (ExcelReader reader : readers) {
+					reader.read();
+				}
+			} else {
+				readConcurrently(readers);
+			}
+		}
+	}
+
+	private List<ExcelReader> prepareReaders(XlsxPackage xlsxPackage) throws ExcelException {
+		ExcelReaderOptions[] sheetOptions = new ExcelReaderOptions[xlsxPackage.getNumberOfSheets()];
+		for (Map.Entry<Object, ExcelReaderOptions> entry : sheets.entrySet()) {
+			Object key = entry.getKey();
+			int index = key instanceof Integer ? (Integer) key : xlsxPackage.getSheetIndex((String) key);
+			if (index < 0 || index >= sheetOptions.length) {
+				throw new ExcelException(ExcelException.ERROR_SHEET_NOT_FOUND, key);
+			}
+			sheetOptions[index] = entry.getValue();
+		}
+		List<ExcelReader> readers = new ArrayList<>(sheetOptions.length);
+		for (int i = 0; i < sheetOptions.length; i++) {
+			ExcelReaderOptions options = sheetOptions[i];
+			if (options == null && allSheetsOptions != null) {
+				options = allSheetsOptions.apply(xlsxPackage.getSheetName(i));
+			}
+			if (options != null) {
+				if (options.isCopy()) {
+					throw new IllegalArgumentException("copy");
+				}
+				readers.add(new ExcelReader(xlsxPackage, i, options));
+			}
+		}
+		return readers;
+	}
+
+	private void readConcurrently(List<ExcelReader> readers) throws ExcelException, HandlerException {
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, readers.size()));
+		try {
+			List<Future<Void>> futures = new ArrayList<>(readers.size());
+			for (ExcelReader reader : readers) {
+				futures.add(executor.submit(() -> {
+					reader.read();
+					return null;
+				}));
+			}
+			for (Future<Void> future : futures) {
+				try {
+					future.get();
+				} catch (ExecutionException e) {
+					Throwable cause = e.getCause();
+					if (cause instanceof ExcelException) {
+						throw (ExcelException) cause;
+					}
+					if (cause instanceof HandlerException) {
+						throw (HandlerException) cause;
+					}
+					if (cause instanceof RuntimeException) {
+						throw (RuntimeException) cause;
+					}
+					throw new HandlerException(cause);
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new HandlerException(e);
+		} finally {
+			// 出错时不再开始新的表格，并等待正在读取的表格结束后再关闭文件
+			executor.shutdownNow();
+			awaitTermination(executor);
+		}
+	}
+
+	private static void awaitTermination(ExecutorService executor) {
+		try {
+			while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+				// 等待
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
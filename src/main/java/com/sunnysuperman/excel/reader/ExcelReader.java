@@ -1,10 +1,23 @@
 package com.sunnysuperman.excel.reader;
 
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.Row;
@@ -13,8 +26,17 @@ import org.apache.poi.ss.usermodel.Workbook;
 
 import com.sunnysuperman.commons.util.FileUtil;
 import com.sunnysuperman.commons.util.StringUtil;
+import com.sunnysuperman.excel.CellDateFormatter;
+import com.sunnysuperman.excel.DateStyleCache;
+import com.sunnysuperman.excel.ExcelCellType;
 import com.sunnysuperman.excel.ExcelException;
 import com.sunnysuperman.excel.ExcelUtils;
+import com.sunnysuperman.excel.RawCell;
+import com.sunnysuperman.excel.RawRow;
+import com.sunnysuperman.excel.RawRowSource;
+import com.sunnysuperman.excel.csv.CsvRowSource;
+import com.sunnysuperman.excel.xlsx.XlsxPackage;
+import com.sunnysuperman.excel.xlsx.XlsxSheetChunks;
 
 public class ExcelReader {
 	private File file; // 读取文件
@@ -25,6 +47,33 @@ public class ExcelReader {
 	private int[] columnIndexes;
 	private Workbook workbook; // 原始工作簿
 	private Workbook copyWorkbook; // 拷贝工作簿
+	private XlsxPackage xlsxPackage; // 内置引擎读取的xlsx文件包
+	private int sheetIndex; // 内置引擎读取的表格序号
+	private RawRowSource rowSource; // 内置引擎或CSV行数据源
+	private XlsxSheetChunks chunks; // 内置引擎多线程解析时按行切分的表格
+	private volatile boolean parseStopped; // 停止解析尚未解析完的块（多线程解析）
+	private ExcelRowView rowView; // 复用的行视图（RowViewHandler时使用）
+	private ExcelColumnRules[] rules; // 编译好的列校验规则，都没有规则为null
+	private int[] uniqueColumns; // 唯一列的下标，没有唯一列为null
+	private ExcelUniqueIndex[] uniqueIndexes; // 各唯一列的索引（按列定义的下标）
+	private ExcelRowErrors rowErrors; // 复用的错误列（Map方式时使用）
+	private BitSet blankColumns; // 复用的空白单元格列（Map方式且有唯一列时使用）
+	private final DateStyleCache dateStyleCache = new DateStyleCache(); // 日期样式缓存（POI引擎）
+	private CellDateFormatter dateFormatter; // 日期转字符串格式化器
+	private ExcelAnnotations annotations; // RAW拷贝方式追加的单元格
+	private int headerRowNum = -1; // 表头行号（多行表头为最后一行）
+	private ExcelHeaderIndex headerIndex; // 表头索引（读取表头时使用）
+	private int estimatedRowsNum = -1; // 估算的数据行数（不含表头），未知为-1
+	private int readRowsNum; // 已读数据行数
+	private int startRowNum; // 开始读取的数据行行号（起始行或检查点之后的行）
+	private int nextRowNum; // 下一个读取的数据行行号，之前的行（起始行之前、抽样间隔内）跳过
+	private int lastRowIndex = -1; // 最后处理的数据行行号
+	private String fingerprint; // 文件指纹（断点续读时使用）
+	private ExcelCheckpoint resumedCheckpoint; // 继续读取的检查点
+	private volatile int checkpointRowsNum; // 上次保存检查点时已处理的数据行数
+	private ExcelReaderMetrics metrics; // 读取指标回调，为null时不统计（不计时）
+	private long markNanos; // 上一行处理完的时间
+	private int rowCellsNum; // 当前行解码的单元格数（行视图）
 
 	public ExcelReader(File file, ExcelReaderOptions options) {
 		super();
@@ -38,26 +87,101 @@ public class ExcelReader {
 		this.options = options;
 	}
 
+	/** 读取已打开的xlsx文件包中的指定表格（文件包由调用方关闭） **/
+	ExcelReader(XlsxPackage xlsxPackage, int sheetIndex, ExcelReaderOptions options) {
+		super();
+		this.xlsxPackage = xlsxPackage;
+		this.sheetIndex = sheetIndex;
+		this.options = options;
+	}
+
 	private void loadSheet() throws ExcelException {
+		if (options.getParallelism() > 1) {
+			checkParallel();
+		}
 		if (sheet != null) {
 			return;
 		}
+		if (options.getCsvFormat() != null) {
+			if (file == null) {
+				throw new IllegalArgumentException("file");
+			}
+			if (options.isCopy()) {
+				throw new IllegalArgumentException("copy");
+			}
+			rowSource = CsvRowSource.open(file, options.getCsvFormat());
+			return;
+		}
+		boolean rawCopy = options.isCopy() && options.getCopyMode() == ExcelCopyMode.RAW;
+		if (rawCopy) {
+			if (file == null) {
+				throw new IllegalArgumentException("file");
+			}
+			annotations = new ExcelAnnotations(options.getAnnotationBufferSize());
+		}
+		if (xlsxPackage != null) {
+			openXlsxSheet();
+			return;
+		}
+		if (options.getEngine() == ExcelReaderEngine.NATIVE) {
+			if (options.isCopy() && !rawCopy) {
+				throw new IllegalArgumentException("copy");
+			}
+			xlsxPackage = XlsxPackage.open(file, options.getSharedStringsCacheSize());
+			openXlsxSheet();
+			return;
+		}
 		if (options.isStreaming() && options.getStreamingRowCacheSize() <= 0) {
 			throw new IllegalArgumentException("streamingRowCacheSize");
 		}
-		workbook = ExcelUtils.loadWorkbook(file, options.isStreaming() ? options.getStreamingRowCacheSize() : 0);
+		workbook = ExcelUtils.loadWorkbook(file, options.isStreaming() ? options.getStreamingRowCacheSize() : 0,
+				options.getSharedStringsCacheSize());
 		sheet = ExcelUtils.ensureSheet(workbook, 0);
 
-		if (options.isCopy() && copySheet == null) {
+		if (options.isCopy() && !rawCopy && copySheet == null) {
 			copyWorkbook = options.getCopyRowCacheSize() == 0 ? ExcelUtils.newWorkbook()
 					: ExcelUtils.newWorkbook(options.getCopyRowCacheSize());
 			copySheet = ExcelUtils.ensureSheet(copyWorkbook, 0);
 		}
 	}
 
+	/** 多线程解析只支持内置引擎读取xlsx文件 **/
+	private void checkParallel() {
+		if (sheet != null || options.getCsvFormat() != null
+				|| (xlsxPackage == null && options.getEngine() != ExcelReaderEngine.NATIVE)) {
+			throw new IllegalArgumentException("parallelism");
+		}
+		if (options.getSampleInterval() > 1) {
+			throw new IllegalArgumentException("sampleInterval");
+		}
+		if (!options.isParallelOrdered() && options.getCheckpointStore() != null) {
+			throw new IllegalArgumentException("checkpointStore");
+		}
+		// 不按顺序时行按解析完成的顺序检查唯一列，首次出现的行不确定
+		if (!options.isParallelOrdered() && options.getColumns() != null) {
+			for (ExcelColumn column : options.getColumns()) {
+				if (column.isUnique()) {
+					throw new IllegalArgumentException("unique");
+				}
+			}
+		}
+	}
+
+	private void openXlsxSheet() throws ExcelException {
+		if (options.getParallelism() > 1) {
+			chunks = xlsxPackage.splitSheet(sheetIndex, options.getParallelChunkSize());
+		} else {
+			rowSource = xlsxPackage.openSheet(sheetIndex);
+		}
+	}
+
 	public void read() throws ExcelException, HandlerException {
+		metrics = options.getMetrics() == ExcelReaderMetrics.NOOP ? null : options.getMetrics();
+		long startNanos = metrics == null ? 0 : System.nanoTime();
 		boolean ok = false;
 		try {
+			startRowNum = toRowNum(options.getStartRowIndex());
+			loadCheckpoint();
 			// 准备表格
 			loadSheet();
 			// 读取
@@ -68,20 +192,59 @@ public class ExcelReader {
 				// 如果出错了，关闭自动生成的拷贝工作簿，否则不关闭（另有用途，如写入到文件等）
 				FileUtil.close(copyWorkbook);
 			}
+			if (!ok && annotations != null) {
+				annotations.close();
+			}
 			// 原始工作簿，需要关闭（如果是传入sheet的不关闭，交由调用方自己关闭）
 			if (workbook != null && file != null) {
 				FileUtil.close(workbook);
 			}
+			FileUtil.close(rowSource);
+			FileUtil.close(chunks);
+			if (xlsxPackage != null && file != null) {
+				FileUtil.close(xlsxPackage);
+			}
+			if (metrics != null) {
+				long bytesRead = rowSource == null ? -1 : rowSource.getBytesRead();
+				try {
+					metrics.onEnd(this, chunks == null ? bytesRead : chunks.getLength(), System.nanoTime() - startNanos,
+							ok);
+				} catch (RuntimeException e) {
+					// 读取指标出错不影响读取结果（也不覆盖读取时的异常）
+				}
+			}
 		}
 	}
 
 	private void doRead() throws ExcelException, HandlerException {
 		// 开始
-		boolean streaming = options.isStreaming();
 		Handler handler = options.getHandler();
+		dateFormatter = CellDateFormatter.of(options.getDateFormat(), options.getTimeZone());
+		rules = ExcelColumnRules.compile(options.getColumns(), dateFormatter);
+		initUniqueColumns();
+		if (handler instanceof RowViewHandler) {
+			rowView = new ExcelRowView(options.getColumns());
+		} else {
+			rowErrors = new ExcelRowErrors(options.getColumns());
+			if (uniqueColumns != null) {
+				blankColumns = new BitSet(options.getColumns().length);
+			}
+		}
+		if (chunks != null) {
+			doReadParallel(handler);
+			return;
+		}
+		if (rowSource != null) {
+			doReadRaw(handler);
+			return;
+		}
+		boolean streaming = options.isStreaming();
 		int firstRow = streaming ? 0 : sheet.getFirstRowNum();
 		int lastRow = streaming ? -1 : sheet.getLastRowNum();
-		boolean ok = handler.onStart(this, lastRow - firstRow);
+		estimatedRowsNum = toRangeRowsNum(streaming ? estimateRowsNum(handler) : lastRow - firstRow + 1,
+				firstRow + options.getHeaderRowsNum());
+		checkRowsNum(estimatedRowsNum);
+		boolean ok = handler.onStart(this, estimatedRowsNum);
 		if (!ok) {
 			return;
 		}
@@ -91,7 +254,7 @@ public class ExcelReader {
 				if (row != null) {
 					if (columnIndexes == null) {
 						columnIndexes = readHeader(row);
-					} else {
+					} else if (row.getRowNum() >= nextRowNum) {
 						ok = readRow(row);
 					}
 					if (!ok) {
@@ -100,8 +263,15 @@ public class ExcelReader {
 				}
 			}
 		} else {
-			columnIndexes = readHeader(sheet.getRow(firstRow));
-			for (int i = firstRow + 1; i <= lastRow; i++) {
+			int i = firstRow;
+			while (columnIndexes == null && i <= lastRow) {
+				Row row = sheet.getRow(i++);
+				if (row != null) {
+					columnIndexes = readHeader(row);
+				}
+			}
+			// 直接跳到下一个读取的行
+			for (i = Math.max(i, nextRowNum); i <= lastRow; i = Math.max(i + 1, nextRowNum)) {
 				Row row = sheet.getRow(i);
 				if (row != null) {
 					ok = readRow(row);
@@ -113,55 +283,579 @@ public class ExcelReader {
 		}
 		// 结束
 		handler.onEnd(this);
+		endCheckpoint(ok);
 	}
 
-	private int[] readHeader(Row row) throws ExcelException, HandlerException {
+	private void doReadRaw(Handler handler) throws ExcelException, HandlerException {
+		estimatedRowsNum = toRangeRowsNum(estimateRowsNum(handler), options.getHeaderRowsNum());
+		checkRowsNum(estimatedRowsNum);
+		boolean ok = handler.onStart(this, estimatedRowsNum);
+		if (!ok) {
+			return;
+		}
+		// 逐行读取数据
+		RawRow row = new RawRow();
+		while (rowSource.nextRow(row)) {
+			if (columnIndexes == null) {
+				columnIndexes = readHeader(row);
+			} else if (row.getRowNum() >= nextRowNum) {
+				ok = readRow(row);
+			}
+			if (!ok) {
+				break;
+			}
+		}
+		// 结束
+		handler.onEnd(this);
+		endCheckpoint(ok);
+	}
+
+	/** 多线程解析：按顺序读取开头的块直到表头读完，之后的行按块在ForkJoinPool中解析及转换，读取线程逐行交给Handler **/
+	private void doReadParallel(Handler handler) throws ExcelException, HandlerException {
+		estimatedRowsNum = toRangeRowsNum(estimateRowsNum(handler), options.getHeaderRowsNum());
+		checkRowsNum(estimatedRowsNum);
+		boolean ok = handler.onStart(this, estimatedRowsNum);
+		if (!ok) {
+			return;
+		}
+		// 表头（表头读完的块从表头之后的行开始解析）
+		int first = 0;
+		RawRow row = new RawRow();
+		while (columnIndexes == null && first < chunks.size()) {
+			rowSource = chunks.openChunk(first);
+			try {
+				while (columnIndexes == null && rowSource.nextRow(row)) {
+					columnIndexes = readHeader(row);
+				}
+			} finally {
+				FileUtil.close(rowSource);
+				rowSource = null;
+			}
+			if (columnIndexes == null) {
+				first++;
+			}
+		}
+		// 跳过都在开始读取的行之前的块
+		while (first + 1 < chunks.size() && chunks.getFirstRowNum(first + 1) <= nextRowNum) {
+			first++;
+		}
+		ForkJoinPool pool = new ForkJoinPool(options.getParallelism());
+		try {
+			ok = readChunks(pool, first);
+		} finally {
+			// 中途停止或出错时，让解析中的块尽快结束
+			parseStopped = true;
+			pool.shutdown();
+			try {
+				pool.awaitTermination(1, TimeUnit.MINUTES);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		// 结束
+		handler.onEnd(this);
+		endCheckpoint(ok);
+	}
+
+	/** 从第first块开始提交解析（最多2倍线程数的块在排队或解析中），按顺序或按完成顺序取出解析的行交给Handler **/
+	private boolean readChunks(ForkJoinPool pool, int first) throws ExcelException, HandlerException {
+		boolean ordered = options.isParallelOrdered();
+		CompletionService<List<ParsedRow>> completion = ordered ? null : new ExecutorCompletionService<>(pool);
+		Deque<Future<List<ParsedRow>>> pending = new ArrayDeque<>();
+		int maxPending = options.getParallelism() * 2;
+		int firstRowNum = nextRowNum;
+		int next = first;
+		while (true) {
+			while (next < chunks.size() && pending.size() < maxPending) {
+				int index = next++;
+				Callable<List<ParsedRow>> task = () -> parseChunk(index, firstRowNum);
+				pending.add(ordered ? pool.submit(task) : completion.submit(task));
+			}
+			if (pending.isEmpty()) {
+				return true;
+			}
+			Future<List<ParsedRow>> future;
+			try {
+				future = ordered ? pending.peek() : completion.take();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new HandlerException(e);
+			}
+			pending.remove(future);
+			for (ParsedRow parsed : getChunkRows(future)) {
+				if (!readRow(parsed)) {
+					return false;
+				}
+			}
+		}
+	}
+
+	/** 在线程池中解析一块：只解码映射到的列并按列类型转换 **/
+	private List<ParsedRow> parseChunk(int index, int firstRowNum) throws ExcelException {
+		List<ParsedRow> rows = new ArrayList<>();
+		boolean useRowView = options.getHandler() instanceof RowViewHandler;
+		ExcelColumnRules[] chunkRules = ExcelColumnRules.copyOf(rules);
+		RawRowSource source = chunks.openChunk(index);
+		try {
+			source.setProjection(columnIndexes);
+			source.skipTo(firstRowNum);
+			RawRow row = new RawRow();
+			while (!parseStopped && source.nextRow(row)) {
+				ParsedRow parsed = new ParsedRow(row.getRowNum());
+				if (useRowView) {
+					parsed.view = new ExcelRowView(options.getColumns());
+					parsed.cellsNum = readRowView(parsed.view, row, chunkRules);
+				} else {
+					parsed.data = new HashMap<>();
+					if (uniqueColumns != null) {
+						parsed.blanks = new BitSet(options.getColumns().length);
+					}
+					parsed.errors = readRow(parsed.data, row, null, chunkRules, parsed.blanks);
+				}
+				rows.add(parsed);
+			}
+		} finally {
+			FileUtil.close(source);
+		}
+		return rows;
+	}
+
+	/** 等待一块解析完成，返回解析的行 **/
+	private List<ParsedRow> getChunkRows(Future<List<ParsedRow>> future) throws ExcelException, HandlerException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new HandlerException(e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof ExcelException) {
+				throw (ExcelException) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new ExcelException(ExcelException.ERROR_NOT_AN_EXCEL_FILE);
+		}
+	}
+
+	/**
+	 * 流式读取时估算行数（含表头）：xlsx取表格的dimension（开启rowsNumScan时没有则扫描行标签），CSV开启rowsNumScan时统计行数。
+	 * 
+	 * 仅在限制了最大行数或Handler需要（覆盖了onStart或回调onProgress）时估算，否则为-1
+	 **/
+	private int estimateRowsNum(Handler handler) throws ExcelException {
+		if (options.getMaxRowsNum() <= 0 && !overrides(handler, "onStart", ExcelReader.class, int.class)
+				&& (options.getProgressInterval() <= 0
+						|| !overrides(handler, "onProgress", ExcelReader.class, int.class, int.class))) {
+			return -1;
+		}
+		int rowsNum = -1;
+		if (options.getCsvFormat() != null) {
+			if (options.isRowsNumScan()) {
+				rowsNum = CsvRowSource.countLines(file);
+			}
+		} else if (xlsxPackage != null) {
+			rowsNum = xlsxPackage.getRowsNum(sheetIndex, options.isRowsNumScan());
+		} else if (file != null) {
+			// POI流式读取：另外打开文件包读取表格开头的dimension
+			try (XlsxPackage xlsx = XlsxPackage.open(file)) {
+				rowsNum = xlsx.getRowsNum(0, options.isRowsNumScan());
+			} catch (ExcelException e) {
+				rowsNum = -1;
+			}
+		}
+		return rowsNum > 0 ? rowsNum : -1;
+	}
+
+	/** Handler是否覆盖了接口的默认方法 **/
+	private static boolean overrides(Handler handler, String name, Class<?>... parameterTypes) {
+		try {
+			return handler.getClass().getMethod(name, parameterTypes).getDeclaringClass() != Handler.class;
+		} catch (NoSuchMethodException e) {
+			return true;
+		}
+	}
+
+	/** 有检查点时（文件指纹需一致）从检查点之后的数据行继续读取 **/
+	private void loadCheckpoint() throws ExcelException, HandlerException {
+		ExcelCheckpointStore store = options.getCheckpointStore();
+		if (store == null) {
+			return;
+		}
+		if (file == null) {
+			throw new IllegalArgumentException("file");
+		}
+		try {
+			fingerprint = ExcelCheckpoint.fingerprint(file);
+		} catch (IOException e) {
+			throw new ExcelException(ExcelException.ERROR_NOT_AN_EXCEL_FILE);
+		}
+		ExcelCheckpoint checkpoint;
+		try {
+			checkpoint = store.load();
+		} catch (IOException e) {
+			throw new HandlerException(e);
+		}
+		if (checkpoint == null) {
+			return;
+		}
+		if (!fingerprint.equals(checkpoint.getFingerprint())) {
+			throw new ExcelException(ExcelException.ERROR_CHECKPOINT_NOT_MATCH, checkpoint.getFingerprint(),
+					fingerprint);
+		}
+		resumedCheckpoint = checkpoint;
+		startRowNum = Math.max(startRowNum, toRowNum(checkpoint.getRowIndex()) + 1);
+		lastRowIndex = checkpoint.getRowIndex();
+		readRowsNum = checkpoint.getRowsNum();
+		checkpointRowsNum = readRowsNum;
+	}
+
+	/**
+	 * 保存检查点：rowIndex（同onData的rowIndex）及之前的数据行都已处理完，共rowsNum行。未设置检查点存储或距上次保存不足checkpointInterval行时忽略。
+	 *
+	 * 批处理器每批处理完后自动调用，可在任意线程调用（需按顺序）
+	 */
+	public void saveCheckpoint(int rowIndex, int rowsNum) throws HandlerException {
+		ExcelCheckpointStore store = options.getCheckpointStore();
+		if (store == null || rowsNum - checkpointRowsNum < options.getCheckpointInterval()) {
+			return;
+		}
+		try {
+			store.save(new ExcelCheckpoint(fingerprint, rowIndex, rowsNum));
+		} catch (IOException e) {
+			throw new HandlerException(e);
+		}
+		checkpointRowsNum = rowsNum;
+	}
+
+	/** Handler.onEnd后（读取的行都已处理完）：读完整个表格时清除检查点，中途停止（如读满limitRowsNum行）时保存检查点 **/
+	private void endCheckpoint(boolean completed) throws HandlerException {
+		ExcelCheckpointStore store = options.getCheckpointStore();
+		if (store == null) {
+			return;
+		}
+		try {
+			if (completed) {
+				store.clear();
+			} else if (readRowsNum > checkpointRowsNum) {
+				store.save(new ExcelCheckpoint(fingerprint, lastRowIndex, readRowsNum));
+				checkpointRowsNum = readRowsNum;
+			}
+		} catch (IOException e) {
+			throw new HandlerException(e);
+		}
+	}
+
+	/** 按读取范围（起始行、抽样间隔、最多读取行数）折算估算的数据行数 **/
+	private int toRangeRowsNum(int rowsNum, int firstDataRowNum) {
+		if (rowsNum < 0) {
+			return -1;
+		}
+		// 去掉表头行
+		rowsNum = Math.max(rowsNum - options.getHeaderRowsNum(), 0);
+		int skippedRowsNum = Math.max(startRowNum - firstDataRowNum, 0);
+		int interval = options.getSampleInterval();
+		// 继续读取时含检查点之前已处理的行
+		rowsNum = readRowsNum + (Math.max(rowsNum - skippedRowsNum, 0) + interval - 1) / interval;
+		int limit = options.getLimitRowsNum();
+		return limit > 0 ? Math.min(rowsNum, limit) : rowsNum;
+	}
+
+	private void checkRowsNum(int rowsNum) throws ExcelException {
+		if (options.getMaxRowsNum() > 0 && rowsNum > options.getMaxRowsNum()) {
+			throw new ExcelException(ExcelException.ERROR_TOO_MANY_ROWS, rowsNum);
+		}
+	}
+
+	/** 交给Handler处理一行（行视图时data为null），统计解析及处理耗时 **/
+	private boolean handleRow(Map<String, Object> data, int rowIndex, ExcelRowErrors errors, BitSet blanks)
+			throws HandlerException {
+		if (uniqueColumns != null) {
+			errors = checkUnique(data, rowIndex, errors, blanks);
+		}
+		long parsedNanos = 0;
+		if (metrics != null) {
+			parsedNanos = System.nanoTime();
+			metrics.onRowParsed(this, data == null ? rowCellsNum : data.size(), parsedNanos - markNanos);
+			reportErrors(errors);
+		}
 		Handler handler = options.getHandler();
+		boolean ok = data == null ? ((RowViewHandler) handler).onRow(this, rowView)
+				: handler.onData(this, data, rowIndex, errors);
+		lastRowIndex = rowIndex;
+		onRowRead();
+		if (metrics != null) {
+			markNanos = System.nanoTime();
+			metrics.onRowHandled(this, markNanos - parsedNanos);
+		}
+		return ok;
+	}
+
+	private void initUniqueColumns() {
 		ExcelColumn[] columns = options.getColumns();
-		int[] indexes = new int[columns.length];
-		if (options.isColumnsInOrder()) {
-			for (int i = 0; i < columns.length; i++) {
-				Cell cell = row.getCell(i);
-				String cellValue = null;
-				if (cell != null) {
-					try {
-						cellValue = cell.getStringCellValue();
-					} catch (Exception ex) {
-						// ignore
-					}
+		int n = 0;
+		for (ExcelColumn column : columns) {
+			if (column.isUnique()) {
+				n++;
+			}
+		}
+		if (n == 0) {
+			return;
+		}
+		uniqueColumns = new int[n];
+		uniqueIndexes = new ExcelUniqueIndex[columns.length];
+		n = 0;
+		for (int k = 0; k < columns.length; k++) {
+			if (columns[k].isUnique()) {
+				uniqueColumns[n++] = k;
+			}
+		}
+	}
+
+	/**
+	 * 检查唯一列：非空且没有出错的值与之前交给Handler的行重复时记为DUPLICATE（读取线程中按行顺序检查，多线程解析只支持按顺序交给Handler，结果与单线程一致）。
+	 * 
+	 * Map方式时blanks为单元格不存在、为空或数值不能解析的列（数值列的值为0）
+	 **/
+	private ExcelRowErrors checkUnique(Map<String, Object> data, int rowIndex, ExcelRowErrors errors, BitSet blanks) {
+		ExcelColumn[] columns = options.getColumns();
+		for (int k : uniqueColumns) {
+			long fingerprint;
+			if (data == null) {
+				if (rowView.isNull(k) || (rowView.getColumn(k).getType() == ExcelCellType.STRING
+						&& ExcelColumnRules.isBlank(rowView.getString(k)))) {
+					continue;
 				}
-				if (cellValue == null || !cellValue.equals(columns[i].getTitle())) {
-					throw new ExcelException(ExcelException.ERROR_COLUMN_NOT_MATCH, i);
+				fingerprint = rowView.fingerprint(k);
+			} else {
+				Object value = data.get(columns[k].getKey());
+				if (value == null || blanks.get(k) || (errors != null && errors.isError(k))
+						|| (value instanceof String && ExcelColumnRules.isBlank((String) value))) {
+					continue;
 				}
-				indexes[i] = i;
+				fingerprint = ExcelUniqueIndex.fingerprint(value);
 			}
-		} else {
-			for (int i = 0; i < columns.length; i++) {
-				int index = findCellIndex(row, columns[i]);
-				if (index < 0) {
-					throw new ExcelException(ExcelException.ERROR_COULD_NOT_FIND_COLUMN, i);
+			if (uniqueIndexes[k] == null) {
+				uniqueIndexes[k] = new ExcelUniqueIndex(Math.max(estimatedRowsNum, 0));
+			}
+			int firstRowIndex = uniqueIndexes[k].putIfAbsent(fingerprint, rowIndex);
+			if (firstRowIndex < 0) {
+				continue;
+			}
+			if (data == null) {
+				rowView.setDuplicate(k, firstRowIndex);
+			} else {
+				if (errors == null) {
+					// 没有其它错误的行（含多线程解析的行）用复用的错误列
+					rowErrors.reset();
+					errors = rowErrors;
+				}
+				errors.setDuplicate(k, firstRowIndex);
+			}
+		}
+		return errors;
+	}
+
+	private void reportErrors(ExcelRowErrors errors) {
+		if (errors != null) {
+			for (int i = 0; i < errors.size(); i++) {
+				reportError(errors.get(i), errors.getErrorAt(i));
+			}
+		} else if (rowView != null && rowView.hasError()) {
+			for (int k = 0; k < rowView.size(); k++) {
+				if (rowView.isError(k)) {
+					reportError(rowView.getColumn(k), rowView.getError(k));
 				}
-				indexes[i] = index;
 			}
 		}
+	}
+
+	private void reportError(ExcelColumn column, ExcelCellError error) {
+		if (error == ExcelCellError.TYPE) {
+			metrics.onConversionError(this, column);
+		} else {
+			metrics.onValidationError(this, column, error);
+		}
+	}
+
+	private void markTime() {
+		if (metrics != null) {
+			markNanos = System.nanoTime();
+		}
+	}
+
+	private void onRowRead() throws HandlerException {
+		readRowsNum++;
+		int interval = options.getProgressInterval();
+		if (interval > 0 && readRowsNum % interval == 0) {
+			options.getHandler().onProgress(this, readRowsNum, estimatedRowsNum);
+		}
+	}
+
+	/** 读取一行表头，表头读完时返回各列对应的单元格序号，否则返回null **/
+	private int[] readHeader(Row row) throws ExcelException, HandlerException {
 		if (copySheet != null) {
 			copyRow(row, true);
 		}
-		handler.onHeaderRead(this, row);
+		if (!addHeaderRow(new PoiHeaderRow(row))) {
+			return null;
+		}
+		int[] indexes = headerIndex.match(options.getColumns(), options.isColumnsInOrder());
+		headerRowNum = row.getRowNum();
+		skipTo(Math.max(headerRowNum + 1, startRowNum));
+		options.getHandler().onHeaderRead(this, row);
+		markTime();
+		return indexes;
+	}
+
+	private int[] readHeader(RawRow row) throws ExcelException, HandlerException {
+		if (!addHeaderRow(new RawHeaderRow(row))) {
+			return null;
+		}
+		int[] indexes = headerIndex.match(options.getColumns(), options.isColumnsInOrder());
+		headerRowNum = row.getRowNum();
+		// 只解码映射到的列
+		rowSource.setProjection(indexes);
+		skipTo(Math.max(headerRowNum + 1, startRowNum));
+		options.getHandler().onHeaderRead(this, null);
+		markTime();
 		return indexes;
 	}
 
-	private boolean readRow(Row row) throws HandlerException {
+	/** 表头各单元格只转换一次，加入表头索引，返回表头是否已读完 **/
+	private boolean addHeaderRow(HeaderRow row) throws ExcelException {
+		if (headerIndex == null) {
+			headerIndex = new ExcelHeaderIndex(options.getHeaderRowsNum());
+		}
+		int lastCell = Math.max(row.getLastCellNum(), 0);
+		String[] titles = new String[lastCell];
+		String[] rawValues = new String[lastCell];
+		for (int i = Math.max(row.getFirstCellNum(), 0); i < lastCell; i++) {
+			try {
+				titles[i] = row.getTitle(i);
+			} catch (ExcelException e) {
+				// 公式、布尔值等单元格视为没有标题，只有对应的列匹配不上时才报错
+				titles[i] = null;
+			}
+			rawValues[i] = row.getStringValue(i);
+		}
+		return headerIndex.addRow(titles, rawValues);
+	}
+
+	private boolean readRow(Row row) throws ExcelException, HandlerException {
 		if (row == null) {
 			return true;
 		}
+		checkRowsNum(readRowsNum + 1);
 		if (copySheet != null) {
 			copyRow(row, false);
 		}
-		Map<String, Object> data = new HashMap<>();
-		List<ExcelColumn> errorColumns = readRow(data, row);
-		return options.getHandler().onData(this, data,
-				options.isFirstRowNumAsOne() ? row.getRowNum() + 1 : row.getRowNum(), errorColumns);
+		boolean ok;
+		if (rowView != null) {
+			readRowView(row);
+			ok = handleRow(null, rowView.getRowIndex(), null, null);
+		} else {
+			Map<String, Object> data = new HashMap<>();
+			rowErrors.reset();
+			readRow(data, row, rowErrors, rules, blankColumns);
+			ok = handleRow(data, toRowIndex(row.getRowNum()), rowErrors.isEmpty() ? null : rowErrors, blankColumns);
+		}
+		return ok && nextRow(row.getRowNum());
+	}
+
+	private boolean readRow(RawRow row) throws ExcelException, HandlerException {
+		checkRowsNum(readRowsNum + 1);
+		boolean ok;
+		if (rowView != null) {
+			rowCellsNum = readRowView(rowView, row, rules);
+			ok = handleRow(null, rowView.getRowIndex(), null, null);
+		} else {
+			Map<String, Object> data = new HashMap<>();
+			rowErrors.reset();
+			readRow(data, row, rowErrors, rules, blankColumns);
+			ok = handleRow(data, toRowIndex(row.getRowNum()), rowErrors.isEmpty() ? null : rowErrors, blankColumns);
+		}
+		return ok && nextRow(row.getRowNum());
+	}
+
+	/** 多线程解析好的行（读取线程中调用） **/
+	private boolean readRow(ParsedRow row) throws ExcelException, HandlerException {
+		checkRowsNum(readRowsNum + 1);
+		boolean ok;
+		if (row.view != null) {
+			rowView = row.view;
+			rowCellsNum = row.cellsNum;
+			ok = handleRow(null, rowView.getRowIndex(), null, null);
+		} else {
+			ok = handleRow(row.data, toRowIndex(row.rowNum), row.errors, row.blanks);
+		}
+		return ok && nextRow(row.rowNum);
+	}
+
+	/** 一行读完：读满limitRowsNum行时返回false停止读取，否则按抽样间隔确定下一个读取的行 **/
+	private boolean nextRow(int rowNum) {
+		int limit = options.getLimitRowsNum();
+		if (limit > 0 && readRowsNum >= limit) {
+			return false;
+		}
+		if (options.getSampleInterval() > 1) {
+			skipTo(rowNum + options.getSampleInterval());
+		}
+		return true;
+	}
+
+	/** 行号小于rowNum的行跳过（内置引擎及CSV在解析层跳过，不解码单元格） **/
+	private void skipTo(int rowNum) {
+		nextRowNum = rowNum;
+		if (rowSource != null) {
+			rowSource.skipTo(rowNum);
+		}
+	}
+
+	private void readRowView(Row row) {
+		rowView.reset(toRowIndex(row.getRowNum()));
+		rowCellsNum = 0;
+		for (int k = 0; k < columnIndexes.length; k++) {
+			int index = columnIndexes[k];
+			Cell cell = index < 0 ? null : row.getCell(index);
+			if (cell != null) {
+				rowView.read(k, cell, dateStyleCache, dateFormatter);
+				rowCellsNum++;
+			}
+			if (rules != null && rules[k] != null) {
+				rowView.validate(k, rules[k]);
+			}
+		}
+	}
+
+	/** 读取到行视图并校验，返回解码的单元格数 **/
+	private int readRowView(ExcelRowView view, RawRow row, ExcelColumnRules[] rules) {
+		view.reset(toRowIndex(row.getRowNum()));
+		int cellsNum = 0;
+		for (int k = 0; k < columnIndexes.length; k++) {
+			int index = columnIndexes[k];
+			RawCell cell = index < 0 ? null : row.getCell(index);
+			if (cell != null) {
+				view.read(k, cell, dateFormatter);
+				cellsNum++;
+			}
+			if (rules != null && rules[k] != null) {
+				view.validate(k, rules[k]);
+			}
+		}
+		return cellsNum;
+	}
+
+	private int toRowIndex(int rowNum) {
+		return options.isFirstRowNumAsOne() ? rowNum + 1 : rowNum;
+	}
+
+	private int toRowNum(int rowIndex) {
+		return options.isFirstRowNumAsOne() ? rowIndex - 1 : rowIndex;
 	}
 
 	private void copyRow(Row row, boolean isHeader) throws HandlerException {
@@ -170,76 +864,296 @@ public class ExcelReader {
 		options.getHandler().onRowCopied(this, row, copyRow, isHeader);
 	}
 
-	private List<ExcelColumn> readRow(Map<String, Object> data, Row row) {
+	/**
+	 * 读取一行到data并校验，出错的列记录到errors（为null时出错才创建），返回errors。
+	 * 
+	 * blanks不为null时记录单元格不存在、为空或数值不能解析的列
+	 **/
+	private ExcelRowErrors readRow(Map<String, Object> data, Row row, ExcelRowErrors errors, ExcelColumnRules[] rules,
+			BitSet blanks) {
 		ExcelColumn[] columns = options.getColumns();
-		List<ExcelColumn> errorColumns = null;
+		if (blanks != null) {
+			blanks.clear();
+		}
 		for (int k = 0; k < columnIndexes.length; k++) {
 			int index = columnIndexes[k];
-			if (index < 0) {
-				continue;
-			}
-			Cell cell = row.getCell(index);
+			Cell cell = index < 0 ? null : row.getCell(index);
 			if (cell == null) {
+				if (blanks != null) {
+					blanks.set(k);
+				}
+				errors = validate(k, null, errors, rules);
 				continue;
 			}
 			ExcelColumn column = columns[k];
 			Object value;
 			try {
-				value = ExcelUtils.getCellValue(cell, column.getType());
+				value = ExcelUtils.getCellValue(cell, column.getType(), dateStyleCache, dateFormatter);
+				boolean blank = (blanks != null || (rules != null && rules[k] != null)) && isBlankNumber(value, cell);
+				if (blank && blanks != null) {
+					blanks.set(k);
+				}
+				// 数值列空白或不能解析的单元格（值为0）按空值校验，与行视图一致
+				errors = validate(k, blank ? null : value, errors, rules);
 			} catch (Exception ex) {
 				try {
 					value = ExcelUtils.getCellValue(cell);
 				} catch (Exception ex2) {
 					value = null;
 				}
-				if (errorColumns == null) {
-					errorColumns = new ArrayList<>(columns.length);
-				}
-				errorColumns.add(column);
+				errors = addError(errors, k, ExcelCellError.TYPE);
 			}
 			data.put(column.getKey(), value);
 		}
-		return errorColumns;
+		return errors;
 	}
 
-	private int findCellIndex(Row row, ExcelColumn column) throws ExcelException {
-		int firstCell = row.getFirstCellNum();
-		int lastCell = row.getLastCellNum();
-		for (int i = firstCell; i <= lastCell; i++) {
-			Cell cell = row.getCell(i);
+	private ExcelRowErrors readRow(Map<String, Object> data, RawRow row, ExcelRowErrors errors,
+			ExcelColumnRules[] rules, BitSet blanks) {
+		ExcelColumn[] columns = options.getColumns();
+		if (blanks != null) {
+			blanks.clear();
+		}
+		for (int k = 0; k < columnIndexes.length; k++) {
+			int index = columnIndexes[k];
+			RawCell cell = index < 0 ? null : row.getCell(index);
 			if (cell == null) {
+				if (blanks != null) {
+					blanks.set(k);
+				}
+				errors = validate(k, null, errors, rules);
 				continue;
 			}
-			String title = StringUtil.trimToEmpty(ExcelUtils.getStringCellValue(cell));
-			switch (column.getMatchMode()) {
-			case EXACTLY:
-				if (column.getTitle().equals(title)) {
-					return i;
-				}
-				break;
-			case STARTS_WITH:
-				/* XX(*) startsWith XX */
-				if (column.getTitle().startsWith(title)) {
-					return i;
-				}
-				break;
-			case FUZZY:
-				/* XY indexOf XXY */
-				if (column.getTitle().indexOf(title) >= 0) {
-					return i;
+			ExcelColumn column = columns[k];
+			Object value;
+			try {
+				value = ExcelUtils.getCellValue(cell, column.getType(), dateFormatter);
+				boolean blank = (blanks != null || (rules != null && rules[k] != null)) && isBlankNumber(value, cell);
+				if (blank && blanks != null) {
+					blanks.set(k);
 				}
-				break;
-			default:
-				break;
+				errors = validate(k, blank ? null : value, errors, rules);
+			} catch (Exception ex) {
+				value = ExcelUtils.getCellValue(cell);
+				errors = addError(errors, k, ExcelCellError.TYPE);
+			}
+			data.put(column.getKey(), value);
+		}
+		return errors;
+	}
+
+	/** 数值列的0是否为空白或不能解析的单元格转换的默认值 **/
+	private static boolean isBlankNumber(Object value, Cell cell) throws ExcelException {
+		if (!(value instanceof Number) || ((Number) value).doubleValue() != 0) {
+			return false;
+		}
+		switch (cell.getCellType()) {
+		case BLANK:
+			return true;
+		case STRING:
+			return !ExcelUtils.hasNumericCellValue(cell);
+		default:
+			return false;
+		}
+	}
+
+	private static boolean isBlankNumber(Object value, RawCell cell) throws ExcelException {
+		if (!(value instanceof Number) || ((Number) value).doubleValue() != 0) {
+			return false;
+		}
+		switch (cell.getCellType()) {
+		case BLANK:
+			return true;
+		case STRING:
+			return !ExcelUtils.hasNumericCellValue(cell);
+		default:
+			return false;
+		}
+	}
+
+	/** 按第k列的校验规则检查转换后的值（null表示单元格不存在或为空） **/
+	private ExcelRowErrors validate(int k, Object value, ExcelRowErrors errors, ExcelColumnRules[] rules) {
+		if (rules == null || rules[k] == null) {
+			return errors;
+		}
+		ExcelCellError error = rules[k].check(value);
+		return error == null ? errors : addError(errors, k, error);
+	}
+
+	private ExcelRowErrors addError(ExcelRowErrors errors, int k, ExcelCellError error) {
+		if (errors == null) {
+			errors = new ExcelRowErrors(options.getColumns());
+		}
+		errors.set(k, error);
+		return errors;
+	}
+
+	/** 多线程解析的一行（Map或独立的行视图） **/
+	private static class ParsedRow {
+		final int rowNum;
+		Map<String, Object> data;
+		ExcelRowErrors errors; // 没有出错为null
+		BitSet blanks; // 有唯一列时记录空白单元格列
+		ExcelRowView view;
+		int cellsNum;
+
+		ParsedRow(int rowNum) {
+			this.rowNum = rowNum;
+		}
+	}
+
+	/** 表头行：屏蔽POI行与原始行的差异 **/
+	private interface HeaderRow {
+
+		int getFirstCellNum();
+
+		int getLastCellNum();
+
+		/** 单元格原始字符串（非字符串单元格为null），用于按顺序精确匹配 **/
+		String getStringValue(int index);
+
+		/** 单元格标题（转字符串并去除首尾空白，单元格不存在为null，不能转字符串时抛出异常） **/
+		String getTitle(int index) throws ExcelException;
+	}
+
+	private static class PoiHeaderRow implements HeaderRow {
+		private final Row row;
+
+		PoiHeaderRow(Row row) {
+			this.row = row;
+		}
+
+		@Override
+		public int getFirstCellNum() {
+			return row.getFirstCellNum();
+		}
+
+		@Override
+		public int getLastCellNum() {
+			return row.getLastCellNum();
+		}
+
+		@Override
+		public String getStringValue(int index) {
+			Cell cell = row.getCell(index);
+			if (cell == null) {
+				return null;
+			}
+			try {
+				return cell.getStringCellValue();
+			} catch (Exception ex) {
+				return null;
 			}
 		}
-		return -1;
+
+		@Override
+		public String getTitle(int index) throws ExcelException {
+			Cell cell = row.getCell(index);
+			return cell == null ? null : StringUtil.trimToEmpty(ExcelUtils.getStringCellValue(cell));
+		}
+	}
+
+	private static class RawHeaderRow implements HeaderRow {
+		private final RawRow row;
+
+		RawHeaderRow(RawRow row) {
+			this.row = row;
+		}
+
+		@Override
+		public int getFirstCellNum() {
+			return row.getFirstCellNum();
+		}
+
+		@Override
+		public int getLastCellNum() {
+			return row.getLastCellNum();
+		}
+
+		@Override
+		public String getStringValue(int index) {
+			RawCell cell = row.getCell(index);
+			return cell == null ? null : cell.getStringCellValue();
+		}
+
+		@Override
+		public String getTitle(int index) throws ExcelException {
+			RawCell cell = row.getCell(index);
+			return cell == null ? null : StringUtil.trimToEmpty(ExcelUtils.getStringCellValue(cell));
+		}
+	}
+
+	/**
+	 * RAW拷贝方式：标注数据行（rowIndex同onData中的rowIndex）的单元格，可在任意线程、任意时刻调用。
+	 *
+	 * 标注只追加到行尾：列号需大于该行源文件中最后一个单元格的列号，否则写出时跳过
+	 **/
+	public void annotate(int rowIndex, int column, Object value) {
+		getAnnotations().set(options.isFirstRowNumAsOne() ? rowIndex - 1 : rowIndex, column, value);
+	}
+
+	/** RAW拷贝方式：标注表头行的单元格（表头读完之后调用，列号要求同annotate） **/
+	public void annotateHeader(int column, Object value) {
+		if (headerRowNum < 0) {
+			throw new IllegalStateException("header");
+		}
+		getAnnotations().set(headerRowNum, column, value);
+	}
+
+	public ExcelAnnotations getAnnotations() {
+		if (annotations == null) {
+			throw new IllegalStateException("copyMode");
+		}
+		return annotations;
+	}
+
+	/** RAW拷贝方式：读取结束后写出拷贝文件（源文件原样拷贝，标注的单元格追加到对应行尾），不关闭输出流。写出后释放标注（删除临时文件） **/
+	public void writeCopyTo(OutputStream out) throws ExcelException, IOException {
+		ExcelAnnotations cells = getAnnotations();
+		try (XlsxPackage xlsx = XlsxPackage.open(file)) {
+			xlsx.copyTo(sheetIndex, out, cells.cells());
+		} finally {
+			cells.close();
+		}
+	}
+
+	public void writeCopyTo(File copyFile) throws ExcelException, IOException {
+		try (OutputStream out = new FileOutputStream(copyFile)) {
+			writeCopyTo(out);
+		}
+	}
+
+	/** 估算的数据行数（不含表头，读取开始后可用），未知或无需估算（见Handler.onStart）为-1 **/
+	public int getEstimatedRowsNum() {
+		return estimatedRowsNum;
+	}
+
+	ExcelReaderOptions getOptions() {
+		return options;
+	}
+
+	/** 已读数据行数（继续读取时含检查点之前已处理的行） **/
+	public int getReadRowsNum() {
+		return readRowsNum;
+	}
+
+	/** 继续读取的检查点（读取开始后可用），没有为null **/
+	public ExcelCheckpoint getResumedCheckpoint() {
+		return resumedCheckpoint;
 	}
 
 	public File getFile() {
 		return file;
 	}
 
+	/** 当前读取的表格名称 **/
+	public String getSheetName() {
+		if (sheet != null) {
+			return sheet.getSheetName();
+		}
+		return xlsxPackage == null ? null : xlsxPackage.getSheetName(sheetIndex);
+	}
+
 	public Sheet getSheet() {
 		return sheet;
 	}
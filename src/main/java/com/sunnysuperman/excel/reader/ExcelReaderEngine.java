@@ -0,0 +1,11 @@
+package com.sunnysuperman.excel.reader;
+
+public enum ExcelReaderEngine {
+
+	/** POI（流式读取基于xlsx-streamer） **/
+	POI,
+
+	/** 内置xlsx解析：StAX直接解析表格及共享字符串，不创建POI的Row/Cell对象（仅支持xlsx文件） **/
+	NATIVE;
+
+}
@@ -0,0 +1,41 @@
+package com.sunnysuperman.excel.reader;
+
+/**
+ * 读取指标回调：在读取线程中按行调用，实现需尽量轻量（可参考ExcelReaderStats汇总到内存后再定时上报）。
+ *
+ * 默认NOOP不回调，读取时也不计时
+ */
+public interface ExcelReaderMetrics {
+	ExcelReaderMetrics NOOP = new ExcelReaderMetrics() {
+	};
+
+	/** 数据行解析完成(解码的单元格数，从上一行处理完到本行交给Handler前的耗时纳秒，含读取解压及类型转换) **/
+	default void onRowParsed(ExcelReader reader, int cellsNum, long parseNanos) {
+		// nope
+	}
+
+	/** 数据行处理完成(Handler.onData的耗时纳秒，含其中触发的批处理handleBatch；异步批处理只含提交及等待) **/
+	default void onRowHandled(ExcelReader reader, long handleNanos) {
+		// nope
+	}
+
+	/** 单元格按列类型转换失败 **/
+	default void onConversionError(ExcelReader reader, ExcelColumn column) {
+		// nope
+	}
+
+	/** 单元格不满足列校验规则（错误码为TYPE以外的值） **/
+	default void onValidationError(ExcelReader reader, ExcelColumn column, ExcelCellError error) {
+		// nope
+	}
+
+	/**
+	 * 读取结束（含出错）(读取的字节数：xlsx内置引擎为表格部件解压后的字节数，CSV为文件字节数，未知为-1；读取总耗时纳秒；是否成功)。
+	 * 
+	 * 抛出的运行时异常被忽略，不影响读取结果
+	 **/
+	default void onEnd(ExcelReader reader, long bytesRead, long totalNanos, boolean success) {
+		// nope
+	}
+
+}
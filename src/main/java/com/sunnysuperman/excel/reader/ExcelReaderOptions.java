@@ -1,15 +1,59 @@
 package com.sunnysuperman.excel.reader;
 
+import java.util.TimeZone;
+
+import com.sunnysuperman.commons.util.FormatUtil;
+import com.sunnysuperman.excel.csv.CsvFormat;
+
 public class ExcelReaderOptions {
+	private ExcelReaderEngine engine = ExcelReaderEngine.POI; // 读取引擎
+	private CsvFormat csvFormat; // 不为空时按CSV/TSV文本文件读取（不使用读取引擎）
 	private boolean streaming = true; // 是否用流形式
+	private int parallelism = 0; // 内置引擎多线程解析的线程数，大于1时表格按行切块并行解析
+	private boolean parallelOrdered = true; // 多线程解析时是否按行顺序交给Handler
+	private long parallelChunkSize = 2 * 1024 * 1024; // 多线程解析时每块的大小（解压后的XML字节数）
 	private int streamingRowCacheSize = 100; // 流式读取条数
+	private int sharedStringsCacheSize = 0; // 大于0时共享字符串表存放在磁盘（内置引擎为内存映射文件），内存中只缓存最近使用的这么多个字符串
 	private Handler handler; // 数据处理器
 	private ExcelColumn[] columns; // 列
 	private boolean columnsInOrder; // 列顺序是否需要保持一致
+	private int headerRowsNum = 1; // 表头行数（多行表头可按最后一行标题或各行标题用“-”连接的完整标题匹配）
 	private boolean firstRowNumAsOne; // 首行行号是否以1开始
 	private boolean copy; // 读取的同时拷贝到另一个表格里
+	private ExcelCopyMode copyMode = ExcelCopyMode.ROWS; // 拷贝方式
+	private int annotationBufferSize = ExcelAnnotations.DEFAULT_BUFFER_SIZE; // RAW拷贝方式内存中缓冲的标注条数，超过后写到临时文件
 	private boolean copyRowCache = true; // 拷贝行缓存
 	private int copyRowCacheSize = 0; // 拷贝行缓存条数：数据批处理条数+N条空数据(防止空数据过多，导致拷贝再改行数据时空指针)
+	private boolean rowsNumScan; // 流式读取时表格没有行数信息（dimension）是否扫描行标签估算行数（需额外解压一遍表格）
+	private int startRowIndex = 0; // 从这个数据行行号开始读取（同Handler.onData的rowIndex），之前的数据行在解析层跳过
+	private int limitRowsNum = 0; // 最多读取的数据行数，读满即停止读取，0为不限制
+	private int sampleInterval = 1; // 抽样间隔：读取一行后跳过行号在这个间隔内的行，1为不抽样
+	private ExcelCheckpointStore checkpointStore; // 检查点存储：不为空时从保存的检查点之后继续读取，处理过程中保存检查点
+	private int checkpointInterval = 10000; // 距上次保存至少处理了这么多数据行才保存检查点
+	private int maxRowsNum = 0; // 最多允许的数据行数（不含表头），估算行数超出时读取前即报错，0为不限制
+	private int progressInterval = 10000; // 每读这么多数据行回调一次Handler.onProgress，0为不回调
+	private ExcelReaderMetrics metrics = ExcelReaderMetrics.NOOP; // 读取指标回调（如ExcelReaderStats）
+	private String dateFormat = FormatUtil.ISO8601DATE_WITH_MILLS_FORMAT; // 日期单元格按字符串读取时的格式
+	private TimeZone timeZone; // 日期单元格按字符串读取时的时区（为空则用系统时区）
+
+	public ExcelReaderEngine getEngine() {
+		return engine;
+	}
+
+	public ExcelReaderOptions setEngine(ExcelReaderEngine engine) {
+		this.engine = engine;
+		return this;
+	}
+
+	public CsvFormat getCsvFormat() {
+		return csvFormat;
+	}
+
+	/** 按CSV/TSV文本文件读取，如CsvFormat.CSV、CsvFormat.TSV（不支持拷贝） **/
+	public ExcelReaderOptions setCsvFormat(CsvFormat csvFormat) {
+		this.csvFormat = csvFormat;
+		return this;
+	}
 
 	public boolean isStreaming() {
 		return streaming;
@@ -20,6 +64,44 @@ public class ExcelReaderOptions {
 		return this;
 	}
 
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * 内置引擎多线程解析：表格XML解压到临时文件后按行切块，在ForkJoinPool中并行解析及类型转换，Handler仍在读取线程中按行回调。
+	 * 不支持抽样（sampleInterval），不按顺序交给Handler时不支持断点续读
+	 */
+	public ExcelReaderOptions setParallelism(int parallelism) {
+		if (parallelism < 0) {
+			throw new IllegalArgumentException("parallelism");
+		}
+		this.parallelism = parallelism;
+		return this;
+	}
+
+	public boolean isParallelOrdered() {
+		return parallelOrdered;
+	}
+
+	/** 多线程解析时是否按行顺序交给Handler，否则哪块先解析完先交哪块（rowIndex仍为行号） **/
+	public ExcelReaderOptions setParallelOrdered(boolean parallelOrdered) {
+		this.parallelOrdered = parallelOrdered;
+		return this;
+	}
+
+	public long getParallelChunkSize() {
+		return parallelChunkSize;
+	}
+
+	public ExcelReaderOptions setParallelChunkSize(long parallelChunkSize) {
+		if (parallelChunkSize <= 0) {
+			throw new IllegalArgumentException("parallelChunkSize");
+		}
+		this.parallelChunkSize = parallelChunkSize;
+		return this;
+	}
+
 	public int getStreamingRowCacheSize() {
 		return streamingRowCacheSize;
 	}
@@ -29,14 +111,27 @@ public class ExcelReaderOptions {
 		return this;
 	}
 
+	public int getSharedStringsCacheSize() {
+		return sharedStringsCacheSize;
+	}
+
+	public ExcelReaderOptions setSharedStringsCacheSize(int sharedStringsCacheSize) {
+		this.sharedStringsCacheSize = sharedStringsCacheSize;
+		return this;
+	}
+
 	public Handler getHandler() {
 		return handler;
 	}
 
 	public ExcelReaderOptions setHandler(Handler handler) {
 		this.handler = handler;
-		if (handler instanceof BatchHandler && copy && copyRowCache && copyRowCacheSize <= 0) {
-			this.copyRowCacheSize = Math.round((((BatchHandler<?>) handler).getBatchNum()) * 1.2f);
+		if (copy && copyMode == ExcelCopyMode.ROWS && copyRowCache && copyRowCacheSize <= 0) {
+			if (handler instanceof BatchHandler) {
+				this.copyRowCacheSize = Math.round((((BatchHandler<?>) handler).getBatchNum()) * 1.2f);
+			} else if (handler instanceof BeanBatchHandler) {
+				this.copyRowCacheSize = Math.round((((BeanBatchHandler<?>) handler).getBatchNum()) * 1.2f);
+			}
 		}
 		return this;
 	}
@@ -59,6 +154,15 @@ public class ExcelReaderOptions {
 		return this;
 	}
 
+	public int getHeaderRowsNum() {
+		return headerRowsNum;
+	}
+
+	public ExcelReaderOptions setHeaderRowsNum(int headerRowsNum) {
+		this.headerRowsNum = headerRowsNum;
+		return this;
+	}
+
 	public boolean isFirstRowNumAsOne() {
 		return firstRowNumAsOne;
 	}
@@ -77,6 +181,26 @@ public class ExcelReaderOptions {
 		return this;
 	}
 
+	public ExcelCopyMode getCopyMode() {
+		return copyMode;
+	}
+
+	/** 设置拷贝方式（同时开启拷贝） **/
+	public ExcelReaderOptions setCopyMode(ExcelCopyMode copyMode) {
+		this.copyMode = copyMode;
+		this.copy = true;
+		return this;
+	}
+
+	public int getAnnotationBufferSize() {
+		return annotationBufferSize;
+	}
+
+	public ExcelReaderOptions setAnnotationBufferSize(int annotationBufferSize) {
+		this.annotationBufferSize = annotationBufferSize;
+		return this;
+	}
+
 	public boolean isCopyRowCache() {
 		return copyRowCache;
 	}
@@ -95,4 +219,128 @@ public class ExcelReaderOptions {
 		this.copy = true;
 		return this;
 	}
+
+	public boolean isRowsNumScan() {
+		return rowsNumScan;
+	}
+
+	public ExcelReaderOptions setRowsNumScan(boolean rowsNumScan) {
+		this.rowsNumScan = rowsNumScan;
+		return this;
+	}
+
+	public int getStartRowIndex() {
+		return startRowIndex;
+	}
+
+	/**
+	 * 从这个数据行行号开始读取（同Handler.onData的rowIndex，受firstRowNumAsOne影响），之前的行不解码、不回调Handler
+	 **/
+	public ExcelReaderOptions setStartRowIndex(int startRowIndex) {
+		if (startRowIndex < 0) {
+			throw new IllegalArgumentException("startRowIndex");
+		}
+		this.startRowIndex = startRowIndex;
+		return this;
+	}
+
+	public int getLimitRowsNum() {
+		return limitRowsNum;
+	}
+
+	/** 最多读取的数据行数（如预览前50行），读满即停止读取，0为不限制 **/
+	public ExcelReaderOptions setLimitRowsNum(int limitRowsNum) {
+		if (limitRowsNum < 0) {
+			throw new IllegalArgumentException("limitRowsNum");
+		}
+		this.limitRowsNum = limitRowsNum;
+		return this;
+	}
+
+	public int getSampleInterval() {
+		return sampleInterval;
+	}
+
+	/** 抽样：读取行号为n的行后，下一行从行号n+sampleInterval开始读取，中间的行不解码、不回调Handler **/
+	public ExcelReaderOptions setSampleInterval(int sampleInterval) {
+		if (sampleInterval <= 0) {
+			throw new IllegalArgumentException("sampleInterval");
+		}
+		this.sampleInterval = sampleInterval;
+		return this;
+	}
+
+	public ExcelCheckpointStore getCheckpointStore() {
+		return checkpointStore;
+	}
+
+	/**
+	 * 断点续读：有检查点时校验文件指纹（不一致抛出ExcelException.ERROR_CHECKPOINT_NOT_MATCH），跳过已处理的数据行继续读取；
+	 * 批处理器每批处理完后保存检查点，读完整个表格后清除。只支持按文件读取
+	 */
+	public ExcelReaderOptions setCheckpointStore(ExcelCheckpointStore checkpointStore) {
+		this.checkpointStore = checkpointStore;
+		return this;
+	}
+
+	public int getCheckpointInterval() {
+		return checkpointInterval;
+	}
+
+	public ExcelReaderOptions setCheckpointInterval(int checkpointInterval) {
+		if (checkpointInterval < 0) {
+			throw new IllegalArgumentException("checkpointInterval");
+		}
+		this.checkpointInterval = checkpointInterval;
+		return this;
+	}
+
+	public int getMaxRowsNum() {
+		return maxRowsNum;
+	}
+
+	/** 数据行数超出时抛出ExcelException.ERROR_TOO_MANY_ROWS：能估算行数时在读取前检查，读取过程中按实际行数检查 **/
+	public ExcelReaderOptions setMaxRowsNum(int maxRowsNum) {
+		this.maxRowsNum = maxRowsNum;
+		return this;
+	}
+
+	public int getProgressInterval() {
+		return progressInterval;
+	}
+
+	public ExcelReaderOptions setProgressInterval(int progressInterval) {
+		this.progressInterval = progressInterval;
+		return this;
+	}
+
+	public ExcelReaderMetrics getMetrics() {
+		return metrics;
+	}
+
+	public ExcelReaderOptions setMetrics(ExcelReaderMetrics metrics) {
+		if (metrics == null) {
+			throw new IllegalArgumentException("metrics");
+		}
+		this.metrics = metrics;
+		return this;
+	}
+
+	public String getDateFormat() {
+		return dateFormat;
+	}
+
+	public ExcelReaderOptions setDateFormat(String dateFormat) {
+		this.dateFormat = dateFormat;
+		return this;
+	}
+
+	public TimeZone getTimeZone() {
+		return timeZone;
+	}
+
+	public ExcelReaderOptions setTimeZone(TimeZone timeZone) {
+		this.timeZone = timeZone;
+		return this;
+	}
 }
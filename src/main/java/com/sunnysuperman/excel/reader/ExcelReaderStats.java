@@ -0,0 +1,135 @@
+package com.sunnysuperman.excel.reader;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 内存中的读取指标汇总：线程安全，可在多次（多线程）读取间共享，定时取值上报到监控
+ */
+public class ExcelReaderStats implements ExcelReaderMetrics {
+	private final LongAdder readsNum = new LongAdder();
+	private final LongAdder failedReadsNum = new LongAdder();
+	private final LongAdder rowsNum = new LongAdder();
+	private final LongAdder cellsNum = new LongAdder();
+	private final LongAdder parseNanos = new LongAdder();
+	private final LongAdder handleNanos = new LongAdder();
+	private final LongAdder totalNanos = new LongAdder();
+	private final LongAdder bytesRead = new LongAdder();
+	private final ConcurrentMap<String, LongAdder> conversionErrors = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, LongAdder> validationErrors = new ConcurrentHashMap<>();
+
+	@Override
+	public void onRowParsed(ExcelReader reader, int cellsNum, long parseNanos) {
+		this.rowsNum.increment();
+		this.cellsNum.add(cellsNum);
+		this.parseNanos.add(parseNanos);
+	}
+
+	@Override
+	public void onRowHandled(ExcelReader reader, long handleNanos) {
+		this.handleNanos.add(handleNanos);
+	}
+
+	@Override
+	public void onConversionError(ExcelReader reader, ExcelColumn column) {
+		conversionErrors.computeIfAbsent(column.getKey(), key -> new LongAdder()).increment();
+	}
+
+	@Override
+	public void onValidationError(ExcelReader reader, ExcelColumn column, ExcelCellError error) {
+		validationErrors.computeIfAbsent(column.getKey(), key -> new LongAdder()).increment();
+	}
+
+	@Override
+	public void onEnd(ExcelReader reader, long bytesRead, long totalNanos, boolean success) {
+		readsNum.increment();
+		if (!success) {
+			failedReadsNum.increment();
+		}
+		if (bytesRead > 0) {
+			this.bytesRead.add(bytesRead);
+		}
+		this.totalNanos.add(totalNanos);
+	}
+
+	/** 结束的读取次数 **/
+	public long getReadsNum() {
+		return readsNum.sum();
+	}
+
+	public long getFailedReadsNum() {
+		return failedReadsNum.sum();
+	}
+
+	public long getRowsNum() {
+		return rowsNum.sum();
+	}
+
+	public long getCellsNum() {
+		return cellsNum.sum();
+	}
+
+	public long getParseMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(parseNanos.sum());
+	}
+
+	public long getHandleMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(handleNanos.sum());
+	}
+
+	public long getTotalMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(totalNanos.sum());
+	}
+
+	public long getBytesRead() {
+		return bytesRead.sum();
+	}
+
+	/** 按总耗时计的每秒行数 **/
+	public double getRowsPerSecond() {
+		long nanos = totalNanos.sum();
+		return nanos == 0 ? 0 : rowsNum.sum() * 1e9d / nanos;
+	}
+
+	/** 各列（按列key）类型转换失败次数 **/
+	public Map<String, Long> getConversionErrors() {
+		return sum(conversionErrors);
+	}
+
+	public long getConversionErrorsNum(String columnKey) {
+		LongAdder errors = conversionErrors.get(columnKey);
+		return errors == null ? 0 : errors.sum();
+	}
+
+	/** 各列（按列key）校验失败次数 **/
+	public Map<String, Long> getValidationErrors() {
+		return sum(validationErrors);
+	}
+
+	public long getValidationErrorsNum(String columnKey) {
+		LongAdder errors = validationErrors.get(columnKey);
+		return errors == null ? 0 : errors.sum();
+	}
+
+	private static Map<String, Long> sum(ConcurrentMap<String, LongAdder> counters) {
+		Map<String, Long> sums = new HashMap<>();
+		for (Map.Entry<String, LongAdder> entry : counters.entrySet()) {
+			sums.put(entry.getKey(), entry.getValue().sum());
+		}
+		return sums;
+	}
+
+	@Override
+	public String toString() {
+		return "ExcelReaderStats [readsNum=" + getReadsNum() + ", failedReadsNum=" + getFailedReadsNum() + ", rowsNum="
+				+ getRowsNum() + ", cellsNum=" + getCellsNum() + ", parseMillis=" + getParseMillis() + ", handleMillis="
+				+ getHandleMillis() + ", totalMillis=" + getTotalMillis() + ", bytesRead=" + getBytesRead()
+				+ ", rowsPerSecond=" + Math.round(getRowsPerSecond()) + ", conversionErrors=" + getConversionErrors()
+				+ ", validationErrors=" + getValidationErrors() + "]";
+	}
+
+}
@@ -0,0 +1,97 @@
+package com.sunnysuperman.excel.reader;
+
+import java.util.AbstractList;
+import java.util.BitSet;
+
+/**
+ * 一行中转换或校验失败的列：按列定义的下标记录到位图及错误码数组，作为onData的errorColumns（按列定义顺序的只读列表）。
+ *
+ * 单线程读取时每行复用同一个对象（没有出错的行不分配对象），只在回调期间有效，需要保留时调用copy()
+ */
+public class ExcelRowErrors extends AbstractList<ExcelColumn> {
+	private final ExcelColumn[] columns;
+	private final ExcelCellError[] errors;
+	private final int[] firstRowIndexes; // 重复值首次出现的行号
+	private final BitSet bits;
+	private int size;
+
+	ExcelRowErrors(ExcelColumn[] columns) {
+		this.columns = columns;
+		this.errors = new ExcelCellError[columns.length];
+		this.firstRowIndexes = new int[columns.length];
+		this.bits = new BitSet(columns.length);
+	}
+
+	void reset() {
+		if (size > 0) {
+			bits.clear();
+			size = 0;
+		}
+	}
+
+	void set(int k, ExcelCellError error) {
+		if (!bits.get(k)) {
+			bits.set(k);
+			size++;
+		}
+		errors[k] = error;
+	}
+
+	void setDuplicate(int k, int firstRowIndex) {
+		set(k, ExcelCellError.DUPLICATE);
+		firstRowIndexes[k] = firstRowIndex;
+	}
+
+	/** 第k列（列定义的下标）是否出错 **/
+	public boolean isError(int k) {
+		return bits.get(k);
+	}
+
+	/** 第k列（列定义的下标）的错误码，没有出错返回null **/
+	public ExcelCellError getError(int k) {
+		return bits.get(k) ? errors[k] : null;
+	}
+
+	/** 第k列（列定义的下标）的值重复时，首次出现的行号，否则返回-1 **/
+	public int getFirstRowIndex(int k) {
+		return getError(k) == ExcelCellError.DUPLICATE ? firstRowIndexes[k] : -1;
+	}
+
+	/** 列表中第i个出错列的错误码 **/
+	public ExcelCellError getErrorAt(int i) {
+		return errors[indexAt(i)];
+	}
+
+	/** 列表中第i个出错列在列定义中的下标 **/
+	public int indexAt(int i) {
+		if (i < 0 || i >= size) {
+			throw new IndexOutOfBoundsException(String.valueOf(i));
+		}
+		int k = bits.nextSetBit(0);
+		while (i-- > 0) {
+			k = bits.nextSetBit(k + 1);
+		}
+		return k;
+	}
+
+	/** 复制一份（如与数据一起攒批处理时保留） **/
+	public ExcelRowErrors copy() {
+		ExcelRowErrors copy = new ExcelRowErrors(columns);
+		for (int k = bits.nextSetBit(0); k >= 0; k = bits.nextSetBit(k + 1)) {
+			copy.set(k, errors[k]);
+			copy.firstRowIndexes[k] = firstRowIndexes[k];
+		}
+		return copy;
+	}
+
+	@Override
+	public ExcelColumn get(int i) {
+		return columns[indexAt(i)];
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+}
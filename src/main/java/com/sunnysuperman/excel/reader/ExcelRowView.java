@@ -0,0 +1,371 @@
+package com.sunnysuperman.excel.reader;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.ss.usermodel.Cell;
+
+import com.sunnysuperman.excel.CellDateFormatter;
+import com.sunnysuperman.excel.DateStyleCache;
+import com.sunnysuperman.excel.ExcelCellType;
+import com.sunnysuperman.excel.ExcelUtils;
+import com.sunnysuperman.excel.NumericValue;
+import com.sunnysuperman.excel.RawCell;
+
+/**
+ * 复用的行视图：按列定义的下标（ExcelReaderOptions.getColumns()中的顺序）存取，数值按基本类型存放
+ */
+public class ExcelRowView {
+	private static final byte NULL = 0;
+	private static final byte VALUE = 1;
+	private static final byte ERROR = 2;
+
+	private final ExcelColumn[] columns;
+	private final byte[] states;
+	private final long[] longs;
+	private final double[] doubles;
+	private final Object[] objects;
+	private final ExcelCellError[] errors;
+	private final int[] firstRowIndexes; // 重复值首次出现的行号
+	private final NumericValue numeric = new NumericValue();
+	private int rowIndex;
+	private int errorsNum;
+
+	ExcelRowView(ExcelColumn[] columns) {
+		this.columns = columns;
+		this.states = new byte[columns.length];
+		this.longs = new long[columns.length];
+		this.doubles = new double[columns.length];
+		this.objects = new Object[columns.length];
+		this.errors = new ExcelCellError[columns.length];
+		this.firstRowIndexes = new int[columns.length];
+	}
+
+	/** 由onData的Map及错误列生成行视图（值按列类型存放，错误列的值原样保留） **/
+	static ExcelRowView of(ExcelColumn[] columns, Map<String, Object> data, int rowIndex,
+			List<ExcelColumn> errorColumns) {
+		ExcelRowView view = new ExcelRowView(columns);
+		view.reset(rowIndex);
+		for (int k = 0; k < columns.length; k++) {
+			Object value = data == null ? null : data.get(columns[k].getKey());
+			int i = errorColumns == null ? -1 : errorColumns.indexOf(columns[k]);
+			if (i >= 0) {
+				ExcelCellError error = ExcelCellError.TYPE;
+				if (errorColumns instanceof ExcelRowErrors) {
+					ExcelRowErrors rowErrors = (ExcelRowErrors) errorColumns;
+					error = rowErrors.getErrorAt(i);
+					view.firstRowIndexes[k] = rowErrors.getFirstRowIndex(k);
+				}
+				view.setError(k, value, error);
+			} else if (value != null) {
+				view.setValue(k, value);
+			}
+		}
+		return view;
+	}
+
+	private void setValue(int k, Object value) {
+		switch (columns[k].getType()) {
+		case INT:
+		case LONG:
+			if (!(value instanceof Number)) {
+				setError(k, value, ExcelCellError.TYPE);
+				return;
+			}
+			longs[k] = ((Number) value).longValue();
+			break;
+		case FLOAT:
+		case DOUBLE:
+			if (!(value instanceof Number)) {
+				setError(k, value, ExcelCellError.TYPE);
+				return;
+			}
+			doubles[k] = ((Number) value).doubleValue();
+			break;
+		default:
+			objects[k] = value;
+			break;
+		}
+		states[k] = VALUE;
+	}
+
+	void reset(int rowIndex) {
+		this.rowIndex = rowIndex;
+		this.errorsNum = 0;
+		Arrays.fill(states, NULL);
+		Arrays.fill(objects, null);
+	}
+
+	void read(int k, Cell cell, DateStyleCache dateStyleCache, CellDateFormatter dateFormatter) {
+		try {
+			switch (columns[k].getType()) {
+			case INT:
+			case LONG:
+			case FLOAT:
+			case DOUBLE:
+				if (ExcelUtils.getNumericCellValue(cell, numeric)) {
+					setNumber(k);
+				}
+				break;
+			case STRING:
+				setObject(k, ExcelUtils.getStringCellValue(cell, dateStyleCache, dateFormatter));
+				break;
+			case DATE:
+				setObject(k, ExcelUtils.getDateCellValue(cell, dateStyleCache));
+				break;
+			default:
+				break;
+			}
+		} catch (Exception ex) {
+			Object value;
+			try {
+				value = ExcelUtils.getCellValue(cell);
+			} catch (Exception ex2) {
+				value = null;
+			}
+			setError(k, value, ExcelCellError.TYPE);
+		}
+	}
+
+	void read(int k, RawCell cell, CellDateFormatter dateFormatter) {
+		try {
+			switch (columns[k].getType()) {
+			case INT:
+			case LONG:
+			case FLOAT:
+			case DOUBLE:
+				if (ExcelUtils.getNumericCellValue(cell, numeric)) {
+					setNumber(k);
+				}
+				break;
+			case STRING:
+				setObject(k, ExcelUtils.getStringCellValue(cell, dateFormatter));
+				break;
+			case DATE:
+				setObject(k, ExcelUtils.getDateCellValue(cell));
+				break;
+			default:
+				break;
+			}
+		} catch (Exception ex) {
+			setError(k, ExcelUtils.getCellValue(cell), ExcelCellError.TYPE);
+		}
+	}
+
+	private void setNumber(int k) {
+		switch (columns[k].getType()) {
+		case INT:
+			longs[k] = numeric.intValue();
+			break;
+		case LONG:
+			longs[k] = numeric.longValue();
+			break;
+		case FLOAT:
+			doubles[k] = numeric.floatValue();
+			break;
+		default:
+			doubles[k] = numeric.doubleValue();
+			break;
+		}
+		states[k] = VALUE;
+	}
+
+	private void setObject(int k, Object value) {
+		if (value != null) {
+			objects[k] = value;
+			states[k] = VALUE;
+		}
+	}
+
+	private void setError(int k, Object rawValue, ExcelCellError error) {
+		objects[k] = rawValue;
+		errors[k] = error;
+		states[k] = ERROR;
+		errorsNum++;
+	}
+
+	/** 按校验规则检查第k列（转换失败的列不再检查），数值按基本类型检查范围 **/
+	void validate(int k, ExcelColumnRules rules) {
+		ExcelCellError error;
+		switch (states[k]) {
+		case ERROR:
+			return;
+		case VALUE:
+			if (objects[k] != null) {
+				error = rules.check(objects[k]);
+			} else {
+				error = rules.checkNumber(getDouble(k));
+				if (error == null && rules.hasStringRules()) {
+					error = rules.checkString(getString(k));
+				}
+			}
+			break;
+		default:
+			error = rules.checkMissing();
+			break;
+		}
+		if (error != null) {
+			setError(k, get(k), error);
+		}
+	}
+
+	/** 值的64位指纹（唯一性检查用，数值不装箱），值为空时不能调用 **/
+	long fingerprint(int k) {
+		switch (columns[k].getType()) {
+		case INT:
+		case LONG:
+			return ExcelUniqueIndex.fingerprint(longs[k]);
+		case FLOAT:
+		case DOUBLE:
+			return ExcelUniqueIndex.fingerprint(doubles[k]);
+		default:
+			return ExcelUniqueIndex.fingerprint(objects[k]);
+		}
+	}
+
+	void setDuplicate(int k, int firstRowIndex) {
+		setError(k, get(k), ExcelCellError.DUPLICATE);
+		firstRowIndexes[k] = firstRowIndex;
+	}
+
+	/** 行号 **/
+	public int getRowIndex() {
+		return rowIndex;
+	}
+
+	/** 列数 **/
+	public int size() {
+		return columns.length;
+	}
+
+	public ExcelColumn getColumn(int k) {
+		return columns[k];
+	}
+
+	/** 按key查找列下标，不存在返回-1（建议在读取前查好下标） **/
+	public int indexOf(String key) {
+		for (int k = 0; k < columns.length; k++) {
+			if (columns[k].getKey().equals(key)) {
+				return k;
+			}
+		}
+		return -1;
+	}
+
+	/** 单元格不存在或为空，或者转换、校验失败 **/
+	public boolean isNull(int k) {
+		return states[k] != VALUE;
+	}
+
+	/** 单元格值与列类型不匹配或校验失败 **/
+	public boolean isError(int k) {
+		return states[k] == ERROR;
+	}
+
+	/** 错误码，没有出错返回null **/
+	public ExcelCellError getError(int k) {
+		return states[k] == ERROR ? errors[k] : null;
+	}
+
+	/** 值重复时，首次出现的行号，否则返回-1 **/
+	public int getFirstRowIndex(int k) {
+		return getError(k) == ExcelCellError.DUPLICATE ? firstRowIndexes[k] : -1;
+	}
+
+	public boolean hasError() {
+		return errorsNum > 0;
+	}
+
+	/** 整数值，为空时返回0 **/
+	public int getInt(int k) {
+		return (int) getLong(k);
+	}
+
+	/** 整数值，为空时返回0 **/
+	public long getLong(int k) {
+		if (states[k] != VALUE) {
+			return 0L;
+		}
+		switch (columns[k].getType()) {
+		case INT:
+		case LONG:
+			return longs[k];
+		case FLOAT:
+		case DOUBLE:
+			return (long) doubles[k];
+		default:
+			throw new IllegalStateException("Not a number column: " + columns[k].getKey());
+		}
+	}
+
+	/** 浮点值，为空时返回0 **/
+	public float getFloat(int k) {
+		return (float) getDouble(k);
+	}
+
+	/** 浮点值，为空时返回0 **/
+	public double getDouble(int k) {
+		if (states[k] != VALUE) {
+			return 0d;
+		}
+		switch (columns[k].getType()) {
+		case INT:
+		case LONG:
+			return longs[k];
+		case FLOAT:
+		case DOUBLE:
+			return doubles[k];
+		default:
+			throw new IllegalStateException("Not a number column: " + columns[k].getKey());
+		}
+	}
+
+	public String getString(int k) {
+		if (states[k] != VALUE) {
+			return null;
+		}
+		ExcelCellType type = columns[k].getType();
+		if (type == ExcelCellType.STRING) {
+			return (String) objects[k];
+		}
+		Object value = get(k);
+		return value == null ? null : value.toString();
+	}
+
+	public Date getDate(int k) {
+		if (states[k] != VALUE) {
+			return null;
+		}
+		if (columns[k].getType() != ExcelCellType.DATE) {
+			throw new IllegalStateException("Not a date column: " + columns[k].getKey());
+		}
+		return (Date) objects[k];
+	}
+
+	/** 装箱后的值，与onData中Map的值一致（转换失败时为单元格原始值，校验失败时为转换后的值） **/
+	public Object get(int k) {
+		switch (states[k]) {
+		case VALUE:
+			break;
+		case ERROR:
+			return objects[k];
+		default:
+			return null;
+		}
+		switch (columns[k].getType()) {
+		case INT:
+			return (int) longs[k];
+		case LONG:
+			return longs[k];
+		case FLOAT:
+			return (float) doubles[k];
+		case DOUBLE:
+			return doubles[k];
+		default:
+			return objects[k];
+		}
+	}
+
+}
@@ -0,0 +1,125 @@
+package com.sunnysuperman.excel.reader;
+
+import java.util.Date;
+
+/**
+ * 唯一列索引：值按64位指纹存放在开放寻址的基本类型数组中（指纹及首次出现的行号，每项12字节，装载因子不超过0.75），
+ * 不保存值本身，每个值约16~32字节（HashSet&lt;String&gt;存11位手机号约100字节）。
+ *
+ * 不同的值指纹相同的概率约为行数平方除以2的65次方（百万行约3e-8），此时会误报为重复
+ */
+class ExcelUniqueIndex {
+	private static final long EMPTY = 0L;
+	private static final int MIN_CAPACITY = 16;
+	private static final int MAX_CAPACITY = 1 << 30;
+	private static final int MAX_INITIAL_CAPACITY = 1 << 22; // 按估算值预分配的上限，之后按需扩容
+
+	private long[] fingerprints;
+	private int[] rowIndexes;
+	private int size;
+	private int threshold;
+
+	/**
+	 * @param expectedSize 预计的值个数（如估算的数据行数），未知时传0
+	 */
+	ExcelUniqueIndex(int expectedSize) {
+		int capacity = MIN_CAPACITY;
+		while (capacity < MAX_INITIAL_CAPACITY && capacity * 3L / 4 < expectedSize) {
+			capacity <<= 1;
+		}
+		allocate(capacity);
+	}
+
+	private void allocate(int capacity) {
+		fingerprints = new long[capacity];
+		rowIndexes = new int[capacity];
+		threshold = (int) (capacity * 3L / 4);
+	}
+
+	/** 加入值的指纹：已存在时返回首次出现的行号，否则记下rowIndex并返回-1 **/
+	int putIfAbsent(long fingerprint, int rowIndex) {
+		if (fingerprint == EMPTY) {
+			fingerprint = 1L;
+		}
+		int mask = fingerprints.length - 1;
+		for (int i = (int) fingerprint & mask;; i = (i + 1) & mask) {
+			long current = fingerprints[i];
+			if (current == fingerprint) {
+				return rowIndexes[i];
+			}
+			if (current == EMPTY) {
+				fingerprints[i] = fingerprint;
+				rowIndexes[i] = rowIndex;
+				if (++size > threshold) {
+					grow();
+				}
+				return -1;
+			}
+		}
+	}
+
+	private void grow() {
+		if (fingerprints.length >= MAX_CAPACITY) {
+			throw new IllegalStateException("Too many unique values: " + size);
+		}
+		long[] oldFingerprints = fingerprints;
+		int[] oldRowIndexes = rowIndexes;
+		allocate(oldFingerprints.length << 1);
+		int mask = fingerprints.length - 1;
+		for (int j = 0; j < oldFingerprints.length; j++) {
+			long fingerprint = oldFingerprints[j];
+			if (fingerprint == EMPTY) {
+				continue;
+			}
+			int i = (int) fingerprint & mask;
+			while (fingerprints[i] != EMPTY) {
+				i = (i + 1) & mask;
+			}
+			fingerprints[i] = fingerprint;
+			rowIndexes[i] = oldRowIndexes[j];
+		}
+	}
+
+	/** 转换后的值的指纹：整数、浮点数及日期按基本类型计算，其它按字符串形式 **/
+	static long fingerprint(Object value) {
+		if (value instanceof Integer || value instanceof Long) {
+			return fingerprint(((Number) value).longValue());
+		}
+		if (value instanceof Float || value instanceof Double) {
+			return fingerprint(((Number) value).doubleValue());
+		}
+		if (value instanceof Date) {
+			return fingerprint(((Date) value).getTime());
+		}
+		return fingerprint(value.toString());
+	}
+
+	static long fingerprint(long value) {
+		return mix(value);
+	}
+
+	static long fingerprint(double value) {
+		// 0.0与-0.0视为同一个值
+		return mix(Double.doubleToLongBits(value == 0d ? 0d : value));
+	}
+
+	/** FNV-1a逐字符累积，再做一次64位混合使各位分布均匀 **/
+	static long fingerprint(String value) {
+		long h = 0xcbf29ce484222325L;
+		for (int i = 0; i < value.length(); i++) {
+			h ^= value.charAt(i);
+			h *= 0x100000001b3L;
+		}
+		return mix(h ^ value.length());
+	}
+
+	private static long mix(long h) {
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+
+}
@@ -7,25 +7,36 @@ import org.apache.poi.ss.usermodel.Row;
 
 public interface Handler {
 
-	/** 开始时回调(数据行数，注意流式读取，没有行号) **/
+	/**
+	 * 开始时回调(数据行数，不含表头；流式读取时为按表格dimension或扫描行标签得到的估算值，未知为-1)。
+	 * 
+	 * 流式读取时只有覆盖了本方法、回调onProgress或限制了最大行数才估算
+	 **/
 	default boolean onStart(ExcelReader reader, int dataRowsNum) throws HandlerException {
 		return true;
 	}
 
-	/** 表头读完之后回调 **/
+	/** 表头读完之后回调(内置引擎读取时row为null) **/
 	default void onHeaderRead(ExcelReader reader, Row row) throws HandlerException {
 		// nope
 	}
 
-	/** 表格行拷贝回调 **/
+	/** 表格行拷贝回调（RAW拷贝方式不回调） **/
 	default void onRowCopied(ExcelReader reader, Row row, Row copyRow, boolean isHeader) throws HandlerException {
 		// nope
 	}
 
-	/** 数据处理 **/
+	/**
+	 * 数据处理(errorColumns为转换或校验失败的列，没有为null；其实际类型为ExcelRowErrors，可取各列错误码；每行复用，只在回调期间有效，需要保留时调用ExcelRowErrors.copy())
+	 **/
 	boolean onData(ExcelReader reader, Map<String, Object> data, int rowIndex, List<ExcelColumn> errorColumns)
 			throws HandlerException;
 
+	/** 读取进度回调：每读progressInterval个数据行回调一次(已读数据行数，估算的数据行数，未知为-1) **/
+	default void onProgress(ExcelReader reader, int readRowsNum, int estimatedRowsNum) throws HandlerException {
+		// nope
+	}
+
 	/** 结束回调 **/
 	default void onEnd(ExcelReader reader) throws HandlerException {
 		// nope
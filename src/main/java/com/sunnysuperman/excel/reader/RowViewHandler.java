@@ -0,0 +1,21 @@
+package com.sunnysuperman.excel.reader;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 基于复用行视图的数据处理器：不为每行创建Map，数值不装箱
+ */
+public interface RowViewHandler extends Handler {
+
+	/** 数据处理（行视图在读取下一行时复用，仅在回调期间有效，需要保留的值应自行取出） **/
+	boolean onRow(ExcelReader reader, ExcelRowView row) throws HandlerException;
+
+	/** 按Map方式调用时（如由其它Handler转发），把Map转为行视图再交给onRow **/
+	@Override
+	default boolean onData(ExcelReader reader, Map<String, Object> data, int rowIndex, List<ExcelColumn> errorColumns)
+			throws HandlerException {
+		return onRow(reader, ExcelRowView.of(reader.getOptions().getColumns(), data, rowIndex, errorColumns));
+	}
+
+}
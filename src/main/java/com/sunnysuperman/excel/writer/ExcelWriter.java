@@ -0,0 +1,436 @@
+package com.sunnysuperman.excel.writer;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import com.sunnysuperman.commons.util.FormatUtil;
+import com.sunnysuperman.excel.CellDateFormatter;
+import com.sunnysuperman.excel.ExcelCellType;
+import com.sunnysuperman.excel.ExcelException;
+import com.sunnysuperman.excel.ExcelStyle;
+import com.sunnysuperman.excel.ExcelStylePool;
+import com.sunnysuperman.excel.ExcelUtils;
+import com.sunnysuperman.excel.csv.CsvWriter;
+import com.sunnysuperman.excel.reader.ExcelBeanBinder;
+import com.sunnysuperman.excel.reader.ExcelColumn;
+import com.sunnysuperman.excel.xlsx.XlsxWriter;
+
+/**
+ * 流式写Excel：按列定义写表头及数据。
+ * 
+ * POI引擎内存中只保留rowCacheSize行，其余写到临时文件，最后写到文件或输出流；内置引擎及CSV直接写入创建时指定的输出。
+ * 
+ * <pre>
+ * try (ExcelWriter writer = new ExcelWriter(options, file)) {
+ * 	writer.writeRows(list);
+ * 	writer.finish();
+ * }
+ * </pre>
+ */
+public class ExcelWriter implements Closeable {
+	private final ExcelColumn[] columns;
+	private final int flushRowsNum;
+	private final OutputStream out;
+	private final boolean ownOut;
+	// POI引擎
+	private SXSSFWorkbook workbook;
+	private SXSSFSheet sheet;
+	private CellStyle headerStyle;
+	private CellStyle[] columnStyles;
+	// 内置引擎
+	private XlsxWriter xlsxWriter;
+	private int headerStyleIndex;
+	private int[] columnStyleIndexes;
+	// CSV/TSV
+	private CsvWriter csvWriter;
+	private int rowNum;
+	private int dataRowsNum;
+	private int unflushedRowsNum;
+	private Class<?> beanType;
+	private ExcelBeanBinder<?> beanBinder;
+	private int[] beanColumnIndexes;
+	private boolean finished;
+
+	/** 只支持POI引擎，写完后调用writeTo写出 **/
+	public ExcelWriter(ExcelWriterOptions options) throws IOException {
+		this(options, null, false);
+	}
+
+	/** 写完后调用finish()写出到out，out不会被关闭 **/
+	public ExcelWriter(ExcelWriterOptions options, OutputStream out) throws IOException {
+		this(options, out, false);
+		if (out == null) {
+			throw new IllegalArgumentException("out");
+		}
+	}
+
+	/** 写完后调用finish()写出到文件 **/
+	public ExcelWriter(ExcelWriterOptions options, File file) throws IOException {
+		this(options, new FileOutputStream(file), true);
+	}
+
+	private ExcelWriter(ExcelWriterOptions options, OutputStream out, boolean ownOut) throws IOException {
+		if (options.getColumns() == null || options.getColumns().length == 0) {
+			throw new IllegalArgumentException("columns");
+		}
+		if (options.getRowCacheSize() <= 0) {
+			throw new IllegalArgumentException("rowCacheSize");
+		}
+		if ((options.getEngine() == ExcelWriterEngine.NATIVE || options.getCsvFormat() != null) && out == null) {
+			throw new IllegalArgumentException("engine");
+		}
+		this.columns = options.getColumns().clone();
+		this.flushRowsNum = options.getFlushRowsNum();
+		this.out = out;
+		this.ownOut = ownOut;
+		if (options.getCsvFormat() != null) {
+			csvWriter = new CsvWriter(out, options.getCsvFormat());
+		} else if (options.getEngine() == ExcelWriterEngine.NATIVE) {
+			initXlsxWriter(options);
+		} else {
+			initWorkbook(options);
+		}
+		if (options.isWriteHeader()) {
+			writeHeader();
+		}
+	}
+
+	private void initWorkbook(ExcelWriterOptions options) {
+		workbook = new SXSSFWorkbook(null, options.getRowCacheSize(), options.isCompressTempFiles());
+		sheet = options.getSheetName() == null ? workbook.createSheet() : workbook.createSheet(options.getSheetName());
+		// 样式按列从样式池取一次，各单元格共用
+		ExcelStylePool stylePool = ExcelStylePool.of(workbook);
+		if (options.getHeaderStyle() != null) {
+			headerStyle = stylePool.getStyle(options.getHeaderStyle());
+		}
+		columnStyles = new CellStyle[columns.length];
+		for (int k = 0; k < columns.length; k++) {
+			ExcelStyle style = getColumnStyle(options, columns[k]);
+			if (style != null) {
+				columnStyles[k] = stylePool.getStyle(style);
+			}
+		}
+	}
+
+	private void initXlsxWriter(ExcelWriterOptions options) throws IOException {
+		xlsxWriter = new XlsxWriter(out, options.getSheetName(), options.getCompressionLevel());
+		if (options.getHeaderStyle() != null) {
+			headerStyleIndex = xlsxWriter.getStyle(options.getHeaderStyle());
+		}
+		columnStyleIndexes = new int[columns.length];
+		for (int k = 0; k < columns.length; k++) {
+			ExcelStyle style = getColumnStyle(options, columns[k]);
+			if (style != null) {
+				columnStyleIndexes[k] = xlsxWriter.getStyle(style);
+			}
+		}
+	}
+
+	/** 列样式，日期列未指定数字格式时用dateFormat **/
+	private static ExcelStyle getColumnStyle(ExcelWriterOptions options, ExcelColumn column) {
+		ExcelStyle style = options.getColumnStyle(column.getKey());
+		if (column.getType() == ExcelCellType.DATE && (style == null || style.getDataFormat() == null)) {
+			return (style == null ? new ExcelStyle() : style.copy()).setDataFormat(options.getDateFormat());
+		}
+		return style;
+	}
+
+	private void writeHeader() throws IOException {
+		Row row = startRow();
+		for (int k = 0; k < columns.length; k++) {
+			if (csvWriter != null) {
+				csvWriter.writeField(k, columns[k].getTitle());
+			} else if (xlsxWriter != null) {
+				xlsxWriter.writeString(k, columns[k].getTitle(), headerStyleIndex);
+			} else {
+				Cell cell = row.createCell(k);
+				cell.setCellValue(columns[k].getTitle());
+				if (headerStyle != null) {
+					cell.setCellStyle(headerStyle);
+				}
+			}
+		}
+		if (csvWriter != null) {
+			csvWriter.endRow(columns.length);
+		} else if (xlsxWriter != null) {
+			xlsxWriter.endRow();
+		}
+		rowNum++;
+	}
+
+	/** 按列key取值写一行 **/
+	public void writeRow(Map<String, ?> data) throws ExcelException, IOException {
+		Row row = startRow();
+		for (int k = 0; k < columns.length; k++) {
+			writeCell(k, data.get(columns[k].getKey()), row);
+		}
+		endRow();
+	}
+
+	public void writeRows(Iterable<? extends Map<String, ?>> rows) throws ExcelException, IOException {
+		writeRows(rows.iterator());
+	}
+
+	public void writeRows(Iterator<? extends Map<String, ?>> rows) throws ExcelException, IOException {
+		while (rows.hasNext()) {
+			writeRow(rows.next());
+		}
+	}
+
+	/** 按@ExcelField注解取值写一行，列key与字段的key对应 **/
+	public void writeBean(Object bean) throws ExcelException, IOException {
+		if (bean.getClass() != beanType) {
+			prepareBeanType(bean.getClass());
+		}
+		Row row = startRow();
+		for (int k = 0; k < columns.length; k++) {
+			int index = beanColumnIndexes[k];
+			writeCell(k, index < 0 ? null : beanBinder.get(bean, index), row);
+		}
+		endRow();
+	}
+
+	public void writeBeans(Iterable<?> beans) throws ExcelException, IOException {
+		writeBeans(beans.iterator());
+	}
+
+	public void writeBeans(Iterator<?> beans) throws ExcelException, IOException {
+		while (beans.hasNext()) {
+			writeBean(beans.next());
+		}
+	}
+
+	private void prepareBeanType(Class<?> type) {
+		ExcelBeanBinder<?> binder = ExcelBeanBinder.of(type);
+		ExcelColumn[] beanColumns = binder.getColumns();
+		int[] indexes = new int[columns.length];
+		for (int k = 0; k < columns.length; k++) {
+			indexes[k] = -1;
+			for (int i = 0; i < beanColumns.length; i++) {
+				if (beanColumns[i].getKey().equals(columns[k].getKey())) {
+					indexes[k] = i;
+					break;
+				}
+			}
+		}
+		beanType = type;
+		beanBinder = binder;
+		beanColumnIndexes = indexes;
+	}
+
+	private Row startRow() throws IOException {
+		if (finished) {
+			throw new IllegalStateException("finished");
+		}
+		if (csvWriter != null) {
+			csvWriter.startRow();
+			return null;
+		}
+		if (xlsxWriter != null) {
+			xlsxWriter.startRow(rowNum);
+			return null;
+		}
+		return sheet.createRow(rowNum);
+	}
+
+	private void writeCell(int k, Object value, Row row) throws ExcelException, IOException {
+		if (value == null) {
+			return;
+		}
+		if (csvWriter != null) {
+			csvWriter.writeField(k, toCsvValue(columns[k].getType(), value));
+			return;
+		}
+		if (xlsxWriter != null) {
+			writeXlsxCell(k, value);
+			return;
+		}
+		Cell cell = row.createCell(k);
+		// 先设样式，设值时不再套用默认日期样式
+		if (columnStyles[k] != null) {
+			cell.setCellStyle(columnStyles[k]);
+		}
+		ExcelCellType type = columns[k].getType();
+		if (type == null) {
+			ExcelUtils.setCellValue(cell, value);
+		} else {
+			ExcelUtils.setCellValue(cell, value, type);
+		}
+	}
+
+	private void writeXlsxCell(int k, Object value) throws ExcelException, IOException {
+		ExcelCellType type = columns[k].getType();
+		if (type == null) {
+			writeXlsxCell(k, value, columnStyleIndexes[k]);
+			return;
+		}
+		int style = columnStyleIndexes[k];
+		switch (type) {
+		case STRING:
+			xlsxWriter.writeString(k, FormatUtil.parseString(value), style);
+			break;
+		case INT:
+			xlsxWriter.writeNumber(k, FormatUtil.parseInteger(value).longValue(), style);
+			break;
+		case LONG:
+			xlsxWriter.writeNumber(k, FormatUtil.parseLong(value).longValue(), style);
+			break;
+		case FLOAT:
+			xlsxWriter.writeNumber(k, FormatUtil.parseFloat(value).doubleValue(), style);
+			break;
+		case DOUBLE:
+			xlsxWriter.writeNumber(k, FormatUtil.parseDouble(value).doubleValue(), style);
+			break;
+		case DATE:
+			if (value instanceof Date) {
+				xlsxWriter.writeDate(k, (Date) value, style);
+			} else if (value instanceof Number) {
+				xlsxWriter.writeDate(k, new Date(((Number) value).longValue()), style);
+			} else {
+				throw new ExcelException(ExcelException.ERROR_CELL_TYPE_NOT_MATCH, type);
+			}
+			break;
+		default:
+			throw new ExcelException(ExcelException.ERROR_UNKNOWN_CELL_TYPE, type);
+		}
+	}
+
+	/** 同ExcelUtils.setCellValue(Cell, Object)：日期值未指定列样式时用默认日期样式 **/
+	private void writeXlsxCell(int k, Object value, int style) throws IOException {
+		if (value instanceof String) {
+			xlsxWriter.writeString(k, (String) value, style);
+		} else if (value instanceof Number) {
+			xlsxWriter.writeNumber(k, ((Number) value).doubleValue(), style);
+		} else if (value instanceof Date) {
+			xlsxWriter.writeDate(k, (Date) value,
+					style > 0 ? style : xlsxWriter.getNumberFormatStyle(ExcelStylePool.DEFAULT_DATE_FORMAT));
+		} else if (value instanceof Boolean) {
+			xlsxWriter.writeBoolean(k, (Boolean) value, style);
+		} else {
+			xlsxWriter.writeString(k, value.toString(), style);
+		}
+	}
+
+	/** CSV字段文本：数字不带多余的小数位，日期按ISO8601（含毫秒）格式 **/
+	private static String toCsvValue(ExcelCellType type, Object value) throws ExcelException {
+		if (type == null) {
+			if (value instanceof Number) {
+				return formatNumber(((Number) value).doubleValue());
+			}
+			if (value instanceof Date) {
+				return CellDateFormatter.getDefault().format((Date) value);
+			}
+			return value.toString();
+		}
+		switch (type) {
+		case STRING:
+			return FormatUtil.parseString(value);
+		case INT:
+			return String.valueOf(FormatUtil.parseInteger(value).intValue());
+		case LONG:
+			return String.valueOf(FormatUtil.parseLong(value).longValue());
+		case FLOAT:
+			return formatNumber(FormatUtil.parseFloat(value).doubleValue());
+		case DOUBLE:
+			return formatNumber(FormatUtil.parseDouble(value).doubleValue());
+		case DATE:
+			if (value instanceof Date) {
+				return CellDateFormatter.getDefault().format((Date) value);
+			} else if (value instanceof Number) {
+				return CellDateFormatter.getDefault().format(new Date(((Number) value).longValue()));
+			}
+			throw new ExcelException(ExcelException.ERROR_CELL_TYPE_NOT_MATCH, type);
+		default:
+			throw new ExcelException(ExcelException.ERROR_UNKNOWN_CELL_TYPE, type);
+		}
+	}
+
+	private static String formatNumber(double d) {
+		long l = (long) d;
+		return l == d ? String.valueOf(l) : String.valueOf(d);
+	}
+
+	private void endRow() throws IOException {
+		if (csvWriter != null) {
+			csvWriter.endRow(columns.length);
+		} else if (xlsxWriter != null) {
+			xlsxWriter.endRow();
+		}
+		rowNum++;
+		dataRowsNum++;
+		if (flushRowsNum > 0 && ++unflushedRowsNum >= flushRowsNum) {
+			if (sheet != null) {
+				sheet.flushRows();
+			}
+			unflushedRowsNum = 0;
+		}
+	}
+
+	/** 已写的数据行数（不含表头） **/
+	public int getRowCount() {
+		return dataRowsNum;
+	}
+
+	/** 写出到创建时指定的输出 **/
+	public void finish() throws IOException {
+		if (out == null) {
+			throw new IllegalStateException("out");
+		}
+		if (finished) {
+			return;
+		}
+		finished = true;
+		if (csvWriter != null) {
+			csvWriter.flush();
+		} else if (xlsxWriter != null) {
+			xlsxWriter.finish();
+		} else {
+			workbook.write(out);
+		}
+		out.flush();
+	}
+
+	/** 只支持POI引擎 **/
+	public void writeTo(OutputStream out) throws IOException {
+		if (workbook == null) {
+			throw new IllegalStateException("engine");
+		}
+		workbook.write(out);
+		out.flush();
+	}
+
+	/** 只支持POI引擎 **/
+	public void writeTo(File file) throws IOException {
+		try (FileOutputStream fileOut = new FileOutputStream(file)) {
+			writeTo(fileOut);
+		}
+	}
+
+	/** 删除临时文件并关闭，创建时指定的文件输出流一并关闭 **/
+	@Override
+	public void close() throws IOException {
+		try {
+			if (workbook != null) {
+				workbook.dispose();
+				workbook.close();
+			}
+		} finally {
+			if (ownOut) {
+				out.close();
+			}
+		}
+	}
+
+}
@@ -0,0 +1,11 @@
+package com.sunnysuperman.excel.writer;
+
+public enum ExcelWriterEngine {
+
+	/** POI（SXSSF：行先写到临时文件，最后拷贝进xlsx） **/
+	POI,
+
+	/** 内置xlsx写出：表格XML直接写入zip输出流，字符串内联，无对象模型及临时文件（需在创建时指定输出） **/
+	NATIVE;
+
+}
@@ -0,0 +1,135 @@
+package com.sunnysuperman.excel.writer;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+import com.sunnysuperman.excel.ExcelStyle;
+import com.sunnysuperman.excel.ExcelStylePool;
+import com.sunnysuperman.excel.csv.CsvFormat;
+import com.sunnysuperman.excel.reader.ExcelColumn;
+
+public class ExcelWriterOptions {
+	private ExcelWriterEngine engine = ExcelWriterEngine.POI; // 写出引擎
+	private CsvFormat csvFormat; // 不为空时写出CSV/TSV文本（不使用写出引擎，忽略表名及样式）
+	private ExcelColumn[] columns; // 列
+	private String sheetName; // 表名（为空则用默认表名）
+	private boolean writeHeader = true; // 是否写表头（列标题）
+	private int rowCacheSize = 100; // 内存中保留的行数（SXSSF窗口），超出部分写到临时文件
+	private int flushRowsNum = 0; // 每写这么多行主动把窗口内的行写到临时文件，0则只按窗口大小写出
+	private boolean compressTempFiles = false; // 临时文件是否压缩（省磁盘，耗CPU）
+	private int compressionLevel = Deflater.DEFAULT_COMPRESSION; // 内置引擎的zip压缩级别（I/O不是瓶颈时可用Deflater.BEST_SPEED）
+	private String dateFormat = ExcelStylePool.DEFAULT_DATE_FORMAT; // 日期列单元格格式（列样式未指定数字格式时）
+	private ExcelStyle headerStyle; // 表头样式
+	private Map<String, ExcelStyle> columnStyles = new HashMap<>(); // 列样式（按列key）
+
+	public ExcelWriterEngine getEngine() {
+		return engine;
+	}
+
+	public ExcelWriterOptions setEngine(ExcelWriterEngine engine) {
+		this.engine = engine;
+		return this;
+	}
+
+	public CsvFormat getCsvFormat() {
+		return csvFormat;
+	}
+
+	/** 写出CSV/TSV文本，如CsvFormat.CSV、CsvFormat.TSV（需在创建时指定输出） **/
+	public ExcelWriterOptions setCsvFormat(CsvFormat csvFormat) {
+		this.csvFormat = csvFormat;
+		return this;
+	}
+
+	public ExcelColumn[] getColumns() {
+		return columns;
+	}
+
+	public ExcelWriterOptions setColumns(ExcelColumn[] columns) {
+		this.columns = columns;
+		return this;
+	}
+
+	public String getSheetName() {
+		return sheetName;
+	}
+
+	public ExcelWriterOptions setSheetName(String sheetName) {
+		this.sheetName = sheetName;
+		return this;
+	}
+
+	public boolean isWriteHeader() {
+		return writeHeader;
+	}
+
+	public ExcelWriterOptions setWriteHeader(boolean writeHeader) {
+		this.writeHeader = writeHeader;
+		return this;
+	}
+
+	public int getRowCacheSize() {
+		return rowCacheSize;
+	}
+
+	public ExcelWriterOptions setRowCacheSize(int rowCacheSize) {
+		this.rowCacheSize = rowCacheSize;
+		return this;
+	}
+
+	public int getFlushRowsNum() {
+		return flushRowsNum;
+	}
+
+	public ExcelWriterOptions setFlushRowsNum(int flushRowsNum) {
+		this.flushRowsNum = flushRowsNum;
+		return this;
+	}
+
+	public boolean isCompressTempFiles() {
+		return compressTempFiles;
+	}
+
+	public ExcelWriterOptions setCompressTempFiles(boolean compressTempFiles) {
+		this.compressTempFiles = compressTempFiles;
+		return this;
+	}
+
+	public int getCompressionLevel() {
+		return compressionLevel;
+	}
+
+	public ExcelWriterOptions setCompressionLevel(int compressionLevel) {
+		this.compressionLevel = compressionLevel;
+		return this;
+	}
+
+	public ExcelStyle getHeaderStyle() {
+		return headerStyle;
+	}
+
+	public ExcelWriterOptions setHeaderStyle(ExcelStyle headerStyle) {
+		this.headerStyle = headerStyle;
+		return this;
+	}
+
+	public ExcelStyle getColumnStyle(String key) {
+		return columnStyles.get(key);
+	}
+
+	public ExcelWriterOptions setColumnStyle(String key, ExcelStyle style) {
+		columnStyles.put(key, style);
+		return this;
+	}
+
+	public String getDateFormat() {
+		return dateFormat;
+	}
+
+	public ExcelWriterOptions setDateFormat(String dateFormat) {
+		this.dateFormat = dateFormat;
+		return this;
+	}
+
+}
@@ -0,0 +1,22 @@
+package com.sunnysuperman.excel.xlsx;
+
+import java.io.IOException;
+
+/**
+ * 拷贝表格时追加的单元格，按行号、列号递增迭代
+ */
+public interface XlsxAppendedCells {
+
+	/** 移到下一个单元格，没有了返回false **/
+	boolean next() throws IOException;
+
+	/** 行号（从0开始） **/
+	int getRowNum();
+
+	/** 列号（从0开始） **/
+	int getColumn();
+
+	/** 值：字符串、数字、布尔值，其他类型按字符串写出 **/
+	Object getValue();
+
+}
@@ -0,0 +1,160 @@
+package com.sunnysuperman.excel.xlsx;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 存放在内存映射临时文件中的共享字符串表（UTF-8），内存中只保留偏移量及最近使用字符串的LRU缓存，线程安全。
+ *
+ * 按下标分成多个分片，各分片有自己的锁、LRU缓存及映射缓冲区的副本，多线程解析及多表格读取时不争用同一把锁
+ */
+class XlsxMappedSharedStrings extends XlsxSharedStrings {
+	private static final int SEGMENT_SIZE = 1 << 30;
+	private static final int STRIPES_NUM = 16;
+
+	private final File file;
+	private OutputStream out;
+	private long position;
+	private long[] offsets;
+	private int[] lengths;
+	private int size;
+	private final Stripe[] stripes = new Stripe[STRIPES_NUM];
+
+	XlsxMappedSharedStrings(int initialCapacity, int cacheSize) throws IOException {
+		int capacity = Math.max(16, Math.min(initialCapacity, 1 << 20));
+		this.offsets = new long[capacity];
+		this.lengths = new int[capacity];
+		this.file = File.createTempFile("ss-excel-sst-", ".tmp");
+		this.out = new BufferedOutputStream(new FileOutputStream(file), 64 * 1024);
+		int stripeCacheSize = Math.max(1, (cacheSize + STRIPES_NUM - 1) / STRIPES_NUM);
+		for (int i = 0; i < STRIPES_NUM; i++) {
+			stripes[i] = new Stripe(stripeCacheSize);
+		}
+	}
+
+	@Override
+	void add(String s) throws IOException {
+		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		// 单个字符串不跨分段
+		long segmentOffset = position % SEGMENT_SIZE;
+		if (segmentOffset + bytes.length > SEGMENT_SIZE) {
+			long padding = SEGMENT_SIZE - segmentOffset;
+			for (long i = 0; i < padding; i++) {
+				out.write(0);
+			}
+			position += padding;
+		}
+		if (size == offsets.length) {
+			long[] newOffsets = new long[size * 2];
+			System.arraycopy(offsets, 0, newOffsets, 0, size);
+			offsets = newOffsets;
+			int[] newLengths = new int[size * 2];
+			System.arraycopy(lengths, 0, newLengths, 0, size);
+			lengths = newLengths;
+		}
+		offsets[size] = position;
+		lengths[size] = bytes.length;
+		size++;
+		out.write(bytes);
+		position += bytes.length;
+	}
+
+	@Override
+	void complete() throws IOException {
+		out.close();
+		out = null;
+		int segmentsNum = (int) ((position + SEGMENT_SIZE - 1) / SEGMENT_SIZE);
+		MappedByteBuffer[] segments = new MappedByteBuffer[segmentsNum];
+		try (RandomAccessFile raf = new RandomAccessFile(file, "r"); FileChannel channel = raf.getChannel()) {
+			for (int i = 0; i < segmentsNum; i++) {
+				long start = (long) i * SEGMENT_SIZE;
+				segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start,
+						Math.min(SEGMENT_SIZE, position - start));
+			}
+		}
+		for (Stripe stripe : stripes) {
+			synchronized (stripe) {
+				// 各分片用自己的副本（position独立）
+				stripe.segments = new ByteBuffer[segmentsNum];
+				for (int i = 0; i < segmentsNum; i++) {
+					stripe.segments[i] = segments[i].duplicate();
+				}
+			}
+		}
+	}
+
+	@Override
+	public String get(int index) {
+		if (index < 0 || index >= size) {
+			return null;
+		}
+		Stripe stripe = stripes[index & (STRIPES_NUM - 1)];
+		synchronized (stripe) {
+			if (stripe.segments == null) {
+				throw new IllegalStateException("Shared strings closed");
+			}
+			String s = stripe.cache.get(index);
+			if (s == null) {
+				long offset = offsets[index];
+				byte[] bytes = new byte[lengths[index]];
+				ByteBuffer segment = stripe.segments[(int) (offset / SEGMENT_SIZE)];
+				segment.position((int) (offset % SEGMENT_SIZE));
+				segment.get(bytes);
+				s = new String(bytes, StandardCharsets.UTF_8);
+				stripe.cache.put(index, s);
+			}
+			return s;
+		}
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public void close() throws IOException {
+		synchronized (this) {
+			if (out != null) {
+				out.close();
+				out = null;
+			}
+		}
+		for (Stripe stripe : stripes) {
+			synchronized (stripe) {
+				stripe.segments = null;
+				stripe.cache.clear();
+			}
+		}
+		// 映射在回收前仍有效，文件删除失败时在退出时删除
+		file.delete();
+	}
+
+	/** 分片：下标按低位分到各分片 **/
+	private static class Stripe {
+		private final Map<Integer, String> cache;
+		private ByteBuffer[] segments;
+
+		Stripe(int cacheSize) {
+			this.cache = new LinkedHashMap<Integer, String>(cacheSize * 4 / 3 + 1, 0.75f, true) {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<Integer, String> eldest) {
+					return size() > cacheSize;
+				}
+			};
+		}
+	}
+
+}
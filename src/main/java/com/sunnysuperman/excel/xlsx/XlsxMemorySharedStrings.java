@@ -0,0 +1,32 @@
+package com.sunnysuperman.excel.xlsx;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 全部放在内存中的共享字符串表
+ */
+class XlsxMemorySharedStrings extends XlsxSharedStrings {
+	private final List<String> strings;
+
+	XlsxMemorySharedStrings(int initialCapacity) {
+		// uniqueCount可能不正确（如负数），只作为初始容量的参考
+		this.strings = new ArrayList<>(Math.max(16, Math.min(initialCapacity, 1 << 20)));
+	}
+
+	@Override
+	void add(String s) {
+		strings.add(s);
+	}
+
+	@Override
+	public String get(int index) {
+		return index >= 0 && index < strings.size() ? strings.get(index) : null;
+	}
+
+	@Override
+	public int size() {
+		return strings.size();
+	}
+
+}
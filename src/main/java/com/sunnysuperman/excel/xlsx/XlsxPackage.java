@@ -0,0 +1,426 @@
+package com.sunnysuperman.excel.xlsx;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import com.sunnysuperman.excel.ExcelException;
+
+/**
+ * xlsx文件包：直接读取zip中的工作簿、共享字符串、样式及表格部件，不依赖POI的对象模型
+ */
+public class XlsxPackage implements Closeable {
+	private static final int BUFFER_SIZE = 8192;
+	private static final int SCAN_BUFFER_SIZE = 64 * 1024;
+	private static final String DEFAULT_WORKBOOK_PATH = "xl/workbook.xml";
+
+	private final ZipFile zip;
+	private final int sharedStringsCacheSize;
+	private final List<String> sheetNames = new ArrayList<>();
+	private final List<String> sheetPaths = new ArrayList<>();
+	private String sharedStringsPath;
+	private String stylesPath;
+	private boolean date1904;
+	private XlsxSharedStrings sharedStrings;
+	private XlsxStyles styles;
+
+	private XlsxPackage(ZipFile zip, int sharedStringsCacheSize) {
+		this.zip = zip;
+		this.sharedStringsCacheSize = sharedStringsCacheSize;
+	}
+
+	public static XlsxPackage open(File file) throws ExcelException {
+		return open(file, 0);
+	}
+
+	/**
+	 * @param sharedStringsCacheSize 大于0时共享字符串表存放在内存映射的临时文件中，内存中只缓存最近使用的这么多个字符串
+	 */
+	public static XlsxPackage open(File file, int sharedStringsCacheSize) throws ExcelException {
+		ZipFile zip;
+		try {
+			zip = new ZipFile(file);
+		} catch (IOException e) {
+			throw new ExcelException(ExcelException.ERROR_NOT_AN_EXCEL_FILE);
+		}
+		XlsxPackage xlsx = new XlsxPackage(zip, sharedStringsCacheSize);
+		boolean ok = false;
+		try {
+			xlsx.init();
+			ok = true;
+			return xlsx;
+		} catch (IOException | XMLStreamException e) {
+			throw new ExcelException(ExcelException.ERROR_NOT_AN_EXCEL_FILE);
+		} finally {
+			if (!ok) {
+				xlsx.close();
+			}
+		}
+	}
+
+	private void init() throws IOException, XMLStreamException, ExcelException {
+		String workbookPath = null;
+		for (String[] rel : parseRels("_rels/.rels", "")) {
+			if (rel[1].endsWith("/officeDocument")) {
+				workbookPath = rel[2];
+				break;
+			}
+		}
+		if (workbookPath == null) {
+			workbookPath = DEFAULT_WORKBOOK_PATH;
+		}
+		int slash = workbookPath.lastIndexOf('/');
+		String baseDir = workbookPath.substring(0, slash + 1);
+		String relsPath = baseDir + "_rels/" + workbookPath.substring(slash + 1) + ".rels";
+
+		Map<String, String> targets = new HashMap<>();
+		for (String[] rel : parseRels(relsPath, baseDir)) {
+			targets.put(rel[0], rel[2]);
+			if (rel[1].endsWith("/sharedStrings")) {
+				sharedStringsPath = rel[2];
+			} else if (rel[1].endsWith("/styles")) {
+				stylesPath = rel[2];
+			}
+		}
+		parseWorkbook(workbookPath, targets);
+		if (sheetPaths.isEmpty()) {
+			throw new ExcelException(ExcelException.ERROR_NOT_AN_EXCEL_FILE);
+		}
+	}
+
+	private void parseWorkbook(String workbookPath, Map<String, String> targets)
+			throws IOException, XMLStreamException, ExcelException {
+		InputStream in = openEntry(workbookPath);
+		if (in == null) {
+			throw new ExcelException(ExcelException.ERROR_NOT_AN_EXCEL_FILE);
+		}
+		try (InputStream wbIn = in) {
+			XMLStreamReader reader = XlsxXml.newReader(wbIn);
+			while (reader.hasNext()) {
+				if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+					continue;
+				}
+				String name = reader.getLocalName();
+				if ("workbookPr".equals(name)) {
+					String value = reader.getAttributeValue(null, "date1904");
+					date1904 = "1".equals(value) || "true".equalsIgnoreCase(value);
+				} else if ("sheet".equals(name)) {
+					String target = null;
+					for (int i = 0; i < reader.getAttributeCount(); i++) {
+						if ("id".equals(reader.getAttributeLocalName(i))) {
+							target = targets.get(reader.getAttributeValue(i));
+						}
+					}
+					if (target != null) {
+						sheetNames.add(reader.getAttributeValue(null, "name"));
+						sheetPaths.add(target);
+					}
+				}
+			}
+			reader.close();
+		}
+	}
+
+	/** 解析关系文件，返回 [Id, Type, 解析后的Target路径] 列表 **/
+	private List<String[]> parseRels(String path, String baseDir) throws IOException, XMLStreamException {
+		List<String[]> rels = new ArrayList<>();
+		InputStream in = openEntry(path);
+		if (in == null) {
+			return rels;
+		}
+		try (InputStream relsIn = in) {
+			XMLStreamReader reader = XlsxXml.newReader(relsIn);
+			while (reader.hasNext()) {
+				if (reader.next() == XMLStreamConstants.START_ELEMENT && "Relationship".equals(reader.getLocalName())) {
+					String type = reader.getAttributeValue(null, "Type");
+					String target = reader.getAttributeValue(null, "Target");
+					if (type != null && target != null
+							&& !"External".equals(reader.getAttributeValue(null, "TargetMode"))) {
+						rels.add(new String[] { reader.getAttributeValue(null, "Id"), type,
+								resolvePath(baseDir, target) });
+					}
+				}
+			}
+			reader.close();
+		}
+		return rels;
+	}
+
+	private static String resolvePath(String baseDir, String target) {
+		String path = target.startsWith("/") ? target.substring(1) : baseDir + target;
+		if (path.indexOf("./") < 0) {
+			return path;
+		}
+		List<String> segments = new ArrayList<>();
+		for (String segment : path.split("/")) {
+			if ("..".equals(segment)) {
+				if (!segments.isEmpty()) {
+					segments.remove(segments.size() - 1);
+				}
+			} else if (!segment.isEmpty() && !".".equals(segment)) {
+				segments.add(segment);
+			}
+		}
+		return String.join("/", segments);
+	}
+
+	private InputStream openEntry(String path) throws IOException {
+		ZipEntry entry = zip.getEntry(path);
+		if (entry == null) {
+			return null;
+		}
+		return new BufferedInputStream(zip.getInputStream(entry), BUFFER_SIZE);
+	}
+
+	public int getNumberOfSheets() {
+		return sheetPaths.size();
+	}
+
+	public String getSheetName(int index) {
+		return sheetNames.get(index);
+	}
+
+	/** 按名称查找表格序号，不存在返回-1 **/
+	public int getSheetIndex(String name) {
+		return sheetNames.indexOf(name);
+	}
+
+	public boolean isDate1904() {
+		return date1904;
+	}
+
+	public synchronized XlsxSharedStrings getSharedStrings() throws ExcelException {
+		if (sharedStrings == null) {
+			try {
+				InputStream in = sharedStringsPath == null ? null : openEntry(sharedStringsPath);
+				if (in == null) {
+					sharedStrings = XlsxSharedStrings.empty();
+				} else {
+					try (InputStream sstIn = in) {
+						sharedStrings = XlsxSharedStrings.parse(sstIn, sharedStringsCacheSize);
+					}
+				}
+			} catch (IOException | XMLStreamException e) {
+				throw new ExcelException(ExcelException.ERROR_NOT_AN_EXCEL_FILE);
+			}
+		}
+		return sharedStrings;
+	}
+
+	public synchronized XlsxStyles getStyles() throws ExcelException {
+		if (styles == null) {
+			try {
+				InputStream in = stylesPath == null ? null : openEntry(stylesPath);
+				if (in == null) {
+					styles = XlsxStyles.empty();
+				} else {
+					try (InputStream stylesIn = in) {
+						styles = XlsxStyles.parse(stylesIn);
+					}
+				}
+			} catch (IOException | XMLStreamException e) {
+				throw new ExcelException(ExcelException.ERROR_NOT_AN_EXCEL_FILE);
+			}
+		}
+		return styles;
+	}
+
+	/** 打开指定表格进行逐行读取，用完需关闭（不同表格可在多个线程中同时读取） **/
+	public XlsxSheetReader openSheet(int index) throws ExcelException {
+		if (index < 0 || index >= sheetPaths.size()) {
+			throw new IllegalArgumentException("index");
+		}
+		XlsxSharedStrings sst = getSharedStrings();
+		XlsxStyles sheetStyles = getStyles();
+		InputStream in = null;
+		try {
+			in = openEntry(sheetPaths.get(index));
+			if (in == null) {
+				throw new ExcelException(ExcelException.ERROR_NOT_AN_EXCEL_FILE);
+			}
+			return new XlsxSheetReader(in, sst, sheetStyles, date1904);
+		} catch (IOException | XMLStreamException e) {
+			closeQuietly(in);
+			throw new ExcelException(ExcelException.ERROR_NOT_AN_EXCEL_FILE);
+		}
+	}
+
+	/** 解压指定表格到临时文件并按行切块（大约chunkSize字节一块），用于多线程解析，用完需关闭 **/
+	public XlsxSheetChunks splitSheet(int index, long chunkSize) throws ExcelException {
+		if (index < 0 || index >= sheetPaths.size()) {
+			throw new IllegalArgumentException("index");
+		}
+		if (chunkSize <= 0) {
+			throw new IllegalArgumentException("chunkSize");
+		}
+		XlsxSharedStrings sst = getSharedStrings();
+		XlsxStyles sheetStyles = getStyles();
+		try (InputStream in = openEntry(sheetPaths.get(index))) {
+			if (in == null) {
+				throw new ExcelException(ExcelException.ERROR_NOT_AN_EXCEL_FILE);
+			}
+			return XlsxSheetChunks.split(in, chunkSize, sst, sheetStyles, date1904);
+		} catch (IOException e) {
+			throw new ExcelException(ExcelException.ERROR_NOT_AN_EXCEL_FILE);
+		}
+	}
+
+	/**
+	 * 估算表格行数（含空行及表头）：取表格开头的dimension范围；没有dimension（或只有单个单元格，如流式写出的文件）时，
+	 * scan为true则扫描解压后的字节统计row标签个数（不解析XML），否则返回-1
+	 */
+	public int getRowsNum(int sheetIndex, boolean scan) throws ExcelException {
+		String sheetPath = sheetPaths.get(sheetIndex);
+		try {
+			int rowsNum = -1;
+			try (InputStream in = openEntry(sheetPath)) {
+				if (in == null) {
+					throw new ExcelException(ExcelException.ERROR_NOT_AN_EXCEL_FILE);
+				}
+				rowsNum = parseDimensionRowsNum(in);
+			}
+			if (rowsNum < 0 && scan) {
+				try (InputStream in = zip.getInputStream(zip.getEntry(sheetPath))) {
+					rowsNum = countRows(in);
+				}
+			}
+			return rowsNum;
+		} catch (IOException | XMLStreamException e) {
+			throw new ExcelException(ExcelException.ERROR_NOT_AN_EXCEL_FILE);
+		}
+	}
+
+	/** dimension在sheetData之前，如 A1:F1001 为1001行 **/
+	private static int parseDimensionRowsNum(InputStream in) throws XMLStreamException {
+		XMLStreamReader reader = XlsxXml.newReader(in);
+		try {
+			while (reader.hasNext()) {
+				if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+					continue;
+				}
+				String name = reader.getLocalName();
+				if ("sheetData".equals(name)) {
+					return -1;
+				}
+				if ("dimension".equals(name)) {
+					String ref = reader.getAttributeValue(null, "ref");
+					int colon = ref == null ? -1 : ref.indexOf(':');
+					if (colon < 0) {
+						return -1;
+					}
+					int first = parseRowNum(ref.substring(0, colon));
+					int last = parseRowNum(ref.substring(colon + 1));
+					return first > 0 && last >= first ? last - first + 1 : -1;
+				}
+			}
+			return -1;
+		} finally {
+			reader.close();
+		}
+	}
+
+	/** 单元格引用中的行号（从1开始），如 $F$1001 为1001，无法解析返回-1 **/
+	private static int parseRowNum(String ref) {
+		int i = 0;
+		while (i < ref.length() && !Character.isDigit(ref.charAt(i))) {
+			i++;
+		}
+		return XlsxXml.parseInt(ref.substring(i), -1);
+	}
+
+	/** 统计row开始标签（含带前缀的x:row）个数 **/
+	private static int countRows(InputStream in) throws IOException {
+		byte[] buf = new byte[SCAN_BUFFER_SIZE];
+		byte[] name = new byte[8];
+		int nameLen = -1; // 当前标签名的长度，-1为不在标签名中
+		int count = 0;
+		int n;
+		while ((n = in.read(buf)) > 0) {
+			for (int i = 0; i < n; i++) {
+				byte b = buf[i];
+				if (b == '<') {
+					nameLen = 0;
+				} else if (nameLen < 0) {
+					continue;
+				} else if (b == '>' || b == '/' || b == ' ' || b == '\t' || b == '\r' || b == '\n') {
+					if (isRowTag(name, nameLen)) {
+						count++;
+					}
+					nameLen = -1;
+				} else if (nameLen < name.length) {
+					name[nameLen++] = b;
+				} else {
+					// 标签名过长，不可能是row
+					nameLen = name.length + 1;
+				}
+			}
+		}
+		return count;
+	}
+
+	private static boolean isRowTag(byte[] name, int len) {
+		if (len < 3 || len > name.length || name[len - 3] != 'r' || name[len - 2] != 'o' || name[len - 1] != 'w') {
+			return false;
+		}
+		return len == 3 || name[len - 4] == ':';
+	}
+
+	/**
+	 * 拷贝整个文件到输出流，指定表格的行原样拷贝并在行尾追加单元格，其余部件原样拷贝（不关闭输出流）
+	 */
+	public void copyTo(int sheetIndex, OutputStream out, XlsxAppendedCells cells) throws IOException {
+		String sheetPath = sheetPaths.get(sheetIndex);
+		ZipOutputStream zipOut = new ZipOutputStream(out);
+		byte[] buf = new byte[BUFFER_SIZE];
+		Enumeration<? extends ZipEntry> entries = zip.entries();
+		while (entries.hasMoreElements()) {
+			ZipEntry entry = entries.nextElement();
+			zipOut.putNextEntry(new ZipEntry(entry.getName()));
+			try (InputStream in = zip.getInputStream(entry)) {
+				if (entry.getName().equals(sheetPath)) {
+					new XlsxSheetCopier(in, zipOut, cells).copy();
+				} else {
+					int n;
+					while ((n = in.read(buf)) > 0) {
+						zipOut.write(buf, 0, n);
+					}
+				}
+			}
+			zipOut.closeEntry();
+		}
+		zipOut.finish();
+		zipOut.flush();
+	}
+
+	static void closeQuietly(Closeable closeable) {
+		if (closeable != null) {
+			try {
+				closeable.close();
+			} catch (IOException e) {
+				// ignore
+			}
+		}
+	}
+
+	@Override
+	public synchronized void close() {
+		closeQuietly(sharedStrings);
+		closeQuietly(zip);
+	}
+
+}
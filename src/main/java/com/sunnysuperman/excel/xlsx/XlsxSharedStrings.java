@@ -0,0 +1,84 @@
+package com.sunnysuperman.excel.xlsx;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * 共享字符串表（sharedStrings.xml）
+ */
+public abstract class XlsxSharedStrings implements Closeable {
+
+	static XlsxSharedStrings empty() {
+		return new XlsxMemorySharedStrings(0);
+	}
+
+	/**
+	 * @param cacheSize 大于0时字符串存放在内存映射的临时文件中，内存中只缓存最近使用的cacheSize个字符串；否则全部放在内存中
+	 */
+	static XlsxSharedStrings parse(InputStream in, int cacheSize) throws XMLStreamException, IOException {
+		XlsxSharedStrings strings = null;
+		boolean ok = false;
+		XMLStreamReader reader = XlsxXml.newReader(in);
+		try {
+			while (reader.hasNext()) {
+				if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+					continue;
+				}
+				String name = reader.getLocalName();
+				if ("sst".equals(name)) {
+					if (strings == null) {
+						int count = XlsxXml.parseInt(reader.getAttributeValue(null, "uniqueCount"), 16);
+						strings = newStrings(count, cacheSize);
+					}
+				} else if ("si".equals(name)) {
+					if (strings == null) {
+						strings = newStrings(16, cacheSize);
+					}
+					strings.add(XlsxXml.readText(reader, "si"));
+				}
+			}
+			if (strings == null) {
+				strings = empty();
+			}
+			strings.complete();
+			ok = true;
+			return strings;
+		} finally {
+			reader.close();
+			if (!ok && strings != null) {
+				strings.close();
+			}
+		}
+	}
+
+	private static XlsxSharedStrings newStrings(int count, int cacheSize) throws IOException {
+		if (cacheSize > 0) {
+			return new XlsxMappedSharedStrings(count, cacheSize);
+		}
+		return new XlsxMemorySharedStrings(count);
+	}
+
+	/** 解析时按顺序添加 **/
+	abstract void add(String s) throws IOException;
+
+	/** 解析完成 **/
+	void complete() throws IOException {
+		// nope
+	}
+
+	/** 按序号取字符串，序号不存在返回null **/
+	public abstract String get(int index);
+
+	public abstract int size();
+
+	@Override
+	public void close() throws IOException {
+		// nope
+	}
+
+}
@@ -0,0 +1,347 @@
+package com.sunnysuperman.excel.xlsx;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import javax.xml.stream.XMLStreamException;
+
+import com.sunnysuperman.excel.ExcelException;
+
+/**
+ * 按行切分的表格部件：表格XML解压到临时文件一次，在row开始标签处切成大约chunkSize字节的块，各块可在多个线程中同时解析。
+ *
+ * 每块解析时前面拼上sheetData开始标签及之前的内容（含命名空间声明），后面拼上sheetData及根元素的结束标签。
+ * 除第一块外每块都从带行号（r属性）的行开始，块内没有行号的行按上一行顺延。用完需关闭（删除临时文件）
+ */
+public class XlsxSheetChunks implements Closeable {
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private final File file;
+	private final long length;
+	private final XlsxSharedStrings sharedStrings;
+	private final XlsxStyles styles;
+	private final boolean date1904;
+	private byte[] head; // sheetData开始标签及之前的内容
+	private byte[] tail; // sheetData及根元素的结束标签
+	private long[] starts = new long[16]; // 各块的开始位置，最后为sheetData内容的结束位置
+	private int[] firstRowNums = new int[16]; // 各块第一行的行号
+	private int size;
+	// 扫描时的读取窗口
+	private FileChannel channel;
+	private final byte[] window = new byte[BUFFER_SIZE];
+	private long windowStart;
+	private int windowLength;
+	private int foundRowNum; // findRowStart找到的行的行号
+
+	private XlsxSheetChunks(File file, long length, XlsxSharedStrings sharedStrings, XlsxStyles styles,
+			boolean date1904) {
+		this.file = file;
+		this.length = length;
+		this.sharedStrings = sharedStrings;
+		this.styles = styles;
+		this.date1904 = date1904;
+	}
+
+	/** 解压表格部件到临时文件并切块（不关闭输入流） **/
+	static XlsxSheetChunks split(InputStream in, long chunkSize, XlsxSharedStrings sharedStrings, XlsxStyles styles,
+			boolean date1904) throws IOException, ExcelException {
+		File file = File.createTempFile("ss-excel-sheet-", ".xml");
+		XlsxSheetChunks chunks = null;
+		try {
+			long length = 0;
+			try (OutputStream out = new FileOutputStream(file)) {
+				byte[] buf = new byte[BUFFER_SIZE];
+				int n;
+				while ((n = in.read(buf)) > 0) {
+					out.write(buf, 0, n);
+					length += n;
+				}
+			}
+			chunks = new XlsxSheetChunks(file, length, sharedStrings, styles, date1904);
+			try (FileChannel fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+				chunks.channel = fileChannel;
+				chunks.split(chunkSize);
+			} finally {
+				chunks.channel = null;
+			}
+			return chunks;
+		} finally {
+			if (chunks == null || chunks.head == null) {
+				file.delete();
+			}
+		}
+	}
+
+	private void split(long chunkSize) throws IOException, ExcelException {
+		// 根元素
+		long pos = findTagStart(0, length, null);
+		if (pos < 0) {
+			throw new ExcelException(ExcelException.ERROR_NOT_AN_EXCEL_FILE);
+		}
+		String rootName = readTagName(pos + 1);
+		// sheetData开始标签
+		pos = findTagStart(pos + 1, length, "sheetData");
+		if (pos < 0) {
+			throw new ExcelException(ExcelException.ERROR_NOT_AN_EXCEL_FILE);
+		}
+		String sheetDataName = readTagName(pos + 1);
+		long tagEnd = pos;
+		while (tagEnd < length && byteAt(tagEnd) != '>') {
+			tagEnd++;
+		}
+		if (tagEnd >= length) {
+			throw new ExcelException(ExcelException.ERROR_NOT_AN_EXCEL_FILE);
+		}
+		boolean empty = byteAt(tagEnd - 1) == '/';
+		long contentStart = tagEnd + 1;
+		// <sheetData/>没有行，不切块
+		long contentEnd = empty ? contentStart : findSheetDataEnd(sheetDataName, contentStart);
+		head = readBytes(0, (int) contentStart);
+		tail = ("</" + sheetDataName + "></" + rootName + ">").getBytes(StandardCharsets.UTF_8);
+
+		// 在row开始标签处切块
+		if (contentEnd > contentStart) {
+			addChunk(contentStart, 0);
+			pos = contentStart + chunkSize;
+			while (pos < contentEnd) {
+				long rowStart = findRowStart(pos, contentEnd);
+				if (rowStart < 0) {
+					break;
+				}
+				addChunk(rowStart, foundRowNum);
+				pos = rowStart + chunkSize;
+			}
+		}
+		starts = Arrays.copyOf(starts, size + 1);
+		starts[size] = contentEnd;
+	}
+
+	private void addChunk(long start, int firstRowNum) {
+		if (size + 1 >= starts.length) {
+			starts = Arrays.copyOf(starts, starts.length * 2);
+			firstRowNums = Arrays.copyOf(firstRowNums, firstRowNums.length * 2);
+		}
+		starts[size] = start;
+		firstRowNums[size] = firstRowNum;
+		size++;
+	}
+
+	/** sheetData结束标签的位置：从文件末尾往前找（之后通常只有合并单元格等少量内容） **/
+	private long findSheetDataEnd(String sheetDataName, long contentStart) throws IOException, ExcelException {
+		byte[] endTag = ("</" + sheetDataName + ">").getBytes(StandardCharsets.UTF_8);
+		for (long i = length - endTag.length; i >= contentStart; i--) {
+			if (byteAt(i) == '<' && matches(i, endTag)) {
+				return i;
+			}
+		}
+		throw new ExcelException(ExcelException.ERROR_NOT_AN_EXCEL_FILE);
+	}
+
+	private boolean matches(long pos, byte[] target) throws IOException {
+		for (int k = 0; k < target.length; k++) {
+			if (byteAt(pos + k) != target[k]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/** 从pos开始找元素开始标签（跳过声明、注释及结束标签），localName为null时找任意元素 **/
+	private long findTagStart(long pos, long end, String localName) throws IOException {
+		for (long i = pos; i < end; i++) {
+			if (byteAt(i) != '<' || i + 1 >= end) {
+				continue;
+			}
+			byte next = byteAt(i + 1);
+			if (next == '?' || next == '!' || next == '/') {
+				continue;
+			}
+			if (localName == null || localName.equals(toLocalName(readTagName(i + 1)))) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/** 从pos开始找带行号的row开始标签，返回其位置（行号存到foundRowNum），没有返回-1 **/
+	private long findRowStart(long pos, long end) throws IOException {
+		while (true) {
+			long start = findTagStart(pos, end, "row");
+			if (start < 0) {
+				return -1;
+			}
+			int rowNum = readRowNum(start, end);
+			if (rowNum >= 0) {
+				foundRowNum = rowNum;
+				return start;
+			}
+			pos = start + 1;
+		}
+	}
+
+	/** row开始标签中r属性的行号（从0开始），没有返回-1 **/
+	private int readRowNum(long start, long end) throws IOException {
+		byte prev = 0;
+		for (long i = start; i + 1 < end; i++) {
+			byte b = byteAt(i);
+			if (b == '>') {
+				return -1;
+			}
+			if (b == 'r' && isSpace(prev)) {
+				long j = i + 1;
+				while (j < end && isSpace(byteAt(j))) {
+					j++;
+				}
+				if (j < end && byteAt(j) == '=') {
+					j++;
+					while (j < end && isSpace(byteAt(j))) {
+						j++;
+					}
+					if (j < end && (byteAt(j) == '"' || byteAt(j) == '\'')) {
+						int value = 0;
+						int digits = 0;
+						for (j++; j < end && byteAt(j) >= '0' && byteAt(j) <= '9'; j++) {
+							value = value * 10 + (byteAt(j) - '0');
+							digits++;
+						}
+						return digits > 0 && value > 0 ? value - 1 : -1;
+					}
+				}
+			}
+			prev = b;
+		}
+		return -1;
+	}
+
+	private static boolean isSpace(byte b) {
+		return b == ' ' || b == '\t' || b == '\r' || b == '\n';
+	}
+
+	private String readTagName(long pos) throws IOException {
+		StringBuilder name = new StringBuilder();
+		for (long i = pos; i < length; i++) {
+			byte b = byteAt(i);
+			if (isSpace(b) || b == '>' || b == '/') {
+				break;
+			}
+			name.append((char) b);
+		}
+		return name.toString();
+	}
+
+	private static String toLocalName(String name) {
+		return name.substring(name.indexOf(':') + 1);
+	}
+
+	/** 读取窗口中的字节（往后读时窗口从pos开始，紧挨着往前读时窗口到pos结束） **/
+	private byte byteAt(long pos) throws IOException {
+		if (pos < windowStart || pos >= windowStart + windowLength) {
+			boolean backward = pos < windowStart && pos >= windowStart - BUFFER_SIZE;
+			windowStart = backward ? Math.max(pos + 1 - BUFFER_SIZE, 0) : pos;
+			windowLength = 0;
+			ByteBuffer buffer = ByteBuffer.wrap(window);
+			int n;
+			while (buffer.hasRemaining() && (n = channel.read(buffer, windowStart + buffer.position())) >= 0) {
+				windowLength += n;
+			}
+		}
+		if (pos >= windowStart + windowLength) {
+			throw new IOException("EOF");
+		}
+		return window[(int) (pos - windowStart)];
+	}
+
+	private byte[] readBytes(long pos, int len) throws IOException {
+		byte[] bytes = new byte[len];
+		ByteBuffer buffer = ByteBuffer.wrap(bytes);
+		while (buffer.hasRemaining() && channel.read(buffer, pos + buffer.position()) >= 0) {
+			// 读满
+		}
+		return bytes;
+	}
+
+	/** 块数 **/
+	public int size() {
+		return size;
+	}
+
+	/** 第index块第一行的行号（第一块为0） **/
+	public int getFirstRowNum(int index) {
+		return firstRowNums[index];
+	}
+
+	/** 解压后的表格部件字节数 **/
+	public long getLength() {
+		return length;
+	}
+
+	/** 打开第index块逐行读取，用完需关闭（各块可在多个线程中同时读取） **/
+	public XlsxSheetReader openChunk(int index) throws ExcelException {
+		if (index < 0 || index >= size) {
+			throw new IllegalArgumentException("index");
+		}
+		InputStream in = null;
+		try {
+			in = new SequenceInputStream(new ByteArrayInputStream(head), new SequenceInputStream(
+					new RegionInputStream(file, starts[index], starts[index + 1]), new ByteArrayInputStream(tail)));
+			return new XlsxSheetReader(in, sharedStrings, styles, date1904);
+		} catch (IOException | XMLStreamException e) {
+			XlsxPackage.closeQuietly(in);
+			throw new ExcelException(ExcelException.ERROR_NOT_AN_EXCEL_FILE);
+		}
+	}
+
+	/** 删除临时文件 **/
+	@Override
+	public void close() {
+		file.delete();
+	}
+
+	/** 文件中[start, end)的内容 **/
+	private static class RegionInputStream extends InputStream {
+		private final FileChannel channel;
+		private long pos;
+		private final long end;
+
+		RegionInputStream(File file, long start, long end) throws IOException {
+			this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+			this.pos = start;
+			this.end = end;
+		}
+
+		@Override
+		public int read() throws IOException {
+			byte[] b = new byte[1];
+			return read(b, 0, 1) < 0 ? -1 : b[0] & 0xFF;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (pos >= end) {
+				return -1;
+			}
+			int n = channel.read(ByteBuffer.wrap(b, off, (int) Math.min(len, end - pos)), pos);
+			if (n > 0) {
+				pos += n;
+			}
+			return n;
+		}
+
+		@Override
+		public void close() throws IOException {
+			channel.close();
+		}
+	}
+
+}
@@ -0,0 +1,343 @@
+package com.sunnysuperman.excel.xlsx;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 原样拷贝表格XML（按字节扫描，不解析单元格内容），只在行尾追加单元格：行号不存在的行按顺序插入，dimension元素去掉（追加列后不再准确）。
+ *
+ * 追加的单元格需在该行已有的最后一个单元格之后，否则跳过（单元格引用重复或乱序时Excel会报文件损坏）
+ */
+class XlsxSheetCopier {
+	private static final int MAX_NAME_LENGTH = 64;
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private final InputStream in;
+	private final byte[] inBuf = new byte[BUFFER_SIZE];
+	private int inPos;
+	private int inLimit;
+	private final OutputStream out;
+	private final XlsxAppendedCells cells;
+	private final byte[] name = new byte[MAX_NAME_LENGTH];
+	private final ByteBuffer tag = new ByteBuffer();
+	private final StringBuilder buf = new StringBuilder();
+	private boolean hasCell;
+	private int rowNum = -1;
+	private int lastColumn = -1; // 当前行最后一个单元格的列号
+	private String prefix = "";
+
+	XlsxSheetCopier(InputStream in, OutputStream out, XlsxAppendedCells cells) {
+		this.in = in;
+		this.out = new BufferedOutputStream(out, BUFFER_SIZE);
+		this.cells = cells;
+	}
+
+	void copy() throws IOException {
+		hasCell = cells.next();
+		while (inPos < inLimit || fill()) {
+			// 标签之间的内容整段拷贝
+			int start = inPos;
+			while (inPos < inLimit && inBuf[inPos] != '<') {
+				inPos++;
+			}
+			out.write(inBuf, start, inPos - start);
+			if (inPos < inLimit) {
+				inPos++;
+				copyTag();
+			}
+		}
+		out.flush();
+	}
+
+	private boolean fill() throws IOException {
+		int n = in.read(inBuf, 0, inBuf.length);
+		inPos = 0;
+		inLimit = Math.max(n, 0);
+		return n > 0;
+	}
+
+	private int read() throws IOException {
+		if (inPos == inLimit && !fill()) {
+			return -1;
+		}
+		return inBuf[inPos++] & 0xff;
+	}
+
+	private void copyTag() throws IOException {
+		int first = read();
+		if (first == '!' || first == '?') {
+			// 注释、CDATA、处理指令原样拷贝
+			out.write('<');
+			out.write(first);
+			copyUntilTagEnd(first);
+			return;
+		}
+		boolean endTag = first == '/';
+		int nameLength = 0;
+		int b = endTag ? read() : first;
+		while (b != -1 && b != '>' && b != '/' && b > ' ' && nameLength < MAX_NAME_LENGTH) {
+			name[nameLength++] = (byte) b;
+			b = read();
+		}
+		int localStart = 0;
+		for (int i = 0; i < nameLength; i++) {
+			if (name[i] == ':') {
+				localStart = i + 1;
+			}
+		}
+		String localName = new String(name, localStart, nameLength - localStart, StandardCharsets.US_ASCII);
+		if (endTag) {
+			if ("row".equals(localName)) {
+				appendCells(rowNum);
+			} else if ("sheetData".equals(localName)) {
+				insertRows(Integer.MAX_VALUE);
+			}
+			writeTagStart(true, nameLength);
+			if (b != -1) {
+				out.write(b);
+			}
+			return;
+		}
+		if ("dimension".equals(localName)) {
+			readTag(b);
+			return;
+		}
+		if ("sheetData".equals(localName)) {
+			prefix = new String(name, 0, localStart, StandardCharsets.US_ASCII);
+		} else if ("row".equals(localName)) {
+			readTag(b);
+			copyRow(nameLength);
+			return;
+		} else if ("c".equals(localName)) {
+			// 记下单元格的列号（没有r属性的单元格接着上一个）
+			readTag(b);
+			int column = tag.getColumnAttribute("r");
+			lastColumn = column >= 0 ? column : lastColumn + 1;
+			writeTagStart(false, nameLength);
+			out.write(tag.bytes, 0, tag.length);
+			return;
+		}
+		writeTagStart(false, nameLength);
+		if (b != -1) {
+			out.write(b);
+		}
+	}
+
+	private void copyRow(int nameLength) throws IOException {
+		int r = tag.getIntAttribute("r");
+		int newRowNum = r > 0 ? r - 1 : rowNum + 1;
+		insertRows(newRowNum);
+		rowNum = newRowNum;
+		lastColumn = -1;
+		boolean selfClosing = tag.endsWithSlash();
+		writeTagStart(false, nameLength);
+		if (selfClosing && hasCell && cells.getRowNum() == rowNum) {
+			// 空行转为非空行
+			out.write(tag.bytes, 0, tag.length - 2);
+			out.write('>');
+			appendCells(rowNum);
+			out.write('<');
+			out.write('/');
+			out.write(name, 0, nameLength);
+			out.write('>');
+		} else {
+			out.write(tag.bytes, 0, tag.length);
+		}
+	}
+
+	private void writeTagStart(boolean endTag, int nameLength) throws IOException {
+		out.write('<');
+		if (endTag) {
+			out.write('/');
+		}
+		out.write(name, 0, nameLength);
+	}
+
+	/** 读取标签剩余部分（至'>'，含'>'），引号内的'>'不算 **/
+	private void readTag(int b) throws IOException {
+		tag.length = 0;
+		int quote = 0;
+		while (b != -1) {
+			tag.write(b);
+			if (quote != 0) {
+				if (b == quote) {
+					quote = 0;
+				}
+			} else if (b == '"' || b == '\'') {
+				quote = b;
+			} else if (b == '>') {
+				break;
+			}
+			b = read();
+		}
+	}
+
+	private void copyUntilTagEnd(int first) throws IOException {
+		// <!-- ... -->、<![CDATA[ ... ]]> 需匹配结束符，其余（<?...?>、<!DOCTYPE>）到'>'为止
+		int b1 = read();
+		if (b1 == -1) {
+			return;
+		}
+		out.write(b1);
+		String end = ">";
+		if (first == '!' && b1 == '-') {
+			end = "-->";
+		} else if (first == '!' && b1 == '[') {
+			end = "]]>";
+		}
+		if (b1 == '>' && end.length() == 1) {
+			return;
+		}
+		int matched = 0;
+		int b;
+		while ((b = read()) != -1) {
+			out.write(b);
+			if (b == end.charAt(matched)) {
+				if (++matched == end.length()) {
+					return;
+				}
+			} else {
+				matched = b == end.charAt(0) ? 1 : 0;
+			}
+		}
+	}
+
+	/** 插入行号小于untilRowNum且源表格中不存在的行 **/
+	private void insertRows(int untilRowNum) throws IOException {
+		while (hasCell && cells.getRowNum() < untilRowNum) {
+			int insertRowNum = cells.getRowNum();
+			if (insertRowNum <= rowNum) {
+				// 已写过的行，丢弃
+				hasCell = cells.next();
+				continue;
+			}
+			write("<" + prefix + "row r=\"" + (insertRowNum + 1) + "\">");
+			lastColumn = -1;
+			appendCells(insertRowNum);
+			write("</" + prefix + "row>");
+		}
+	}
+
+	private void appendCells(int appendRowNum) throws IOException {
+		while (hasCell && cells.getRowNum() == appendRowNum) {
+			appendCell(appendRowNum, cells.getColumn(), cells.getValue());
+			hasCell = cells.next();
+		}
+	}
+
+	private void appendCell(int cellRowNum, int column, Object value) throws IOException {
+		if (value == null || column <= lastColumn) {
+			return;
+		}
+		lastColumn = column;
+		buf.setLength(0);
+		buf.append('<').append(prefix).append("c r=\"").append(XlsxXml.columnName(column)).append(cellRowNum + 1)
+				.append('"');
+		if (value instanceof Number) {
+			double d = ((Number) value).doubleValue();
+			buf.append("><").append(prefix).append("v>");
+			if (d == Math.rint(d) && Math.abs(d) < 1e15) {
+				buf.append((long) d);
+			} else {
+				buf.append(d);
+			}
+			buf.append("</").append(prefix).append("v>");
+		} else if (value instanceof Boolean) {
+			buf.append(" t=\"b\"><").append(prefix).append("v>").append((Boolean) value ? '1' : '0').append("</")
+					.append(prefix).append("v>");
+		} else {
+			String s = value.toString();
+			buf.append(" t=\"inlineStr\"><").append(prefix).append("is><").append(prefix).append('t');
+			if (XlsxXml.needsPreserveSpace(s)) {
+				buf.append(" xml:space=\"preserve\"");
+			}
+			buf.append('>');
+			XlsxXml.escape(s, buf);
+			buf.append("</").append(prefix).append("t></").append(prefix).append("is>");
+		}
+		buf.append("</").append(prefix).append("c>");
+		write(buf.toString());
+	}
+
+	private void write(String s) throws IOException {
+		out.write(s.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static class ByteBuffer {
+		private byte[] bytes = new byte[256];
+		private int length;
+
+		void write(int b) {
+			if (length == bytes.length) {
+				byte[] newBytes = new byte[length * 2];
+				System.arraycopy(bytes, 0, newBytes, 0, length);
+				bytes = newBytes;
+			}
+			bytes[length++] = (byte) b;
+		}
+
+		boolean endsWithSlash() {
+			return length >= 2 && bytes[length - 1] == '>' && bytes[length - 2] == '/';
+		}
+
+		/** 取整数属性值，不存在返回-1 **/
+		int getIntAttribute(String attribute) {
+			int start = findAttribute(attribute);
+			if (start < 0) {
+				return -1;
+			}
+			byte quote = bytes[start - 1];
+			int value = 0;
+			for (int k = start; k < length && bytes[k] != quote; k++) {
+				int digit = bytes[k] - '0';
+				if (digit < 0 || digit > 9) {
+					return -1;
+				}
+				value = value * 10 + digit;
+			}
+			return value;
+		}
+
+		/** 取单元格引用属性（如“AB12”）的列号（从0开始），不存在返回-1 **/
+		int getColumnAttribute(String attribute) {
+			int start = findAttribute(attribute);
+			if (start < 0) {
+				return -1;
+			}
+			int column = 0;
+			int k = start;
+			for (; k < length && bytes[k] >= 'A' && bytes[k] <= 'Z'; k++) {
+				column = column * 26 + (bytes[k] - 'A' + 1);
+			}
+			return k == start ? -1 : column - 1;
+		}
+
+		/** 属性值（引号之后）的开始位置，不存在返回-1 **/
+		private int findAttribute(String attribute) {
+			int attrLength = attribute.length();
+			for (int i = 0; i + attrLength + 2 < length; i++) {
+				byte prev = bytes[i];
+				if (prev > ' ') {
+					continue;
+				}
+				boolean match = true;
+				for (int j = 0; j < attrLength; j++) {
+					if (bytes[i + 1 + j] != attribute.charAt(j)) {
+						match = false;
+						break;
+					}
+				}
+				int p = i + 1 + attrLength;
+				if (!match || bytes[p] != '=') {
+					continue;
+				}
+				return p + 2;
+			}
+			return -1;
+		}
+	}
+
+}
@@ -0,0 +1,224 @@
+package com.sunnysuperman.excel.xlsx;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import com.sunnysuperman.excel.ExcelException;
+import com.sunnysuperman.excel.RawCell;
+import com.sunnysuperman.excel.RawRow;
+import com.sunnysuperman.excel.RawRowSource;
+
+/**
+ * 表格部件（sheetN.xml）的StAX逐行读取，直接把单元格解码到复用的RawRow中
+ */
+public class XlsxSheetReader implements RawRowSource {
+	private final CountingInputStream in;
+	private final XMLStreamReader reader;
+	private final XlsxSharedStrings sharedStrings;
+	private final XlsxStyles styles;
+	private final boolean date1904;
+	private int lastRowNum = -1;
+	private int skipToRowNum; // 行号小于此值的行不解码
+	private boolean[] projection; // 需要解码的列，null为全部列
+
+	XlsxSheetReader(InputStream in, XlsxSharedStrings sharedStrings, XlsxStyles styles, boolean date1904)
+			throws XMLStreamException {
+		this.in = new CountingInputStream(in);
+		this.reader = XlsxXml.newReader(this.in);
+		this.sharedStrings = sharedStrings;
+		this.styles = styles;
+		this.date1904 = date1904;
+	}
+
+	@Override
+	public void setProjection(int[] cellIndexes) {
+		if (cellIndexes == null) {
+			projection = null;
+			return;
+		}
+		int max = -1;
+		for (int index : cellIndexes) {
+			max = Math.max(max, index);
+		}
+		projection = new boolean[max + 1];
+		for (int index : cellIndexes) {
+			if (index >= 0) {
+				projection[index] = true;
+			}
+		}
+	}
+
+	@Override
+	public void skipTo(int rowNum) {
+		skipToRowNum = rowNum;
+	}
+
+	@Override
+	public long getBytesRead() {
+		return in.count;
+	}
+
+	@Override
+	public boolean nextRow(RawRow row) throws ExcelException {
+		try {
+			while (reader.hasNext()) {
+				if (reader.next() == XMLStreamConstants.START_ELEMENT && "row".equals(reader.getLocalName())) {
+					String ref = reader.getAttributeValue(null, "r");
+					int rowNum = ref == null ? lastRowNum + 1 : Integer.parseInt(ref) - 1;
+					lastRowNum = rowNum;
+					if (rowNum < skipToRowNum) {
+						// 跳过的行：不读取单元格
+						XlsxXml.skipElement(reader);
+						continue;
+					}
+					readRow(row, rowNum);
+					return true;
+				}
+			}
+			return false;
+		} catch (XMLStreamException | NumberFormatException e) {
+			throw new ExcelException(ExcelException.ERROR_NOT_AN_EXCEL_FILE);
+		}
+	}
+
+	private void readRow(RawRow row, int rowNum) throws XMLStreamException {
+		row.reset(rowNum);
+		int lastCellIndex = -1;
+		while (reader.hasNext()) {
+			int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				if ("c".equals(reader.getLocalName())) {
+					lastCellIndex = readCell(row, lastCellIndex);
+				} else {
+					XlsxXml.skipElement(reader);
+				}
+			} else if (event == XMLStreamConstants.END_ELEMENT && "row".equals(reader.getLocalName())) {
+				break;
+			}
+		}
+	}
+
+	private int readCell(RawRow row, int lastCellIndex) throws XMLStreamException {
+		String ref = reader.getAttributeValue(null, "r");
+		int cellIndex = ref == null ? lastCellIndex + 1 : parseCellIndex(ref);
+		if (projection != null && (cellIndex >= projection.length || !projection[cellIndex])) {
+			// 未映射的列：不读取值、不查共享字符串、不解析数字及样式
+			XlsxXml.skipElement(reader);
+			return cellIndex;
+		}
+		String type = reader.getAttributeValue(null, "t");
+		String style = reader.getAttributeValue(null, "s");
+		String value = null;
+		while (reader.hasNext()) {
+			int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				String name = reader.getLocalName();
+				if ("v".equals(name)) {
+					value = reader.getElementText();
+				} else if ("is".equals(name)) {
+					value = XlsxXml.readText(reader, "is");
+				} else {
+					// 公式等（取缓存的计算结果）
+					XlsxXml.skipElement(reader);
+				}
+			} else if (event == XMLStreamConstants.END_ELEMENT && "c".equals(reader.getLocalName())) {
+				break;
+			}
+		}
+		decodeCell(row.newCell(cellIndex), type, style, value);
+		return cellIndex;
+	}
+
+	private void decodeCell(RawCell cell, String type, String style, String value) {
+		if (value == null) {
+			cell.setBlank();
+			return;
+		}
+		if (type == null || "n".equals(type)) {
+			if (value.isEmpty()) {
+				cell.setBlank();
+			} else {
+				cell.setNumeric(Double.parseDouble(value), styles.isDateStyle(XlsxXml.parseInt(style, 0)), date1904);
+			}
+			return;
+		}
+		switch (type) {
+		case "s":
+			cell.setString(sharedStrings.get(Integer.parseInt(value.trim())));
+			break;
+		case "b":
+			cell.setBoolean("1".equals(value) || "true".equalsIgnoreCase(value));
+			break;
+		case "e":
+			cell.setError(value);
+			break;
+		default:
+			// str(公式字符串结果)、inlineStr、d(ISO8601日期)
+			cell.setString(value);
+			break;
+		}
+	}
+
+	/** 单元格引用（如AB12）转列号（从0开始） **/
+	static int parseCellIndex(String ref) {
+		int index = 0;
+		for (int i = 0; i < ref.length(); i++) {
+			char c = ref.charAt(i);
+			if (c < 'A' || c > 'Z') {
+				break;
+			}
+			index = index * 26 + (c - 'A' + 1);
+		}
+		return index - 1;
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			reader.close();
+		} catch (XMLStreamException e) {
+			// ignore
+		}
+		in.close();
+	}
+
+	/** 统计读取的字节数（解析器按块读取，开销可忽略） **/
+	private static class CountingInputStream extends FilterInputStream {
+		long count;
+
+		CountingInputStream(InputStream in) {
+			super(in);
+		}
+
+		@Override
+		public int read() throws IOException {
+			int b = super.read();
+			if (b >= 0) {
+				count++;
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int n = super.read(b, off, len);
+			if (n > 0) {
+				count += n;
+			}
+			return n;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			long skipped = super.skip(n);
+			count += skipped;
+			return skipped;
+		}
+	}
+
+}
@@ -0,0 +1,74 @@
+package com.sunnysuperman.excel.xlsx;
+
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.poi.ss.usermodel.BuiltinFormats;
+import org.apache.poi.ss.usermodel.DateUtil;
+
+/**
+ * 样式表（styles.xml），只关心单元格样式是否为日期格式，解析时每个样式判断一次
+ */
+public class XlsxStyles {
+	private final boolean[] dateStyles;
+
+	private XlsxStyles(boolean[] dateStyles) {
+		this.dateStyles = dateStyles;
+	}
+
+	static XlsxStyles empty() {
+		return new XlsxStyles(new boolean[0]);
+	}
+
+	static XlsxStyles parse(InputStream in) throws XMLStreamException {
+		XMLStreamReader reader = XlsxXml.newReader(in);
+		try {
+			Map<Integer, String> numFmts = new HashMap<>();
+			boolean[] dateStyles = new boolean[16];
+			int xfNum = 0;
+			boolean inCellXfs = false;
+			while (reader.hasNext()) {
+				int event = reader.next();
+				if (event == XMLStreamConstants.START_ELEMENT) {
+					String name = reader.getLocalName();
+					if ("numFmt".equals(name)) {
+						int id = XlsxXml.parseInt(reader.getAttributeValue(null, "numFmtId"), -1);
+						numFmts.put(id, reader.getAttributeValue(null, "formatCode"));
+					} else if ("cellXfs".equals(name)) {
+						inCellXfs = true;
+					} else if ("xf".equals(name) && inCellXfs) {
+						int id = XlsxXml.parseInt(reader.getAttributeValue(null, "numFmtId"), 0);
+						String format = numFmts.get(id);
+						if (format == null) {
+							format = BuiltinFormats.getBuiltinFormat(id);
+						}
+						if (xfNum >= dateStyles.length) {
+							boolean[] newStyles = new boolean[dateStyles.length * 2];
+							System.arraycopy(dateStyles, 0, newStyles, 0, dateStyles.length);
+							dateStyles = newStyles;
+						}
+						dateStyles[xfNum++] = format != null && DateUtil.isADateFormat(id, format);
+						XlsxXml.skipElement(reader);
+					}
+				} else if (event == XMLStreamConstants.END_ELEMENT && "cellXfs".equals(reader.getLocalName())) {
+					break;
+				}
+			}
+			boolean[] result = new boolean[xfNum];
+			System.arraycopy(dateStyles, 0, result, 0, xfNum);
+			return new XlsxStyles(result);
+		} finally {
+			reader.close();
+		}
+	}
+
+	public boolean isDateStyle(int styleIndex) {
+		return styleIndex >= 0 && styleIndex < dateStyles.length && dateStyles[styleIndex];
+	}
+
+}
@@ -0,0 +1,354 @@
+package com.sunnysuperman.excel.xlsx;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.BuiltinFormats;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.ss.usermodel.VerticalAlignment;
+
+import com.sunnysuperman.excel.ExcelStyle;
+
+/**
+ * 直接写xlsx：表格XML边生成边写入zip输出流，字符串内联（inlineStr），样式预先登记、最后写出，不创建POI的对象模型，也没有临时文件。
+ * 
+ * <pre>
+ * writer.startRow(0);
+ * writer.writeString(0, "手机号");
+ * writer.endRow();
+ * ...
+ * writer.finish();
+ * </pre>
+ * 
+ * 同一行内单元格需按列号递增写入
+ */
+public class XlsxWriter implements Closeable {
+	private static final String NS_MAIN = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+	private static final String NS_REL = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+	private static final String NS_PACKAGE_REL = "http://schemas.openxmlformats.org/package/2006/relationships";
+	private static final String XML_DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+	private static final int MAX_ROW_INDEX = SpreadsheetVersion.EXCEL2007.getLastRowIndex();
+	private static final int FIRST_CUSTOM_NUM_FMT_ID = 164;
+
+	private final ZipOutputStream zip;
+	private final Writer writer;
+	private final String sheetName;
+	private final List<ExcelStyle> styles = new ArrayList<>(); // 登记的样式（下标+1为样式序号）
+	private final Map<ExcelStyle, Integer> styleIndexes = new HashMap<>();
+	private final List<String> numFmts = new ArrayList<>(); // 自定义数字格式（下标+164为格式序号）
+	private final List<ExcelStyle> fonts = new ArrayList<>(); // 非默认字体（下标+1为字体序号）
+	private String[] columnNames = new String[16];
+	private String rowRef;
+	private int lastRowNum = -1;
+	private boolean finished;
+
+	/**
+	 * @param compressionLevel zip压缩级别，见java.util.zip.Deflater，-1为默认级别
+	 */
+	public XlsxWriter(OutputStream out, String sheetName, int compressionLevel) throws IOException {
+		this.zip = new ZipOutputStream(out);
+		this.zip.setLevel(compressionLevel);
+		this.writer = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8), 64 * 1024);
+		this.sheetName = sheetName == null ? "Sheet1" : sheetName;
+		zip.putNextEntry(new ZipEntry("xl/worksheets/sheet1.xml"));
+		writer.write(XML_DECLARATION);
+		writer.write("<worksheet xmlns=\"" + NS_MAIN + "\"><sheetData>");
+	}
+
+	/** 登记数字格式样式，返回样式序号（相同格式只登记一次） **/
+	public int getNumberFormatStyle(String format) {
+		return getStyle(new ExcelStyle().setDataFormat(format));
+	}
+
+	/** 登记样式，返回样式序号（相同样式只登记一次），样式表在finish()时写出 **/
+	public int getStyle(ExcelStyle style) {
+		Integer index = styleIndexes.get(style);
+		if (index == null) {
+			ExcelStyle copy = style.copy();
+			styles.add(copy);
+			index = styles.size();
+			styleIndexes.put(copy, index);
+		}
+		return index;
+	}
+
+	private int getNumFmtId(String format) {
+		if (format == null) {
+			return 0;
+		}
+		int id = BuiltinFormats.getBuiltinFormat(format);
+		if (id >= 0) {
+			return id;
+		}
+		int index = numFmts.indexOf(format);
+		if (index < 0) {
+			numFmts.add(format);
+			index = numFmts.size() - 1;
+		}
+		return FIRST_CUSTOM_NUM_FMT_ID + index;
+	}
+
+	private int getFontId(ExcelStyle style) {
+		if (!style.hasFont()) {
+			return 0;
+		}
+		for (int i = 0; i < fonts.size(); i++) {
+			if (fonts.get(i).isSameFont(style)) {
+				return i + 1;
+			}
+		}
+		fonts.add(style);
+		return fonts.size();
+	}
+
+	public void startRow(int rowNum) throws IOException {
+		if (rowNum <= lastRowNum || rowNum > MAX_ROW_INDEX) {
+			throw new IllegalArgumentException("rowNum");
+		}
+		lastRowNum = rowNum;
+		rowRef = Integer.toString(rowNum + 1);
+		writer.write("<row r=\"");
+		writer.write(rowRef);
+		writer.write("\">");
+	}
+
+	public void endRow() throws IOException {
+		writer.write("</row>");
+	}
+
+	public void writeString(int column, String value) throws IOException {
+		writeString(column, value, 0);
+	}
+
+	public void writeString(int column, String value, int style) throws IOException {
+		startCell(column, style);
+		if (XlsxXml.needsPreserveSpace(value)) {
+			writer.write(" t=\"inlineStr\"><is><t xml:space=\"preserve\">");
+		} else {
+			writer.write(" t=\"inlineStr\"><is><t>");
+		}
+		writeEscaped(value);
+		writer.write("</t></is></c>");
+	}
+
+	public void writeNumber(int column, long value, int style) throws IOException {
+		startCell(column, style);
+		writer.write("><v>");
+		writer.write(Long.toString(value));
+		writer.write("</v></c>");
+	}
+
+	public void writeNumber(int column, double value, int style) throws IOException {
+		if (Double.isNaN(value) || Double.isInfinite(value)) {
+			startCell(column, style);
+			writer.write(" t=\"e\"><v>#NUM!</v></c>");
+			return;
+		}
+		if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+			writeNumber(column, (long) value, style);
+			return;
+		}
+		startCell(column, style);
+		writer.write("><v>");
+		writer.write(Double.toString(value));
+		writer.write("</v></c>");
+	}
+
+	public void writeBoolean(int column, boolean value) throws IOException {
+		writeBoolean(column, value, 0);
+	}
+
+	public void writeBoolean(int column, boolean value, int style) throws IOException {
+		startCell(column, style);
+		writer.write(value ? " t=\"b\"><v>1</v></c>" : " t=\"b\"><v>0</v></c>");
+	}
+
+	/** 按系统时区转为Excel日期数值，style需为日期格式的样式 **/
+	public void writeDate(int column, Date value, int style) throws IOException {
+		writeNumber(column, DateUtil.getExcelDate(value), style);
+	}
+
+	private void startCell(int column, int style) throws IOException {
+		writer.write("<c r=\"");
+		writer.write(getColumnName(column));
+		writer.write(rowRef);
+		if (style > 0) {
+			writer.write("\" s=\"");
+			writer.write(Integer.toString(style));
+		}
+		writer.write('"');
+	}
+
+	private String getColumnName(int column) {
+		if (column >= columnNames.length) {
+			String[] newColumnNames = new String[Math.max(column + 1, columnNames.length * 2)];
+			System.arraycopy(columnNames, 0, newColumnNames, 0, columnNames.length);
+			columnNames = newColumnNames;
+		}
+		String name = columnNames[column];
+		if (name == null) {
+			name = XlsxXml.columnName(column);
+			columnNames[column] = name;
+		}
+		return name;
+	}
+
+	private void writeEscaped(String s) throws IOException {
+		XlsxXml.escape(s, writer);
+	}
+
+	/** 结束表格并写出工作簿其余部件，不关闭底层输出流 **/
+	public void finish() throws IOException {
+		if (finished) {
+			return;
+		}
+		finished = true;
+		writer.write("</sheetData></worksheet>");
+		writer.flush();
+		zip.closeEntry();
+
+		writeEntry("[Content_Types].xml",
+				"<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">"
+						+ "<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>"
+						+ "<Default Extension=\"xml\" ContentType=\"application/xml\"/>"
+						+ "<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>"
+						+ "<Override PartName=\"/xl/worksheets/sheet1.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>"
+						+ "<Override PartName=\"/xl/styles.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.styles+xml\"/>"
+						+ "</Types>");
+		writeEntry("_rels/.rels",
+				"<Relationships xmlns=\"" + NS_PACKAGE_REL + "\">" + "<Relationship Id=\"rId1\" Type=\"" + NS_REL
+						+ "/officeDocument\" Target=\"xl/workbook.xml\"/>" + "</Relationships>");
+		writeEntry("xl/_rels/workbook.xml.rels",
+				"<Relationships xmlns=\"" + NS_PACKAGE_REL + "\">" + "<Relationship Id=\"rId1\" Type=\"" + NS_REL
+						+ "/worksheet\" Target=\"worksheets/sheet1.xml\"/>" + "<Relationship Id=\"rId2\" Type=\""
+						+ NS_REL + "/styles\" Target=\"styles.xml\"/>" + "</Relationships>");
+
+		zip.putNextEntry(new ZipEntry("xl/workbook.xml"));
+		writer.write(XML_DECLARATION);
+		writer.write("<workbook xmlns=\"" + NS_MAIN + "\" xmlns:r=\"" + NS_REL + "\"><sheets><sheet name=\"");
+		writeEscaped(sheetName);
+		writer.write("\" sheetId=\"1\" r:id=\"rId1\"/></sheets></workbook>");
+		writer.flush();
+		zip.closeEntry();
+
+		writeStyles();
+		zip.finish();
+		zip.flush();
+	}
+
+	private void writeStyles() throws IOException {
+		int[] numFmtIds = new int[styles.size()];
+		int[] fontIds = new int[styles.size()];
+		for (int i = 0; i < styles.size(); i++) {
+			numFmtIds[i] = getNumFmtId(styles.get(i).getDataFormat());
+			fontIds[i] = getFontId(styles.get(i));
+		}
+
+		zip.putNextEntry(new ZipEntry("xl/styles.xml"));
+		writer.write(XML_DECLARATION);
+		writer.write("<styleSheet xmlns=\"" + NS_MAIN + "\">");
+		if (!numFmts.isEmpty()) {
+			writer.write("<numFmts count=\"" + numFmts.size() + "\">");
+			for (int i = 0; i < numFmts.size(); i++) {
+				writer.write("<numFmt numFmtId=\"" + (FIRST_CUSTOM_NUM_FMT_ID + i) + "\" formatCode=\"");
+				writeEscaped(numFmts.get(i));
+				writer.write("\"/>");
+			}
+			writer.write("</numFmts>");
+		}
+		writer.write(
+				"<fonts count=\"" + (fonts.size() + 1) + "\"><font><sz val=\"11\"/><name val=\"Calibri\"/></font>");
+		for (ExcelStyle font : fonts) {
+			writer.write(font.isBold() ? "<font><b/><sz val=\"" : "<font><sz val=\"");
+			writer.write(Integer.toString(font.getFontSize() > 0 ? font.getFontSize() : 11));
+			writer.write("\"/><name val=\"");
+			writeEscaped(font.getFontName() == null ? "Calibri" : font.getFontName());
+			writer.write("\"/></font>");
+		}
+		writer.write("</fonts>"
+				+ "<fills count=\"2\"><fill><patternFill patternType=\"none\"/></fill><fill><patternFill patternType=\"gray125\"/></fill></fills>"
+				+ "<borders count=\"1\"><border><left/><right/><top/><bottom/><diagonal/></border></borders>"
+				+ "<cellStyleXfs count=\"1\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\"/></cellStyleXfs>");
+		writer.write("<cellXfs count=\"" + (styles.size() + 1) + "\">");
+		writer.write("<xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\"/>");
+		for (int i = 0; i < styles.size(); i++) {
+			writeXf(styles.get(i), numFmtIds[i], fontIds[i]);
+		}
+		writer.write(
+				"</cellXfs><cellStyles count=\"1\"><cellStyle name=\"Normal\" xfId=\"0\" builtinId=\"0\"/></cellStyles>"
+						+ "</styleSheet>");
+		writer.flush();
+		zip.closeEntry();
+	}
+
+	private void writeXf(ExcelStyle style, int numFmtId, int fontId) throws IOException {
+		writer.write(
+				"<xf numFmtId=\"" + numFmtId + "\" fontId=\"" + fontId + "\" fillId=\"0\" borderId=\"0\" xfId=\"0\"");
+		if (numFmtId > 0) {
+			writer.write(" applyNumberFormat=\"1\"");
+		}
+		if (fontId > 0) {
+			writer.write(" applyFont=\"1\"");
+		}
+		boolean alignment = style.getHorizontalAlignment() != null || style.getVerticalAlignment() != null
+				|| style.isWrapText();
+		if (!alignment) {
+			writer.write("/>");
+			return;
+		}
+		writer.write(" applyAlignment=\"1\"><alignment");
+		if (style.getHorizontalAlignment() != null) {
+			writer.write(" horizontal=\"" + toXml(style.getHorizontalAlignment()) + "\"");
+		}
+		if (style.getVerticalAlignment() != null) {
+			writer.write(" vertical=\"" + toXml(style.getVerticalAlignment()) + "\"");
+		}
+		if (style.isWrapText()) {
+			writer.write(" wrapText=\"1\"");
+		}
+		writer.write("/></xf>");
+	}
+
+	private static String toXml(HorizontalAlignment alignment) {
+		switch (alignment) {
+		case CENTER_SELECTION:
+			return "centerContinuous";
+		default:
+			return alignment.name().toLowerCase(Locale.ROOT);
+		}
+	}
+
+	private static String toXml(VerticalAlignment alignment) {
+		return alignment.name().toLowerCase(Locale.ROOT);
+	}
+
+	private void writeEntry(String name, String content) throws IOException {
+		zip.putNextEntry(new ZipEntry(name));
+		writer.write(XML_DECLARATION);
+		writer.write(content);
+		writer.flush();
+		zip.closeEntry();
+	}
+
+	/** 关闭zip输出流（连同底层输出流），未调用finish()时文件不完整 **/
+	@Override
+	public void close() throws IOException {
+		zip.close();
+	}
+
+}
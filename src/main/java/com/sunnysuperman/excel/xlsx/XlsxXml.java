@@ -0,0 +1,134 @@
+package com.sunnysuperman.excel.xlsx;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+class XlsxXml {
+	private static final XMLInputFactory FACTORY = newFactory();
+
+	private XlsxXml() {
+	}
+
+	private static XMLInputFactory newFactory() {
+		XMLInputFactory factory = XMLInputFactory.newInstance();
+		factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+		factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+		factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+		return factory;
+	}
+
+	static XMLStreamReader newReader(InputStream in) throws XMLStreamException {
+		return FACTORY.createXMLStreamReader(in);
+	}
+
+	/**
+	 * 读取富文本（si/is）元素中的文本，忽略拼音(rPh)，读取到对应结束标签为止
+	 */
+	static String readText(XMLStreamReader reader, String endElement) throws XMLStreamException {
+		String text = null;
+		StringBuilder buf = null;
+		int phoneticDepth = 0;
+		while (reader.hasNext()) {
+			int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				String name = reader.getLocalName();
+				if ("rPh".equals(name)) {
+					phoneticDepth++;
+				} else if ("t".equals(name) && phoneticDepth == 0) {
+					String s = reader.getElementText();
+					if (text == null) {
+						text = s;
+					} else {
+						if (buf == null) {
+							buf = new StringBuilder(text);
+						}
+						buf.append(s);
+					}
+				}
+			} else if (event == XMLStreamConstants.END_ELEMENT) {
+				String name = reader.getLocalName();
+				if ("rPh".equals(name)) {
+					phoneticDepth--;
+				} else if (endElement.equals(name)) {
+					break;
+				}
+			}
+		}
+		if (buf != null) {
+			return buf.toString();
+		}
+		return text == null ? "" : text;
+	}
+
+	/** 跳过当前元素（含子元素） **/
+	static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+		int depth = 1;
+		while (depth > 0 && reader.hasNext()) {
+			int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				depth++;
+			} else if (event == XMLStreamConstants.END_ELEMENT) {
+				depth--;
+			}
+		}
+	}
+
+	/** 写出XML转义后的文本（可用于属性值），去除XML不允许的控制字符 **/
+	static void escape(String s, Appendable out) throws IOException {
+		int len = s.length();
+		int start = 0;
+		for (int i = 0; i < len; i++) {
+			char c = s.charAt(i);
+			String replacement;
+			if (c == '<') {
+				replacement = "&lt;";
+			} else if (c == '>') {
+				replacement = "&gt;";
+			} else if (c == '&') {
+				replacement = "&amp;";
+			} else if (c == '"') {
+				replacement = "&quot;";
+			} else if (c < 0x20 && c != '\t' && c != '\n' && c != '\r') {
+				replacement = "";
+			} else {
+				continue;
+			}
+			out.append(s, start, i);
+			out.append(replacement);
+			start = i + 1;
+		}
+		out.append(s, start, len);
+	}
+
+	/** 文本首尾有空白时需加xml:space="preserve" **/
+	static boolean needsPreserveSpace(String s) {
+		int len = s.length();
+		return len > 0 && (Character.isWhitespace(s.charAt(0)) || Character.isWhitespace(s.charAt(len - 1)));
+	}
+
+	/** 列号（从0开始）转列名，如0为A、26为AA **/
+	static String columnName(int column) {
+		StringBuilder buf = new StringBuilder(3);
+		for (int n = column + 1; n > 0; n = (n - 1) / 26) {
+			buf.insert(0, (char) ('A' + (n - 1) % 26));
+		}
+		return buf.toString();
+	}
+
+	static int parseInt(String s, int defaultValue) {
+		if (s == null || s.isEmpty()) {
+			return defaultValue;
+		}
+		try {
+			return Integer.parseInt(s);
+		} catch (NumberFormatException e) {
+			return defaultValue;
+		}
+	}
+
+}
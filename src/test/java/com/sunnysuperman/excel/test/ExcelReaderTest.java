@@ -1,31 +1,82 @@
 package com.sunnysuperman.excel.test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
 
+import org.apache.poi.ss.usermodel.CellStyle;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.util.IOUtils;
 import org.apache.poi.xssf.streaming.SXSSFSheet;
 import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.junit.jupiter.api.Test;
 
 import com.sunnysuperman.commons.util.FileUtil;
 import com.sunnysuperman.commons.util.FormatUtil;
+import com.sunnysuperman.excel.ExcelCellType;
 import com.sunnysuperman.excel.ExcelException;
 import com.sunnysuperman.excel.ExcelUtils;
+import com.sunnysuperman.excel.RawRow;
+import com.sunnysuperman.excel.csv.CsvFormat;
+import com.sunnysuperman.excel.csv.CsvRowSource;
+import com.sunnysuperman.excel.reader.AsyncBatchHandler;
 import com.sunnysuperman.excel.reader.BatchHandler;
+import com.sunnysuperman.excel.reader.BeanBatchHandler;
 import com.sunnysuperman.excel.reader.DataAndRowIndex;
+import com.sunnysuperman.excel.reader.ExcelAnnotations;
+import com.sunnysuperman.excel.reader.ExcelCellError;
+import com.sunnysuperman.excel.reader.ExcelCheckpoint;
 import com.sunnysuperman.excel.reader.ExcelColumn;
+import com.sunnysuperman.excel.reader.ExcelColumnMatchMode;
+import com.sunnysuperman.excel.reader.ExcelCopyMode;
+import com.sunnysuperman.excel.reader.ExcelField;
+import com.sunnysuperman.excel.reader.ExcelFileCheckpointStore;
+import com.sunnysuperman.excel.reader.ExcelMultiSheetReader;
 import com.sunnysuperman.excel.reader.ExcelReader;
+import com.sunnysuperman.excel.reader.ExcelReaderEngine;
+import com.sunnysuperman.excel.reader.ExcelReaderMetrics;
 import com.sunnysuperman.excel.reader.ExcelReaderOptions;
+import com.sunnysuperman.excel.reader.ExcelReaderStats;
+import com.sunnysuperman.excel.reader.ExcelRowErrors;
+import com.sunnysuperman.excel.reader.ExcelRowView;
+import com.sunnysuperman.excel.reader.Handler;
 import com.sunnysuperman.excel.reader.HandlerException;
+import com.sunnysuperman.excel.reader.RowViewHandler;
+import com.sunnysuperman.excel.xlsx.XlsxAppendedCells;
+import com.sunnysuperman.excel.xlsx.XlsxPackage;
+import com.sunnysuperman.excel.xlsx.XlsxSharedStrings;
+import com.sunnysuperman.excel.xlsx.XlsxSheetChunks;
 
 class ExcelReaderTest {
 
@@ -64,6 +115,135 @@ class ExcelReaderTest {
 		assertEquals(1000, totalRecordsNum.get());
 	}
 
+	@Test
+	void readAsync() throws Exception {
+		File file = makeSrcExcelFile(1000);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		List<Integer> rowIndexes = new ArrayList<>();
+		try {
+			ExcelReaderOptions options = new ExcelReaderOptions()
+					.setColumns(new ExcelColumn[] { new ExcelColumn("phone", "手机号") })
+					.setHandler(new AsyncBatchHandler<Integer>(100, executor, 3, true) {
+
+						@Override
+						protected Integer parseData(ExcelReader reader, Map<String, Object> data, int rowIndex)
+								throws HandlerException {
+							return rowIndex;
+						}
+
+						@Override
+						protected void handleBatchAsync(ExcelReader reader, List<Integer> dataList)
+								throws HandlerException {
+							try {
+								Thread.sleep(5);
+							} catch (InterruptedException e) {
+								throw new HandlerException(e);
+							}
+							assertEquals(100, dataList.size());
+							rowIndexes.addAll(dataList);
+						}
+
+						@Override
+						protected void end(ExcelReader reader) throws HandlerException {
+							assertEquals(1000, rowIndexes.size());
+						}
+
+					});
+			new ExcelReader(file, options).read();
+		} finally {
+			executor.shutdown();
+		}
+
+		for (int i = 0; i < rowIndexes.size(); i++) {
+			assertEquals(i + 1, rowIndexes.get(i));
+		}
+	}
+
+	@Test
+	void readAsyncError() throws Exception {
+		File file = makeSrcExcelFile(1000);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		CountDownLatch failed = new CountDownLatch(1);
+		AtomicInteger lastRowIndex = new AtomicInteger();
+		try {
+			ExcelReaderOptions options = new ExcelReaderOptions()
+					.setColumns(new ExcelColumn[] { new ExcelColumn("phone", "手机号") })
+					.setHandler(new AsyncBatchHandler<Integer>(100, executor, 2, false) {
+
+						@Override
+						protected Integer parseData(ExcelReader reader, Map<String, Object> data, int rowIndex)
+								throws HandlerException {
+							lastRowIndex.set(rowIndex);
+							if (rowIndex == 150) {
+								// 等第一批处理失败
+								try {
+									failed.await(5, TimeUnit.SECONDS);
+									Thread.sleep(50);
+								} catch (InterruptedException e) {
+									throw new HandlerException(e);
+								}
+							}
+							return rowIndex;
+						}
+
+						@Override
+						protected void handleBatchAsync(ExcelReader reader, List<Integer> dataList)
+								throws HandlerException {
+							failed.countDown();
+							throw new HandlerException("入库失败");
+						}
+
+					});
+			new ExcelReader(file, options).read();
+			assertTrue(false);
+		} catch (HandlerException e) {
+			assertEquals("入库失败", e.getMessage());
+			// 失败后的第一次onData即抛出（最晚在第150行之后），不等到下一批
+			assertTrue(lastRowIndex.get() <= 150);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void readMultiSheets() throws Exception {
+		Workbook wb = ExcelUtils.newWorkbook(100);
+		for (int s = 0; s < 4; s++) {
+			Sheet sheet = wb.createSheet("月份" + (s + 1));
+			sheet.createRow(0).createCell(0).setCellValue("手机号");
+			for (int i = 0; i < (s + 1) * 100; i++) {
+				sheet.createRow(i + 1).createCell(0).setCellValue(String.valueOf(13800000000L + i));
+			}
+		}
+		File file = newFile("multi");
+		ExcelUtils.writeToFile(wb, file);
+
+		Map<String, Integer> counts = new ConcurrentHashMap<>();
+		new ExcelMultiSheetReader(file, 3).addAllSheets(sheetName -> "月份2".equals(sheetName) ? null
+				: new ExcelReaderOptions().setColumns(new ExcelColumn[] { new ExcelColumn("phone", "手机号") })
+						.setHandler(new BatchHandler<String>(50) {
+
+							@Override
+							protected String parseData(ExcelReader reader, Map<String, Object> data, int rowIndex)
+									throws HandlerException {
+								return data.get("phone").toString();
+							}
+
+							@Override
+							protected void handleBatch(ExcelReader reader, List<String> dataList)
+									throws HandlerException {
+								counts.merge(reader.getSheetName(), dataList.size(), Integer::sum);
+							}
+
+						}))
+				.read();
+
+		assertEquals(3, counts.size());
+		assertEquals(100, counts.get("月份1"));
+		assertEquals(300, counts.get("月份3"));
+		assertEquals(400, counts.get("月份4"));
+	}
+
 	@Test
 	void readAndCopy() throws Exception {
 		File file = makeSrcExcelFile(1000);
@@ -127,6 +307,127 @@ class ExcelReaderTest {
 		assertTrue(feedbackFile.length() > 0);
 	}
 
+	@Test
+	void readAndRawCopy() throws Exception {
+		File file = makeSrcExcelFile(1000);
+		for (ExcelReaderEngine engine : ExcelReaderEngine.values()) {
+			ExcelReaderOptions options = new ExcelReaderOptions().setEngine(engine)
+					.setColumns(new ExcelColumn[] { new ExcelColumn("phone", "手机号") }).setCopyMode(ExcelCopyMode.RAW)
+					.setAnnotationBufferSize(engine == ExcelReaderEngine.NATIVE ? 64 : 100000)
+					.setHandler(new BatchHandler<DataAndRowIndex<String>>(100) {
+
+						@Override
+						public void onHeaderRead(ExcelReader reader, Row row) throws HandlerException {
+							reader.annotateHeader(1, "校验结果");
+							reader.annotateHeader(2, "原因");
+						}
+
+						@Override
+						protected DataAndRowIndex<String> parseData(ExcelReader reader, Map<String, Object> data,
+								int rowIndex) throws HandlerException {
+							String phone = FormatUtil.parseString(data.get("phone"));
+							boolean valid = phone != null && phone.length() == 11;
+							return new DataAndRowIndex<>(valid ? phone : null, rowIndex);
+						}
+
+						@Override
+						protected void handleBatch(ExcelReader reader, List<DataAndRowIndex<String>> dataList)
+								throws HandlerException {
+							for (DataAndRowIndex<String> data : dataList) {
+								if (data.getData() == null) {
+									reader.annotate(data.getRowIndex(), 1, "失败");
+									reader.annotate(data.getRowIndex(), 2, "手机号码格式错误");
+								} else {
+									reader.annotate(data.getRowIndex(), 1, "成功");
+									// 不在已有单元格之后：写出时跳过
+									reader.annotate(data.getRowIndex(), 0, "覆盖");
+								}
+							}
+						}
+
+					});
+			ExcelReader reader = new ExcelReader(file, options);
+			reader.read();
+			// 源文件中不存在的行
+			reader.annotate(1005, 1, 1005);
+			File feedbackFile = newFile("feedback-raw-" + engine);
+			reader.writeCopyTo(feedbackFile);
+
+			Map<String, Integer> results = new HashMap<>();
+			new ExcelReader(feedbackFile,
+					new ExcelReaderOptions().setEngine(engine)
+							.setColumns(new ExcelColumn[] { new ExcelColumn("phone", "手机号"),
+									new ExcelColumn("result", "校验结果"), new ExcelColumn("reason", "原因") })
+							.setHandler(new Handler() {
+
+								@Override
+								public boolean onData(ExcelReader reader, Map<String, Object> data, int rowIndex,
+										List<ExcelColumn> errorColumns) throws HandlerException {
+									assertTrue(!"覆盖".equals(data.get("phone")));
+									if ("失败".equals(data.get("result"))) {
+										assertEquals("手机号码格式错误", data.get("reason"));
+										assertEquals(12, data.get("phone").toString().length());
+									}
+									results.merge(String.valueOf(data.get("result")), 1, Integer::sum);
+									return true;
+								}
+
+							})).read();
+			assertEquals(167, results.get("失败"));
+			assertEquals(833, results.get("成功"));
+			assertEquals(1, results.get("1005"));
+		}
+	}
+
+	@Test
+	void annotations() throws Exception {
+		Map<Long, Object> expected = new TreeMap<>();
+		Random random = new Random(7);
+		try (ExcelAnnotations annotations = new ExcelAnnotations(10)) {
+			for (int i = 0; i < 500; i++) {
+				int rowNum = random.nextInt(100);
+				int column = random.nextInt(3);
+				Object value;
+				Object expectedValue;
+				switch (i % 5) {
+				case 0:
+					value = expectedValue = "v" + i;
+					break;
+				case 1:
+					value = i;
+					expectedValue = (long) i;
+					break;
+				case 2:
+					value = i * 0.5f;
+					expectedValue = (double) (i * 0.5f);
+					break;
+				case 3:
+					value = i % 2 == 0;
+					expectedValue = value;
+					break;
+				default:
+					value = new StringBuilder("s").append(i);
+					expectedValue = "s" + i;
+					break;
+				}
+				annotations.set(rowNum, column, value);
+				expected.put(((long) rowNum << 32) | column, expectedValue);
+			}
+			assertTrue(annotations.getRunsNum() > 0);
+
+			XlsxAppendedCells cells = annotations.cells();
+			List<Object> actual = new ArrayList<>();
+			long lastKey = -1;
+			while (cells.next()) {
+				long key = ((long) cells.getRowNum() << 32) | cells.getColumn();
+				assertTrue(key > lastKey);
+				lastKey = key;
+				actual.add(cells.getValue());
+			}
+			assertEquals(new ArrayList<>(expected.values()), actual);
+		}
+	}
+
 	@Test
 	void readAndCopy2() throws Exception {
 		File file = makeSrcExcelFile(10000);
@@ -272,6 +573,1045 @@ class ExcelReaderTest {
 		}
 	}
 
+	@Test
+	void readWithNativeEngine() throws Exception {
+		File file = makeTypedExcelFile(500);
+		List<Map<String, Object>> poiRows = readTypedExcelFile(file, ExcelReaderEngine.POI);
+		List<Map<String, Object>> nativeRows = readTypedExcelFile(file, ExcelReaderEngine.NATIVE);
+
+		assertEquals(500, nativeRows.size());
+		assertEquals(poiRows, nativeRows);
+		assertEquals("13800000000", nativeRows.get(0).get("phone"));
+		assertEquals(7L, nativeRows.get(1).get("dirty"));
+		assertTrue(nativeRows.get(0).get("date") instanceof Date);
+	}
+
+	@Test
+	void readWithMetrics() throws Exception {
+		File file = makeTypedExcelFile(500);
+		List<ExcelColumn> columns = new ArrayList<>(Arrays.asList(typedColumns()));
+		// 数字单元格按日期读取：转换失败
+		columns.add(new ExcelColumn("amountAsDate", "金额", ExcelCellType.DATE));
+		ExcelReaderStats stats = new ExcelReaderStats();
+		AtomicInteger cellsNum = new AtomicInteger();
+		AtomicInteger errorsNum = new AtomicInteger();
+		for (ExcelReaderEngine engine : ExcelReaderEngine.values()) {
+			ExcelReaderOptions options = new ExcelReaderOptions().setEngine(engine).setMetrics(stats)
+					.setColumns(columns.toArray(new ExcelColumn[0])).setHandler(new Handler() {
+
+						@Override
+						public boolean onData(ExcelReader reader, Map<String, Object> data, int rowIndex,
+								List<ExcelColumn> errorColumns) throws HandlerException {
+							cellsNum.addAndGet(data.size());
+							errorsNum.addAndGet(errorColumns == null ? 0 : errorColumns.size());
+							return true;
+						}
+
+					});
+			new ExcelReader(file, options).read();
+		}
+
+		assertEquals(2, stats.getReadsNum());
+		assertEquals(0, stats.getFailedReadsNum());
+		assertEquals(1000, stats.getRowsNum());
+		assertEquals(cellsNum.get(), stats.getCellsNum());
+		assertEquals(1000, errorsNum.get());
+		assertEquals(errorsNum.get(), stats.getConversionErrorsNum("amountAsDate"));
+		assertEquals(0, stats.getConversionErrorsNum("amount"));
+		assertTrue(stats.getBytesRead() > 0);
+		assertTrue(stats.getRowsPerSecond() > 0);
+
+		// 读取指标出错不影响读取结果
+		ExcelReaderMetrics failingMetrics = new ExcelReaderMetrics() {
+
+			@Override
+			public void onEnd(ExcelReader reader, long bytesRead, long totalNanos, boolean success) {
+				throw new IllegalStateException("metrics");
+			}
+
+		};
+		AtomicInteger rowsNum = new AtomicInteger();
+		new ExcelReader(file,
+				new ExcelReaderOptions().setMetrics(failingMetrics)
+						.setColumns(new ExcelColumn[] { new ExcelColumn("phone", "手机号") })
+						.setHandler((reader, data, rowIndex, errorColumns) -> rowsNum.incrementAndGet() > 0)).read();
+		assertEquals(500, rowsNum.get());
+		HandlerException e = assertThrows(HandlerException.class,
+				() -> new ExcelReader(file,
+						new ExcelReaderOptions().setMetrics(failingMetrics)
+								.setColumns(new ExcelColumn[] { new ExcelColumn("phone", "手机号") })
+								.setHandler((reader, data, rowIndex, errorColumns) -> {
+									throw new HandlerException("crash");
+								})).read());
+		assertEquals("crash", e.getMessage());
+	}
+
+	@Test
+	void readWithDiskSharedStrings() throws Exception {
+		File file = makeTypedExcelFile(500);
+		List<Map<String, Object>> rows = readTypedExcelFile(file, ExcelReaderEngine.NATIVE);
+
+		assertEquals(rows, readTypedExcelFile(file, ExcelReaderEngine.NATIVE, 8));
+		assertEquals(rows, readTypedExcelFile(file, ExcelReaderEngine.POI, 8));
+	}
+
+	@Test
+	void readNegativeSharedStringsCount() throws Exception {
+		File file = makeTypedExcelFile(10);
+		List<Map<String, Object>> expected = readTypedExcelFile(file, ExcelReaderEngine.NATIVE);
+		// 共享字符串表的uniqueCount为负数
+		File badFile = newFile("negative-sst-count");
+		try (ZipFile zip = new ZipFile(file);
+				ZipOutputStream out = new ZipOutputStream(new FileOutputStream(badFile))) {
+			Enumeration<? extends ZipEntry> entries = zip.entries();
+			while (entries.hasMoreElements()) {
+				ZipEntry entry = entries.nextElement();
+				byte[] bytes = IOUtils.toByteArray(zip.getInputStream(entry));
+				if (entry.getName().equals("xl/sharedStrings.xml")) {
+					bytes = new String(bytes, StandardCharsets.UTF_8)
+							.replaceFirst("uniqueCount=\"\\d+\"", "uniqueCount=\"-5\"")
+							.getBytes(StandardCharsets.UTF_8);
+				}
+				out.putNextEntry(new ZipEntry(entry.getName()));
+				out.write(bytes);
+				out.closeEntry();
+			}
+		}
+		for (int cacheSize : new int[] { 0, 8 }) {
+			List<Map<String, Object>> rows = readTypedExcelFile(badFile,
+					new ExcelReaderOptions().setEngine(ExcelReaderEngine.NATIVE).setSharedStringsCacheSize(cacheSize));
+			assertEquals(expected, rows);
+		}
+	}
+
+	@Test
+	void diskSharedStringsConcurrentAccess() throws Exception {
+		File file = makeTypedExcelFile(500);
+		List<String> expected = new ArrayList<>();
+		try (XlsxPackage pkg = XlsxPackage.open(file)) {
+			XlsxSharedStrings strings = pkg.getSharedStrings();
+			for (int i = 0; i < strings.size(); i++) {
+				expected.add(strings.get(i));
+			}
+		}
+		XlsxPackage pkg = XlsxPackage.open(file, 8);
+		XlsxSharedStrings strings = pkg.getSharedStrings();
+		assertEquals(expected.size(), strings.size());
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Boolean>> futures = new ArrayList<>();
+			for (int t = 0; t < 4; t++) {
+				int seed = t;
+				futures.add(executor.submit(() -> {
+					Random random = new Random(seed);
+					for (int n = 0; n < 20000; n++) {
+						int i = random.nextInt(expected.size());
+						if (!expected.get(i).equals(strings.get(i))) {
+							return false;
+						}
+					}
+					return true;
+				}));
+			}
+			for (Future<Boolean> future : futures) {
+				assertTrue(future.get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+		pkg.close();
+		assertThrows(IllegalStateException.class, () -> strings.get(0));
+	}
+
+	@Test
+	void readWithNativeEngineProjection() throws Exception {
+		File file = makeTypedExcelFile(100);
+		List<Map<String, Object>> rows = new ArrayList<>();
+		ExcelReaderOptions options = new ExcelReaderOptions().setEngine(ExcelReaderEngine.NATIVE)
+				.setColumns(new ExcelColumn[] { new ExcelColumn("amount", "金额", ExcelCellType.DOUBLE) })
+				.setHandler(new Handler() {
+
+					@Override
+					public boolean onData(ExcelReader reader, Map<String, Object> data, int rowIndex,
+							List<ExcelColumn> errorColumns) throws HandlerException {
+						rows.add(data);
+						return true;
+					}
+
+				});
+		new ExcelReader(file, options).read();
+
+		assertEquals(100, rows.size());
+		assertEquals(1, rows.get(3).size());
+		assertEquals(3.75d, rows.get(3).get("amount"));
+	}
+
+	@Test
+	void readCsv() throws Exception {
+		File file = makeCsvFile(500);
+		List<Map<String, Object>> rows = new ArrayList<>();
+		ExcelColumn[] columns = new ExcelColumn[] { new ExcelColumn("phone", "手机号"), new ExcelColumn("name", "姓名"),
+				new ExcelColumn("amount", "金额", ExcelCellType.DOUBLE), new ExcelColumn("remark", "备注") };
+		ExcelReaderOptions options = new ExcelReaderOptions().setCsvFormat(CsvFormat.CSV).setColumns(columns)
+				.setHandler(new BatchHandler<Map<String, Object>>(100) {
+
+					@Override
+					protected Map<String, Object> parseData(ExcelReader reader, Map<String, Object> data, int rowIndex)
+							throws HandlerException {
+						data.put("rowIndex", rowIndex);
+						return data;
+					}
+
+					@Override
+					protected void handleBatch(ExcelReader reader, List<Map<String, Object>> dataList)
+							throws HandlerException {
+						rows.addAll(dataList);
+					}
+
+				});
+		new ExcelReader(file, options).read();
+
+		assertEquals(500, rows.size());
+		assertEquals("13800000000", rows.get(0).get("phone"));
+		assertEquals("name-7", rows.get(7).get("name"));
+		assertEquals(3.75d, rows.get(3).get("amount"));
+		assertEquals("说\"明\",含逗号\n第二行", rows.get(4).get("remark"));
+		assertEquals(null, rows.get(5).get("remark"));
+		assertEquals("r6", rows.get(6).get("remark"));
+		// 空行跳过，行号按记录计
+		assertEquals(12, rows.get(10).get("rowIndex"));
+
+		// 极小的缓冲区：记录跨越缓冲区边界
+		try (CsvRowSource source = new CsvRowSource(FileChannel.open(file.toPath()), CsvFormat.CSV, 5)) {
+			RawRow row = new RawRow();
+			int rowsNum = 0;
+			while (source.nextRow(row)) {
+				if (row.getRowNum() == 5) {
+					assertEquals("说\"明\",含逗号\n第二行", row.getCell(3).getStringCellValue());
+					assertEquals(" name-4 ", row.getCell(2).getStringCellValue());
+				}
+				rowsNum++;
+			}
+			assertEquals(501, rowsNum);
+		}
+	}
+
+	@Test
+	void readRowsNumAndProgress() throws Exception {
+		File file = makeTypedExcelFile(500);
+		for (ExcelReaderEngine engine : ExcelReaderEngine.values()) {
+			for (boolean streaming : new boolean[] { true, false }) {
+				List<Integer> progress = new ArrayList<>();
+				AtomicInteger startRowsNum = new AtomicInteger();
+				ExcelReaderOptions options = new ExcelReaderOptions().setEngine(engine).setStreaming(streaming)
+						.setProgressInterval(100).setColumns(typedColumns()).setHandler(new Handler() {
+
+							@Override
+							public boolean onStart(ExcelReader reader, int dataRowsNum) throws HandlerException {
+								startRowsNum.set(dataRowsNum);
+								return true;
+							}
+
+							@Override
+							public boolean onData(ExcelReader reader, Map<String, Object> data, int rowIndex,
+									List<ExcelColumn> errorColumns) throws HandlerException {
+								return true;
+							}
+
+							@Override
+							public void onProgress(ExcelReader reader, int readRowsNum, int estimatedRowsNum)
+									throws HandlerException {
+								assertEquals(startRowsNum.get(), estimatedRowsNum);
+								progress.add(readRowsNum);
+							}
+
+						});
+				ExcelReader reader = new ExcelReader(file, options);
+				reader.read();
+				// 表头在第1行，最后一个数据行在第1000行（中间为空行）
+				assertEquals(999, startRowsNum.get());
+				assertEquals(500, reader.getReadRowsNum());
+				assertEquals(Arrays.asList(100, 200, 300, 400, 500), progress);
+			}
+		}
+
+		// Handler不需要时不估算
+		for (ExcelReaderEngine engine : ExcelReaderEngine.values()) {
+			ExcelReader reader = new ExcelReader(file, new ExcelReaderOptions().setEngine(engine).setStreaming(true)
+					.setColumns(typedColumns()).setHandler((r, data, rowIndex, errorColumns) -> true));
+			reader.read();
+			assertEquals(-1, reader.getEstimatedRowsNum());
+			assertEquals(500, reader.getReadRowsNum());
+		}
+
+		// 流式写出的文件没有行数信息，扫描行标签
+		File srcFile = makeSrcExcelFile(1000);
+		assertEquals(-1, estimateRowsNum(srcFile, new ExcelReaderOptions()));
+		assertEquals(1000, estimateRowsNum(srcFile, new ExcelReaderOptions().setRowsNumScan(true)));
+		assertEquals(1000, estimateRowsNum(srcFile,
+				new ExcelReaderOptions().setEngine(ExcelReaderEngine.NATIVE).setRowsNumScan(true)));
+		// CSV按换行符估算：500条记录+50个空行+125个引号内的换行
+		assertEquals(675, estimateRowsNum(makeCsvFile(500),
+				new ExcelReaderOptions().setCsvFormat(CsvFormat.CSV).setRowsNumScan(true)));
+
+		// 超出最大行数：能估算时读取前报错，否则读到超出的行时报错
+		for (boolean rowsNumScan : new boolean[] { true, false }) {
+			AtomicInteger rowsNum = new AtomicInteger();
+			ExcelReaderOptions options = new ExcelReaderOptions().setRowsNumScan(rowsNumScan).setMaxRowsNum(300)
+					.setColumns(new ExcelColumn[] { new ExcelColumn("phone", "手机号") }).setHandler(new Handler() {
+
+						@Override
+						public boolean onData(ExcelReader reader, Map<String, Object> data, int rowIndex,
+								List<ExcelColumn> errorColumns) throws HandlerException {
+							rowsNum.incrementAndGet();
+							return true;
+						}
+
+					});
+			try {
+				new ExcelReader(srcFile, options).read();
+				assertTrue(false);
+			} catch (ExcelException e) {
+				assertEquals(ExcelException.ERROR_TOO_MANY_ROWS, e.getErrorCode());
+			}
+			assertEquals(rowsNumScan ? 0 : 300, rowsNum.get());
+		}
+	}
+
+	@Test
+	void readRowRange() throws Exception {
+		File file = makeTypedExcelFile(500);
+		for (ExcelReaderEngine engine : ExcelReaderEngine.values()) {
+			for (boolean streaming : new boolean[] { true, false }) {
+				// 数据在第1、3、5...999行：从第401行开始，每10行取一行，最多5行
+				ExcelReaderOptions options = new ExcelReaderOptions().setEngine(engine).setStreaming(streaming)
+						.setStartRowIndex(401).setSampleInterval(10).setLimitRowsNum(5)
+						.setColumns(new ExcelColumn[] { new ExcelColumn("phone", "手机号") });
+				List<Integer> rowIndexes = new ArrayList<>();
+				List<Object> phones = new ArrayList<>();
+				AtomicInteger startRowsNum = new AtomicInteger();
+				ExcelReader reader = readRange(file, options, rowIndexes, phones, startRowsNum);
+				assertEquals(5, startRowsNum.get());
+				assertEquals(5, reader.getReadRowsNum());
+				assertEquals(Arrays.asList(401, 411, 421, 431, 441), rowIndexes);
+				assertEquals(Arrays.asList("13800000200", "13800000205", "13800000210", "13800000215", "13800000220"),
+						phones);
+			}
+		}
+
+		// CSV：行号按记录计（含空记录），第100行为第90条记录
+		ExcelReaderOptions options = new ExcelReaderOptions().setCsvFormat(CsvFormat.CSV).setStartRowIndex(100)
+				.setLimitRowsNum(3).setColumns(new ExcelColumn[] { new ExcelColumn("phone", "手机号") });
+		List<Integer> rowIndexes = new ArrayList<>();
+		List<Object> phones = new ArrayList<>();
+		readRange(makeCsvFile(500), options, rowIndexes, phones, new AtomicInteger());
+		assertEquals(Arrays.asList(100, 101, 102), rowIndexes);
+		assertEquals(Arrays.asList("13800000090", "13800000091", "13800000092"), phones);
+	}
+
+	private ExcelReader readRange(File file, ExcelReaderOptions options, List<Integer> rowIndexes, List<Object> phones,
+			AtomicInteger startRowsNum) throws Exception {
+		options.setHandler(new Handler() {
+
+			@Override
+			public boolean onStart(ExcelReader reader, int dataRowsNum) throws HandlerException {
+				startRowsNum.set(dataRowsNum);
+				return true;
+			}
+
+			@Override
+			public boolean onData(ExcelReader reader, Map<String, Object> data, int rowIndex,
+					List<ExcelColumn> errorColumns) throws HandlerException {
+				rowIndexes.add(rowIndex);
+				phones.add(data.get("phone"));
+				return true;
+			}
+
+		});
+		ExcelReader reader = new ExcelReader(file, options);
+		reader.read();
+		return reader;
+	}
+
+	@Test
+	void readWithCheckpoint() throws Exception {
+		File file = makeTypedExcelFile(500);
+		for (ExcelReaderEngine engine : ExcelReaderEngine.values()) {
+			ExcelFileCheckpointStore store = new ExcelFileCheckpointStore(
+					newFile("checkpoint-" + engine, "properties"));
+			store.clear();
+			// 数据在第1、3、5...999行：每批50行，处理到第601行所在的批次时中断
+			List<Integer> rowIndexes = new ArrayList<>();
+			try {
+				readWithCheckpoint(file, engine, store, rowIndexes, 601);
+				assertTrue(false);
+			} catch (HandlerException e) {
+				assertEquals("crash", e.getMessage());
+			}
+			assertEquals(350, rowIndexes.size());
+			ExcelCheckpoint checkpoint = store.load();
+			assertEquals(ExcelCheckpoint.fingerprint(file), checkpoint.getFingerprint());
+			assertEquals(599, checkpoint.getRowIndex());
+			assertEquals(300, checkpoint.getRowsNum());
+
+			// 从检查点之后继续读取，读完后清除检查点
+			rowIndexes.clear();
+			ExcelReader reader = readWithCheckpoint(file, engine, store, rowIndexes, -1);
+			assertEquals(599, reader.getResumedCheckpoint().getRowIndex());
+			assertEquals(200, rowIndexes.size());
+			assertEquals(601, rowIndexes.get(0).intValue());
+			assertEquals(500, reader.getReadRowsNum());
+			assertEquals(null, store.load());
+
+			// 文件不一致
+			store.save(new ExcelCheckpoint("0-0", 599, 300));
+			try {
+				readWithCheckpoint(file, engine, store, rowIndexes, -1);
+				assertTrue(false);
+			} catch (ExcelException e) {
+				assertEquals(ExcelException.ERROR_CHECKPOINT_NOT_MATCH, e.getErrorCode());
+			}
+		}
+	}
+
+	private ExcelReader readWithCheckpoint(File file, ExcelReaderEngine engine, ExcelFileCheckpointStore store,
+			List<Integer> rowIndexes, int crashRowIndex) throws Exception {
+		ExcelReaderOptions options = new ExcelReaderOptions().setEngine(engine).setCheckpointStore(store)
+				.setCheckpointInterval(100).setColumns(new ExcelColumn[] { new ExcelColumn("phone", "手机号") })
+				.setHandler(new BatchHandler<Integer>(50) {
+
+					@Override
+					protected Integer parseData(ExcelReader reader, Map<String, Object> data, int rowIndex)
+							throws HandlerException {
+						return rowIndex;
+					}
+
+					@Override
+					protected void handleBatch(ExcelReader reader, List<Integer> dataList) throws HandlerException {
+						rowIndexes.addAll(dataList);
+						if (dataList.contains(crashRowIndex)) {
+							throw new HandlerException("crash");
+						}
+					}
+
+				});
+		ExcelReader reader = new ExcelReader(file, options);
+		reader.read();
+		return reader;
+	}
+
+	@Test
+	void readParallel() throws Exception {
+		File file = makeTypedExcelFile(500);
+		try (XlsxPackage xlsx = XlsxPackage.open(file); XlsxSheetChunks chunks = xlsx.splitSheet(0, 1024)) {
+			assertTrue(chunks.size() > 20);
+		}
+		List<Map<String, Object>> expected = readTypedExcelFile(file, ExcelReaderEngine.NATIVE);
+		for (boolean ordered : new boolean[] { true, false }) {
+			// 每块约1KB
+			List<Map<String, Object>> rows = readTypedExcelFile(file,
+					new ExcelReaderOptions().setEngine(ExcelReaderEngine.NATIVE).setParallelism(4)
+							.setParallelChunkSize(1024).setParallelOrdered(ordered));
+			if (!ordered) {
+				rows.sort(Comparator.comparingInt(row -> (Integer) row.get("rowIndex")));
+			}
+			assertEquals(expected, rows);
+		}
+
+		// 流式写出的文件：从中间开始读取并限制行数
+		ExcelReaderOptions options = new ExcelReaderOptions().setEngine(ExcelReaderEngine.NATIVE).setParallelism(3)
+				.setParallelChunkSize(512).setStartRowIndex(500).setLimitRowsNum(100)
+				.setColumns(new ExcelColumn[] { new ExcelColumn("phone", "手机号") });
+		List<Integer> rowIndexes = new ArrayList<>();
+		readRange(makeSrcExcelFile(1000), options, rowIndexes, new ArrayList<>(), new AtomicInteger());
+		assertEquals(100, rowIndexes.size());
+		for (int i = 0; i < rowIndexes.size(); i++) {
+			assertEquals(500 + i, rowIndexes.get(i).intValue());
+		}
+
+		// 只支持内置引擎
+		try {
+			readTypedExcelFile(file, new ExcelReaderOptions().setParallelism(4));
+			assertTrue(false);
+		} catch (IllegalArgumentException e) {
+			assertEquals("parallelism", e.getMessage());
+		}
+	}
+
+	private int estimateRowsNum(File file, ExcelReaderOptions options) throws Exception {
+		AtomicInteger rowsNum = new AtomicInteger();
+		options.setColumns(new ExcelColumn[] { new ExcelColumn("phone", "手机号") }).setHandler(new Handler() {
+
+			@Override
+			public boolean onStart(ExcelReader reader, int dataRowsNum) throws HandlerException {
+				rowsNum.set(dataRowsNum);
+				return false;
+			}
+
+			@Override
+			public boolean onData(ExcelReader reader, Map<String, Object> data, int rowIndex,
+					List<ExcelColumn> errorColumns) throws HandlerException {
+				return true;
+			}
+
+		});
+		new ExcelReader(file, options).read();
+		return rowsNum.get();
+	}
+
+	@Test
+	void readMultiRowHeader() throws Exception {
+		Workbook wb = ExcelUtils.newWorkbook();
+		Sheet sheet = ExcelUtils.ensureSheet(wb, 0);
+		// 基本信息(A:B)、备注(C，纵向合并)、联系方式(D:E)
+		String[][] values = { { "基本信息", null, " 备注 ", "联系方式", null }, { "姓名", "手机号", null, "手机号", "邮箱" },
+				{ "张三", "13800000000", "无", "13900000000", "a@b.com" } };
+		for (int r = 0; r < values.length; r++) {
+			Row row = sheet.createRow(r);
+			for (int i = 0; i < values[r].length; i++) {
+				if (values[r][i] != null) {
+					row.createCell(i).setCellValue(values[r][i]);
+				}
+			}
+		}
+		File file = newFile("multi-row-header");
+		ExcelUtils.writeToFile(wb, file);
+
+		ExcelColumn[] columns = {
+				new ExcelColumn("name", "姓名(必填)", ExcelCellType.STRING, ExcelColumnMatchMode.STARTS_WITH),
+				new ExcelColumn("phone", "手机号"), new ExcelColumn("contactPhone", "联系方式-手机号"),
+				new ExcelColumn("remark", "备注说明", ExcelCellType.STRING, ExcelColumnMatchMode.FUZZY),
+				new ExcelColumn("email", "电子邮件").setAliases("Email", "邮箱") };
+		for (ExcelReaderEngine engine : ExcelReaderEngine.values()) {
+			for (boolean streaming : new boolean[] { true, false }) {
+				List<Map<String, Object>> rows = new ArrayList<>();
+				AtomicInteger startRowsNum = new AtomicInteger();
+				ExcelReaderOptions options = new ExcelReaderOptions().setEngine(engine).setStreaming(streaming)
+						.setHeaderRowsNum(2).setColumns(columns).setHandler(new Handler() {
+
+							@Override
+							public boolean onStart(ExcelReader reader, int dataRowsNum) throws HandlerException {
+								startRowsNum.set(dataRowsNum);
+								return true;
+							}
+
+							@Override
+							public boolean onData(ExcelReader reader, Map<String, Object> data, int rowIndex,
+									List<ExcelColumn> errorColumns) throws HandlerException {
+								data.put("rowIndex", rowIndex);
+								rows.add(data);
+								return true;
+							}
+
+						});
+				new ExcelReader(file, options).read();
+
+				// 两行表头都不计入数据行数
+				assertEquals(1, startRowsNum.get());
+				assertEquals(1, rows.size());
+				Map<String, Object> data = rows.get(0);
+				assertEquals(2, data.get("rowIndex"));
+				assertEquals("张三", data.get("name"));
+				assertEquals("13800000000", data.get("phone"));
+				assertEquals("13900000000", data.get("contactPhone"));
+				assertEquals("无", data.get("remark"));
+				assertEquals("a@b.com", data.get("email"));
+			}
+		}
+	}
+
+	@Test
+	void readHeaderWithNonStringCells() throws Exception {
+		Workbook wb = ExcelUtils.newWorkbook();
+		Sheet sheet = ExcelUtils.ensureSheet(wb, 0);
+		Row header = sheet.createRow(0);
+		header.createCell(0).setCellValue("name");
+		header.createCell(1).setCellValue("age");
+		header.createCell(2).setCellFormula("1+1");
+		header.createCell(3).setCellValue(true);
+		Row row = sheet.createRow(1);
+		row.createCell(0).setCellValue("张三");
+		row.createCell(1).setCellValue(18);
+		File file = newFile("non-string-header");
+		ExcelUtils.writeToFile(wb, file);
+
+		ExcelColumn[] columns = { new ExcelColumn("name", "name"), new ExcelColumn("age", "age", ExcelCellType.INT) };
+		for (ExcelReaderEngine engine : ExcelReaderEngine.values()) {
+			for (boolean streaming : new boolean[] { true, false }) {
+				for (boolean inOrder : new boolean[] { true, false }) {
+					List<Map<String, Object>> rows = new ArrayList<>();
+					ExcelReaderOptions options = new ExcelReaderOptions().setEngine(engine).setStreaming(streaming)
+							.setColumnsInOrder(inOrder).setColumns(columns).setHandler(new Handler() {
+
+								@Override
+								public boolean onData(ExcelReader reader, Map<String, Object> data, int rowIndex,
+										List<ExcelColumn> errorColumns) throws HandlerException {
+									rows.add(data);
+									return true;
+								}
+
+							});
+					new ExcelReader(file, options).read();
+					assertEquals(1, rows.size());
+					assertEquals("张三", rows.get(0).get("name"));
+					assertEquals(18, rows.get(0).get("age"));
+
+					// 映射到公式单元格的列仍然匹配不上
+					options.setColumns(new ExcelColumn[] { new ExcelColumn("name", "name"),
+							new ExcelColumn("age", "age"), new ExcelColumn("sum", "2") });
+					try {
+						new ExcelReader(file, options).read();
+						assertTrue(false);
+					} catch (ExcelException e) {
+						assertEquals(inOrder ? ExcelException.ERROR_COLUMN_NOT_MATCH
+								: ExcelException.ERROR_COULD_NOT_FIND_COLUMN, e.getErrorCode());
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	void readDateAsString() throws Exception {
+		File file = makeTypedExcelFile(10);
+		Date date = (Date) readTypedExcelFile(file, ExcelReaderEngine.POI).get(0).get("date");
+		SimpleDateFormat format = new SimpleDateFormat("yyyy/MM/dd HH:mm");
+		format.setTimeZone(TimeZone.getTimeZone("GMT+8"));
+		for (ExcelReaderEngine engine : ExcelReaderEngine.values()) {
+			List<String> values = new ArrayList<>();
+			ExcelReaderOptions options = new ExcelReaderOptions().setEngine(engine).setDateFormat("yyyy/MM/dd HH:mm")
+					.setTimeZone(TimeZone.getTimeZone("GMT+8"))
+					.setColumns(new ExcelColumn[] { new ExcelColumn("date", "日期") }).setHandler(new Handler() {
+
+						@Override
+						public boolean onData(ExcelReader reader, Map<String, Object> data, int rowIndex,
+								List<ExcelColumn> errorColumns) throws HandlerException {
+							values.add((String) data.get("date"));
+							return true;
+						}
+
+					});
+			new ExcelReader(file, options).read();
+
+			assertEquals(10, values.size());
+			assertEquals(format.format(date), values.get(0));
+		}
+	}
+
+	@Test
+	void readWithRowView() throws Exception {
+		File file = makeTypedExcelFile(200);
+		List<Map<String, Object>> expected = readTypedExcelFile(file, ExcelReaderEngine.POI);
+		List<ExcelReaderOptions> optionsList = new ArrayList<>();
+		for (ExcelReaderEngine engine : ExcelReaderEngine.values()) {
+			optionsList.add(new ExcelReaderOptions().setEngine(engine));
+		}
+		// 多线程解析：每行独立的行视图
+		optionsList.add(new ExcelReaderOptions().setEngine(ExcelReaderEngine.NATIVE).setParallelism(4)
+				.setParallelChunkSize(1024));
+		// 按Map方式转发给RowViewHandler：Map转为行视图
+		optionsList.add(null);
+		for (ExcelReaderOptions listOptions : optionsList) {
+			boolean forward = listOptions == null;
+			ExcelReaderOptions options = forward ? new ExcelReaderOptions().setEngine(ExcelReaderEngine.NATIVE)
+					: listOptions;
+			List<Map<String, Object>> rows = new ArrayList<>();
+			RowViewHandler viewHandler = new RowViewHandler() {
+
+				@Override
+				public boolean onRow(ExcelReader reader, ExcelRowView row) throws HandlerException {
+					Map<String, Object> data = new HashMap<>();
+					int errors = 0;
+					for (int k = 0; k < row.size(); k++) {
+						if (row.isError(k)) {
+							errors++;
+						}
+						String key = row.getColumn(k).getKey();
+						switch (row.getColumn(k).getType()) {
+						case INT:
+							data.put(key, row.isError(k) ? row.get(k) : row.getInt(k));
+							break;
+						case LONG:
+							data.put(key, row.isError(k) ? row.get(k) : row.getLong(k));
+							break;
+						case DOUBLE:
+							data.put(key, row.isError(k) ? row.get(k) : row.getDouble(k));
+							break;
+						default:
+							if (!row.isNull(k)) {
+								data.put(key, row.get(k));
+							}
+							break;
+						}
+					}
+					data.put("rowIndex", row.getRowIndex());
+					data.put("errors", errors);
+					rows.add(data);
+					return true;
+				}
+
+			};
+			options.setFirstRowNumAsOne(true).setColumns(typedColumns()).setHandler(viewHandler);
+			if (forward) {
+				options.setHandler(new Handler() {
+
+					@Override
+					public boolean onData(ExcelReader reader, Map<String, Object> data, int rowIndex,
+							List<ExcelColumn> errorColumns) throws HandlerException {
+						return viewHandler.onData(reader, data, rowIndex, errorColumns);
+					}
+
+				});
+			}
+			new ExcelReader(file, options).read();
+
+			assertEquals(expected, rows);
+		}
+	}
+
+	@Test
+	void readWithValidation() throws Exception {
+		int recordsNum = 200;
+		File file = makeTypedExcelFile(recordsNum);
+		ExcelColumn[] columns = new ExcelColumn[] {
+				new ExcelColumn("phone", "手机号").setRequired(true).setPattern("138000000[0-9]{2}"),
+				new ExcelColumn("name", "姓名").setRequired(true).setMaxLength(20),
+				new ExcelColumn("count", "数量", ExcelCellType.INT).setRange(0, 30),
+				// 数值列不能解析的单元格（Map方式的值为0）按空值校验，真正的0不算空
+				new ExcelColumn("countRequired", "数量", ExcelCellType.INT).setRequired(true),
+				new ExcelColumn("amount", "金额", ExcelCellType.DOUBLE).setRange(0, 100),
+				// 转换失败不再校验
+				new ExcelColumn("amountAsDate", "金额", ExcelCellType.DATE).setRequired(true),
+				new ExcelColumn("dirty", "备注数字", ExcelCellType.LONG).setAllowedValues("0", "7", "14"),
+				// 日期按读取选项的日期格式检查
+				new ExcelColumn("date", "日期", ExcelCellType.DATE)
+						.setPattern("\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}\\.\\d{3}[+-]\\d{4}") };
+		List<Map<String, ExcelCellError>> expected = new ArrayList<>();
+		for (int i = 0; i < recordsNum; i++) {
+			Map<String, ExcelCellError> errors = new TreeMap<>();
+			if (i >= 100) {
+				errors.put("phone", ExcelCellError.PATTERN);
+			}
+			if (i % 5 == 0) {
+				errors.put("name", ExcelCellError.REQUIRED);
+			}
+			if (i % 3 == 0 && i > 30) {
+				errors.put("count", ExcelCellError.RANGE);
+			}
+			if (i % 3 != 0) {
+				errors.put("countRequired", ExcelCellError.REQUIRED);
+			}
+			if (i * 1.25d > 100) {
+				errors.put("amount", ExcelCellError.RANGE);
+			}
+			errors.put("amountAsDate", ExcelCellError.TYPE);
+			if (i > 2) {
+				errors.put("dirty", ExcelCellError.NOT_ALLOWED);
+			}
+			expected.add(errors);
+		}
+		List<ExcelReaderOptions> optionsList = new ArrayList<>();
+		for (ExcelReaderEngine engine : ExcelReaderEngine.values()) {
+			optionsList.add(new ExcelReaderOptions().setEngine(engine));
+		}
+		optionsList.add(new ExcelReaderOptions().setEngine(ExcelReaderEngine.NATIVE).setParallelism(4)
+				.setParallelChunkSize(1024));
+		for (ExcelReaderOptions options : optionsList) {
+			// Map方式：errorColumns为复用的ExcelRowErrors，复制后读完再取
+			List<List<ExcelColumn>> errorColumnsList = new ArrayList<>();
+			ExcelReaderStats stats = new ExcelReaderStats();
+			options.setColumns(columns).setMetrics(stats).setHandler(new Handler() {
+
+				@Override
+				public boolean onData(ExcelReader reader, Map<String, Object> data, int rowIndex,
+						List<ExcelColumn> errorColumns) throws HandlerException {
+					errorColumnsList.add(errorColumns == null ? null : ((ExcelRowErrors) errorColumns).copy());
+					return true;
+				}
+
+			});
+			new ExcelReader(file, options).read();
+			List<Map<String, ExcelCellError>> rows = new ArrayList<>();
+			for (List<ExcelColumn> errorColumns : errorColumnsList) {
+				Map<String, ExcelCellError> errors = new TreeMap<>();
+				if (errorColumns != null) {
+					ExcelRowErrors rowErrors = (ExcelRowErrors) errorColumns;
+					for (int i = 0; i < rowErrors.size(); i++) {
+						errors.put(rowErrors.get(i).getKey(), rowErrors.getErrorAt(i));
+					}
+				}
+				rows.add(errors);
+			}
+			assertEquals(expected, rows);
+			assertEquals(recordsNum, stats.getConversionErrorsNum("amountAsDate"));
+			assertEquals(recordsNum - 81, stats.getValidationErrorsNum("amount"));
+
+			// 行视图
+			List<Map<String, ExcelCellError>> viewRows = new ArrayList<>();
+			options.setMetrics(ExcelReaderMetrics.NOOP).setHandler(new RowViewHandler() {
+
+				@Override
+				public boolean onRow(ExcelReader reader, ExcelRowView row) throws HandlerException {
+					Map<String, ExcelCellError> errors = new TreeMap<>();
+					for (int k = 0; k < row.size(); k++) {
+						if (row.isError(k)) {
+							errors.put(row.getColumn(k).getKey(), row.getError(k));
+						}
+					}
+					viewRows.add(errors);
+					return true;
+				}
+
+			});
+			new ExcelReader(file, options).read();
+			assertEquals(expected, viewRows);
+		}
+	}
+
+	@Test
+	void readUniqueColumns() throws Exception {
+		int recordsNum = 200;
+		Workbook wb = ExcelUtils.newWorkbook();
+		Sheet sheet = ExcelUtils.ensureSheet(wb, 0);
+		Row titleRow = sheet.createRow(0);
+		titleRow.createCell(0).setCellValue("手机号");
+		titleRow.createCell(1).setCellValue("金额");
+		titleRow.createCell(2).setCellValue("备注");
+		titleRow.createCell(3).setCellValue("数量");
+		for (int i = 0; i < recordsNum; i++) {
+			Row row = sheet.createRow(i + 1);
+			row.createCell(0).setCellValue(String.valueOf(13800000000L + i % 50));
+			row.createCell(1).setCellValue(i % 80 * 1.5d);
+			// 空值不检查
+			row.createCell(2).setCellValue(i % 2 == 0 ? " " : "r" + i);
+			// 数值列空白、不存在或不能解析的单元格（Map方式的值为0）不检查，真正的0照常检查
+			if (i % 4 == 0) {
+				row.createCell(3);
+			} else if (i % 4 == 2) {
+				row.createCell(3).setCellValue("n/a");
+			} else if (i % 4 == 3) {
+				row.createCell(3).setCellValue(i / 4 % 10);
+			}
+		}
+		File file = newFile("unique");
+		ExcelUtils.writeToFile(wb, file);
+		ExcelColumn[] columns = new ExcelColumn[] { new ExcelColumn("phone", "手机号").setUnique(true),
+				new ExcelColumn("amount", "金额", ExcelCellType.DOUBLE).setUnique(true),
+				new ExcelColumn("remark", "备注").setUnique(true),
+				new ExcelColumn("count", "数量", ExcelCellType.INT).setUnique(true) };
+		// 各行重复列首次出现的行号（rowIndex从1开始，第一个数据行为2）
+		List<Map<String, Integer>> expected = new ArrayList<>();
+		for (int i = 0; i < recordsNum; i++) {
+			Map<String, Integer> duplicates = new TreeMap<>();
+			if (i >= 50) {
+				duplicates.put("phone", i % 50 + 2);
+			}
+			if (i >= 80) {
+				duplicates.put("amount", i % 80 + 2);
+			}
+			if (i % 4 == 3 && i >= 40) {
+				duplicates.put("count", i / 4 % 10 * 4 + 3 + 2);
+			}
+			expected.add(duplicates);
+		}
+		List<ExcelReaderOptions> optionsList = new ArrayList<>();
+		for (ExcelReaderEngine engine : ExcelReaderEngine.values()) {
+			optionsList.add(new ExcelReaderOptions().setEngine(engine));
+		}
+		optionsList.add(new ExcelReaderOptions().setEngine(ExcelReaderEngine.NATIVE).setParallelism(4)
+				.setParallelChunkSize(1024));
+		for (ExcelReaderOptions options : optionsList) {
+			List<Map<String, Integer>> rows = new ArrayList<>();
+			options.setFirstRowNumAsOne(true).setColumns(columns).setHandler(new Handler() {
+
+				@Override
+				public boolean onData(ExcelReader reader, Map<String, Object> data, int rowIndex,
+						List<ExcelColumn> errorColumns) throws HandlerException {
+					Map<String, Integer> duplicates = new TreeMap<>();
+					if (errorColumns != null) {
+						ExcelRowErrors rowErrors = (ExcelRowErrors) errorColumns;
+						for (int i = 0; i < rowErrors.size(); i++) {
+							assertEquals(ExcelCellError.DUPLICATE, rowErrors.getErrorAt(i));
+							int k = rowErrors.indexAt(i);
+							duplicates.put(columns[k].getKey(), rowErrors.getFirstRowIndex(k));
+						}
+					}
+					rows.add(duplicates);
+					return true;
+				}
+
+			});
+			new ExcelReader(file, options).read();
+			assertEquals(expected, rows);
+
+			List<Map<String, Integer>> viewRows = new ArrayList<>();
+			options.setHandler(new RowViewHandler() {
+
+				@Override
+				public boolean onRow(ExcelReader reader, ExcelRowView row) throws HandlerException {
+					Map<String, Integer> duplicates = new TreeMap<>();
+					for (int k = 0; k < row.size(); k++) {
+						if (row.isError(k)) {
+							assertEquals(ExcelCellError.DUPLICATE, row.getError(k));
+							duplicates.put(row.getColumn(k).getKey(), row.getFirstRowIndex(k));
+						}
+					}
+					viewRows.add(duplicates);
+					return true;
+				}
+
+			});
+			new ExcelReader(file, options).read();
+			assertEquals(expected, viewRows);
+		}
+
+		// 不按顺序的多线程解析时首次出现的行不确定，不支持唯一列
+		ExcelReaderOptions unordered = new ExcelReaderOptions().setEngine(ExcelReaderEngine.NATIVE).setParallelism(4)
+				.setParallelOrdered(false).setColumns(columns)
+				.setHandler((reader, data, rowIndex, errorColumns) -> true);
+		assertThrows(IllegalArgumentException.class, () -> new ExcelReader(file, unordered).read());
+	}
+
+	@Test
+	void readBeans() throws Exception {
+		File file = makeTypedExcelFile(200);
+		List<Map<String, Object>> expected = readTypedExcelFile(file, ExcelReaderEngine.NATIVE);
+		List<TypedBean> beans = new ArrayList<>();
+		BeanBatchHandler<TypedBean> handler = new BeanBatchHandler<TypedBean>(TypedBean.class, 50) {
+
+			@Override
+			protected TypedBean parseData(ExcelReader reader, TypedBean bean, ExcelRowView row)
+					throws HandlerException {
+				bean.rowIndex = row.getRowIndex();
+				return bean;
+			}
+
+			@Override
+			protected void handleBatch(ExcelReader reader, List<TypedBean> dataList) throws HandlerException {
+				beans.addAll(dataList);
+			}
+
+		};
+		ExcelReaderOptions options = new ExcelReaderOptions().setEngine(ExcelReaderEngine.NATIVE)
+				.setFirstRowNumAsOne(true).setColumns(handler.getColumns()).setHandler(handler);
+		new ExcelReader(file, options).read();
+
+		assertEquals(expected.size(), beans.size());
+		for (int i = 0; i < beans.size(); i++) {
+			TypedBean bean = beans.get(i);
+			Map<String, Object> data = expected.get(i);
+			assertEquals(data.get("rowIndex"), bean.rowIndex);
+			assertEquals(data.get("phone"), bean.phone);
+			assertEquals(data.get("name"), bean.name);
+			assertEquals(data.get("amount"), bean.amount);
+			assertEquals(data.get("date"), bean.date);
+			assertEquals(data.get("dirty"), bean.dirty);
+		}
+	}
+
+	static class TypedBean {
+		@ExcelField(title = "手机号")
+		private String phone;
+		@ExcelField(title = "姓名")
+		private String name;
+		@ExcelField(title = "金额")
+		private double amount;
+		@ExcelField(title = "日期")
+		private Date date;
+		@ExcelField(title = "备注数字")
+		private Long dirty;
+		private int rowIndex;
+	}
+
+	private ExcelColumn[] typedColumns() {
+		return new ExcelColumn[] { new ExcelColumn("phone", "手机号"), new ExcelColumn("name", "姓名"),
+				new ExcelColumn("count", "数量", ExcelCellType.INT),
+				new ExcelColumn("amount", "金额", ExcelCellType.DOUBLE),
+				new ExcelColumn("date", "日期", ExcelCellType.DATE),
+				new ExcelColumn("dateStr", "日期", ExcelCellType.STRING),
+				new ExcelColumn("dirty", "备注数字", ExcelCellType.LONG) };
+	}
+
+	private List<Map<String, Object>> readTypedExcelFile(File file, ExcelReaderEngine engine) throws Exception {
+		return readTypedExcelFile(file, engine, 0);
+	}
+
+	private List<Map<String, Object>> readTypedExcelFile(File file, ExcelReaderEngine engine,
+			int sharedStringsCacheSize) throws Exception {
+		return readTypedExcelFile(file,
+				new ExcelReaderOptions().setEngine(engine).setSharedStringsCacheSize(sharedStringsCacheSize));
+	}
+
+	private List<Map<String, Object>> readTypedExcelFile(File file, ExcelReaderOptions options) throws Exception {
+		List<Map<String, Object>> rows = new ArrayList<>();
+		options.setFirstRowNumAsOne(true).setColumns(typedColumns()).setHandler(new Handler() {
+
+			@Override
+			public boolean onData(ExcelReader reader, Map<String, Object> data, int rowIndex,
+					List<ExcelColumn> errorColumns) throws HandlerException {
+				data.put("rowIndex", rowIndex);
+				data.put("errors", errorColumns == null ? 0 : errorColumns.size());
+				rows.add(data);
+				return true;
+			}
+
+		});
+		new ExcelReader(file, options).read();
+		return rows;
+	}
+
+	private File makeTypedExcelFile(int recordsNum) throws IOException {
+		// 非流式工作簿写出共享字符串表
+		Workbook wb = ExcelUtils.newWorkbook();
+		Sheet sheet = ExcelUtils.ensureSheet(wb, 0);
+		CellStyle dateStyle = wb.createCellStyle();
+		dateStyle.setDataFormat(wb.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd hh:mm:ss"));
+
+		Row titleRow = sheet.createRow(0);
+		String[] titles = { "手机号", "姓名", "数量", "金额", "日期", "备注数字" };
+		for (int i = 0; i < titles.length; i++) {
+			titleRow.createCell(i).setCellValue(titles[i]);
+		}
+		for (int i = 0; i < recordsNum; i++) {
+			// 空行与稀疏列
+			Row row = sheet.createRow(i * 2 + 1);
+			row.createCell(0).setCellValue(String.valueOf(13800000000L + i));
+			if (i % 5 != 0) {
+				row.createCell(1).setCellValue(" name-" + i + " ");
+			}
+			row.createCell(2).setCellValue(i % 3 == 0 ? String.valueOf(i) : "x" + i);
+			row.createCell(3).setCellValue(i * 1.25d);
+			row.createCell(4).setCellValue(new Date(1600000000000L + i * 60000L));
+			row.getCell(4).setCellStyle(dateStyle);
+			row.createCell(5).setCellValue(" " + (i * 7) + " ");
+		}
+
+		File file = newFile("typed");
+		ExcelUtils.writeToFile(wb, file);
+		return file;
+	}
+
+	private File makeCsvFile(int recordsNum) throws IOException {
+		StringBuilder buf = new StringBuilder();
+		buf.append('\uFEFF').append("金额,手机号,姓名,备注,忽略\r\n");
+		for (int i = 0; i < recordsNum; i++) {
+			buf.append(i * 1.25d).append(',').append(13800000000L + i).append(", name-").append(i).append(" ,");
+			if (i % 4 == 0) {
+				buf.append("\"说\"\"明\"\",含逗号\n第二行\"");
+			} else if (i % 4 != 1) {
+				buf.append('r').append(i);
+			}
+			buf.append(",\"x,y\"").append(i % 2 == 0 ? "\r\n" : "\n");
+			if (i % 10 == 9) {
+				// 空行
+				buf.append("\r\n");
+			}
+		}
+		File file = newFile("typed", "csv");
+		Files.write(file.toPath(), buf.toString().getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
 	private File makeSrcExcelFile(int recordsNum) throws IOException {
 		SXSSFWorkbook wb = new SXSSFWorkbook(300);
 		SXSSFSheet sheet = wb.createSheet();
@@ -297,7 +1637,11 @@ class ExcelReaderTest {
 	}
 
 	private File newFile(String name) throws IOException {
-		File file = new File(new File(System.getProperty("user.dir")), "tmp/" + name + ".xlsx");
+		return newFile(name, "xlsx");
+	}
+
+	private File newFile(String name, String extension) throws IOException {
+		File file = new File(new File(System.getProperty("user.dir")), "tmp/" + name + "." + extension);
 		FileUtil.delete(file);
 		FileUtil.ensureFile(file);
 		return file;
@@ -0,0 +1,111 @@
+package com.sunnysuperman.excel.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.TimeZone;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.junit.jupiter.api.Test;
+
+import com.sunnysuperman.excel.CellDateFormatter;
+import com.sunnysuperman.excel.ExcelCellType;
+import com.sunnysuperman.excel.ExcelStyle;
+import com.sunnysuperman.excel.ExcelStylePool;
+import com.sunnysuperman.excel.ExcelUtils;
+import com.sunnysuperman.excel.NumericValue;
+
+class ExcelUtilsTest {
+
+	@Test
+	void numericCellValue() throws Exception {
+		try (Workbook wb = ExcelUtils.newWorkbook()) {
+			Row row = ExcelUtils.ensureRow(ExcelUtils.ensureSheet(wb, 0), 0);
+			NumericValue value = new NumericValue();
+
+			assertEquals(12345L, ExcelUtils.getLongCellValue(stringCell(row, " 12345 ")));
+			assertEquals(-42, ExcelUtils.getIntCellValue(stringCell(row, "-42")));
+			assertEquals(12.5d, ExcelUtils.getDoubleCellValue(stringCell(row, "12.5")));
+			assertEquals(1500d, ExcelUtils.getDoubleCellValue(stringCell(row, "1.5e3")));
+			assertEquals(12, ExcelUtils.getIntCellValue(stringCell(row, "12.9")));
+			assertEquals(110101199001011234L, ExcelUtils.getLongCellValue(stringCell(row, "110101199001011234")));
+
+			assertFalse(ExcelUtils.getNumericCellValue(stringCell(row, "   "), value));
+			assertTrue(value.isNull());
+			assertEquals(-1L, ExcelUtils.getLongCellValue(stringCell(row, ""), -1L));
+			assertTrue(Double.isNaN(ExcelUtils.getDoubleCellValue(row.createCell(9), Double.NaN)));
+
+			Cell numberCell = row.createCell(1);
+			numberCell.setCellValue(3.7d);
+			assertTrue(ExcelUtils.getNumericCellValue(numberCell, value));
+			assertEquals(3, value.intValue());
+			assertEquals(3.7d, value.doubleValue());
+		}
+	}
+
+	@Test
+	void dateFormatter() throws Exception {
+		Date date = new Date(1600000000123L);
+		TimeZone tz = TimeZone.getTimeZone("Asia/Shanghai");
+		// u、F、W、单个S、Y等字母在DateTimeFormatter中含义不同，需与SimpleDateFormat一致
+		String[] patterns = { "yyyy-MM-dd HH:mm:ss", "yyyy-MM-dd'T'HH:mm:ss.SSSZ", "yy/M/d H:m:s 'at' ''",
+				"YYYY-ww u F W", "HH:mm:ss.S", "EEE, d MMM yyyy", "yyyy[MM]" };
+		for (String pattern : patterns) {
+			SimpleDateFormat expected = new SimpleDateFormat(pattern);
+			expected.setTimeZone(tz);
+			assertEquals(expected.format(date), CellDateFormatter.of(pattern, tz).format(date), pattern);
+		}
+
+		// 默认格式使用当前系统时区
+		TimeZone defaultTimeZone = TimeZone.getDefault();
+		try {
+			for (String id : new String[] { "UTC", "Asia/Shanghai" }) {
+				TimeZone.setDefault(TimeZone.getTimeZone(id));
+				SimpleDateFormat expected = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSZ");
+				assertEquals(expected.format(date), CellDateFormatter.getDefault().format(date));
+			}
+		} finally {
+			TimeZone.setDefault(defaultTimeZone);
+		}
+	}
+
+	@Test
+	void stylePool() throws Exception {
+		try (Workbook wb = ExcelUtils.newWorkbook(100)) {
+			Sheet sheet = ExcelUtils.ensureSheet(wb, 0);
+			int stylesNum = wb.getNumCellStyles();
+			for (int i = 0; i < 1000; i++) {
+				ExcelUtils.setCellValue(ExcelUtils.ensureRow(sheet, i).createCell(0), new Date());
+			}
+			assertEquals(stylesNum + 1, wb.getNumCellStyles());
+			Cell dateCell = sheet.getRow(999).getCell(0);
+			assertTrue(DateUtil.isCellDateFormatted(dateCell));
+
+			ExcelStylePool pool = ExcelStylePool.of(wb);
+			CellStyle bold = pool
+					.getStyle(new ExcelStyle().setBold(true).setHorizontalAlignment(HorizontalAlignment.CENTER));
+			assertEquals(bold.getIndex(),
+					pool.getStyle(new ExcelStyle().setBold(true).setHorizontalAlignment(HorizontalAlignment.CENTER))
+							.getIndex());
+			assertEquals(dateCell.getCellStyle().getIndex(), pool.getStyle(ExcelCellType.DATE, null).getIndex());
+			assertEquals(2, pool.size());
+			assertEquals(stylesNum + 2, wb.getNumCellStyles());
+		}
+	}
+
+	private static Cell stringCell(Row row, String value) {
+		Cell cell = ExcelUtils.ensureCell(row, 0);
+		cell.setCellValue(value);
+		return cell;
+	}
+
+}
@@ -0,0 +1,235 @@
+package com.sunnysuperman.excel.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.junit.jupiter.api.Test;
+
+import com.sunnysuperman.commons.util.FileUtil;
+import com.sunnysuperman.excel.CellDateFormatter;
+import com.sunnysuperman.excel.ExcelCellType;
+import com.sunnysuperman.excel.ExcelStyle;
+import com.sunnysuperman.excel.ExcelUtils;
+import com.sunnysuperman.excel.csv.CsvFormat;
+import com.sunnysuperman.excel.reader.ExcelColumn;
+import com.sunnysuperman.excel.reader.ExcelField;
+import com.sunnysuperman.excel.reader.ExcelReader;
+import com.sunnysuperman.excel.reader.ExcelReaderOptions;
+import com.sunnysuperman.excel.reader.Handler;
+import com.sunnysuperman.excel.reader.HandlerException;
+import com.sunnysuperman.excel.writer.ExcelWriter;
+import com.sunnysuperman.excel.writer.ExcelWriterEngine;
+import com.sunnysuperman.excel.writer.ExcelWriterOptions;
+import com.sunnysuperman.excel.xlsx.XlsxPackage;
+
+class ExcelWriterTest {
+
+	@Test
+	void writeRows() throws Exception {
+		File file = newFile("writer-rows");
+		Date date = new Date(1700000000000L);
+		List<Map<String, Object>> rows = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			Map<String, Object> data = new HashMap<>();
+			data.put("phone", String.valueOf(13800000000L + i));
+			data.put("count", i);
+			data.put("amount", i % 3 == 0 ? null : i * 1.5d);
+			data.put("date", date);
+			rows.add(data);
+		}
+		try (ExcelWriter writer = new ExcelWriter(
+				new ExcelWriterOptions().setColumns(columns()).setRowCacheSize(50).setFlushRowsNum(200))) {
+			writer.writeRows(rows);
+			assertEquals(1000, writer.getRowCount());
+			writer.writeTo(file);
+		}
+
+		List<Map<String, Object>> readRows = readBack(file);
+		assertEquals(1000, readRows.size());
+		assertEquals("13800000999", readRows.get(999).get("phone"));
+		assertEquals(999, readRows.get(999).get("count"));
+		assertNull(readRows.get(3).get("amount"));
+		assertEquals(6d, readRows.get(4).get("amount"));
+		assertEquals(date, readRows.get(0).get("date"));
+	}
+
+	@Test
+	void writeNative() throws Exception {
+		Date date = new Date(1700000000000L);
+		List<Map<String, Object>> rows = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			Map<String, Object> data = new HashMap<>();
+			data.put("phone", i == 1 ? " <a&\"b> " : String.valueOf(13800000000L + i));
+			data.put("count", i);
+			data.put("amount", i % 3 == 0 ? null : i * 1.5d);
+			data.put("date", date);
+			rows.add(data);
+		}
+		File poiFile = newFile("writer-poi");
+		try (ExcelWriter writer = new ExcelWriter(new ExcelWriterOptions().setColumns(columns()), poiFile)) {
+			writer.writeRows(rows);
+			writer.finish();
+		}
+		File nativeFile = newFile("writer-native");
+		try (ExcelWriter writer = new ExcelWriter(
+				new ExcelWriterOptions().setEngine(ExcelWriterEngine.NATIVE).setColumns(columns()).setSheetName("导出"),
+				nativeFile)) {
+			writer.writeRows(rows);
+			writer.finish();
+		}
+
+		List<Map<String, Object>> readRows = readBack(nativeFile);
+		assertEquals(readBack(poiFile), readRows);
+		assertEquals(1000, readRows.size());
+		assertEquals("<a&\"b>", readRows.get(1).get("phone"));
+		assertEquals(6d, readRows.get(4).get("amount"));
+		assertEquals(date, readRows.get(0).get("date"));
+		try (XlsxPackage xlsx = XlsxPackage.open(nativeFile)) {
+			assertEquals("导出", xlsx.getSheetName(0));
+		}
+	}
+
+	@Test
+	void writeCsv() throws Exception {
+		Date date = new Date(1700000000000L);
+		List<Map<String, Object>> rows = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			Map<String, Object> data = new HashMap<>();
+			data.put("phone", i == 1 ? " <a&\"b> " : i == 2 ? "a,b\tc\nd" : String.valueOf(13800000000L + i));
+			data.put("count", i);
+			data.put("amount", i % 3 == 0 ? null : i * 1.5d);
+			data.put("date", date);
+			rows.add(data);
+		}
+		for (CsvFormat format : new CsvFormat[] { CsvFormat.CSV, CsvFormat.TSV.withBom(true) }) {
+			File file = newFile("writer", format.getDelimiter() == ',' ? "csv" : "tsv");
+			try (ExcelWriter writer = new ExcelWriter(
+					new ExcelWriterOptions().setCsvFormat(format).setColumns(columns()), file)) {
+				writer.writeRows(rows);
+				writer.finish();
+			}
+
+			List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+			String d = String.valueOf(format.getDelimiter());
+			assertEquals((format.isBom() ? "\uFEFF" : "") + String.join(d, "手机号", "数量", "金额", "日期"), lines.get(0));
+			assertEquals(String.join(d, "13800000000", "0", "", CellDateFormatter.getDefault().format(date)),
+					lines.get(1));
+			List<Map<String, Object>> readRows = readBack(file, format);
+			assertEquals(1000, readRows.size());
+			assertEquals("<a&\"b>", readRows.get(1).get("phone"));
+			assertEquals("a,b\tc\nd", readRows.get(2).get("phone"));
+			assertNull(readRows.get(3).get("amount"));
+			assertEquals(6d, readRows.get(4).get("amount"));
+			assertEquals(999, readRows.get(999).get("count"));
+		}
+	}
+
+	@Test
+	void writeStyles() throws Exception {
+		for (ExcelWriterEngine engine : ExcelWriterEngine.values()) {
+			File file = newFile("writer-styles-" + engine);
+			ExcelStyle headerStyle = new ExcelStyle().setBold(true).setHorizontalAlignment(HorizontalAlignment.CENTER);
+			try (ExcelWriter writer = new ExcelWriter(new ExcelWriterOptions().setEngine(engine).setColumns(columns())
+					.setHeaderStyle(headerStyle).setColumnStyle("amount", new ExcelStyle().setDataFormat("0.00")),
+					file)) {
+				Map<String, Object> data = new HashMap<>();
+				data.put("amount", 1.5d);
+				data.put("date", new Date());
+				writer.writeRow(data);
+				writer.finish();
+			}
+			try (Workbook wb = ExcelUtils.loadWorkbook(file)) {
+				Row header = wb.getSheetAt(0).getRow(0);
+				CellStyle style = header.getCell(0).getCellStyle();
+				assertEquals(HorizontalAlignment.CENTER, style.getAlignment());
+				assertTrue(wb.getFontAt(style.getFontIndexAsInt()).getBold());
+				assertEquals(style.getIndex(), header.getCell(3).getCellStyle().getIndex());
+				Row row = wb.getSheetAt(0).getRow(1);
+				assertEquals("0.00", row.getCell(2).getCellStyle().getDataFormatString());
+				assertEquals("yyyy-mm-dd hh:mm:ss", row.getCell(3).getCellStyle().getDataFormatString());
+			}
+		}
+	}
+
+	@Test
+	void writeBeans() throws Exception {
+		File file = newFile("writer-beans");
+		List<ExportBean> beans = new ArrayList<>();
+		for (int i = 0; i < 300; i++) {
+			ExportBean bean = new ExportBean();
+			bean.phone = String.valueOf(13800000000L + i);
+			bean.count = i;
+			beans.add(bean);
+		}
+		try (ExcelWriter writer = new ExcelWriter(new ExcelWriterOptions().setColumns(columns()))) {
+			writer.writeBeans(beans);
+			writer.writeTo(file);
+		}
+
+		List<Map<String, Object>> readRows = readBack(file);
+		assertEquals(300, readRows.size());
+		assertEquals("13800000299", readRows.get(299).get("phone"));
+		assertEquals(299, readRows.get(299).get("count"));
+		assertTrue(readRows.get(0).get("date") == null);
+	}
+
+	static class ExportBean {
+		@ExcelField(title = "手机号")
+		private String phone;
+		@ExcelField(title = "数量")
+		private int count;
+	}
+
+	private ExcelColumn[] columns() {
+		return new ExcelColumn[] { new ExcelColumn("phone", "手机号"), new ExcelColumn("count", "数量", ExcelCellType.INT),
+				new ExcelColumn("amount", "金额", ExcelCellType.DOUBLE),
+				new ExcelColumn("date", "日期", ExcelCellType.DATE) };
+	}
+
+	private List<Map<String, Object>> readBack(File file) throws Exception {
+		return readBack(file, null);
+	}
+
+	private List<Map<String, Object>> readBack(File file, CsvFormat csvFormat) throws Exception {
+		List<Map<String, Object>> rows = new ArrayList<>();
+		new ExcelReader(file,
+				new ExcelReaderOptions().setCsvFormat(csvFormat).setColumns(columns()).setHandler(new Handler() {
+
+					@Override
+					public boolean onData(ExcelReader reader, Map<String, Object> data, int rowIndex,
+							List<ExcelColumn> errorColumns) throws HandlerException {
+						rows.add(data);
+						return true;
+					}
+
+				})).read();
+		return rows;
+	}
+
+	private File newFile(String name) throws IOException {
+		return newFile(name, "xlsx");
+	}
+
+	private File newFile(String name, String extension) throws IOException {
+		File file = new File(new File(System.getProperty("user.dir")), "tmp/" + name + "." + extension);
+		FileUtil.delete(file);
+		FileUtil.ensureFile(file);
+		return file;
+	}
+
+}